@@ -0,0 +1,161 @@
+package com.icomputational.geoelements;
+
+/**
+ * A {@link GeoBoundingBox} represents an immutable bounding box of geographic coordinates.
+ * The west longitude could be greater than the east longitude, which means the bounding box crosses the
+ * antimeridian (180 degrees of longitude).
+ */
+public class GeoBoundingBox {
+    private static final double MIN_LONGITUDE = -180;
+    private static final double MAX_LONGITUDE = 180;
+    private static final double MIN_LATITUDE = -90;
+    private static final double MAX_LATITUDE = 90;
+
+    private final double west;
+    private final double south;
+    private final double east;
+    private final double north;
+
+    /**
+     * Construct a geographic bounding box.
+     * @param west the west longitude, from -180 to 180.
+     * @param south the south latitude, from -90 to 90.
+     * @param east the east longitude, from -180 to 180, less than west if crossing the antimeridian.
+     * @param north the north latitude, from -90 to 90, not less than south.
+     */
+    public GeoBoundingBox(double west, double south, double east, double north) {
+        if (!(west >= MIN_LONGITUDE && west <= MAX_LONGITUDE && east >= MIN_LONGITUDE && east <= MAX_LONGITUDE)) {
+            throw new IllegalArgumentException("invalid longitude range " + west + " ~ " + east);
+        }
+        if (!(south >= MIN_LATITUDE && north <= MAX_LATITUDE && south <= north)) {
+            throw new IllegalArgumentException("invalid latitude range " + south + " ~ " + north);
+        }
+
+        this.west = west;
+        this.south = south;
+        this.east = east;
+        this.north = north;
+    }
+
+    /**
+     * Returns the west longitude.
+     */
+    public double west() {
+        return west;
+    }
+
+    /**
+     * Returns the south latitude.
+     */
+    public double south() {
+        return south;
+    }
+
+    /**
+     * Returns the east longitude.
+     */
+    public double east() {
+        return east;
+    }
+
+    /**
+     * Returns the north latitude.
+     */
+    public double north() {
+        return north;
+    }
+
+    /**
+     * Returns true if this bounding box crosses the antimeridian.
+     */
+    public boolean crossesAntimeridian() {
+        return west > east;
+    }
+
+    /**
+     * Split this bounding box at the antimeridian.
+     * @return two bounding boxes if this bounding box crosses the antimeridian, otherwise this bounding box only.
+     */
+    public GeoBoundingBox[] split() {
+        if (!crossesAntimeridian()) {
+            return new GeoBoundingBox[] { this };
+        }
+
+        return new GeoBoundingBox[] { new GeoBoundingBox(west, south, MAX_LONGITUDE, north),
+            new GeoBoundingBox(MIN_LONGITUDE, south, east, north) };
+    }
+
+    /**
+     * Check if this bounding box contains specified coordinate.
+     */
+    public boolean contains(Coordinate coord) {
+        double lng = coord.longitude();
+        double lat = coord.latitude();
+        if (lat < south || lat > north) {
+            return false;
+        }
+
+        if (crossesAntimeridian()) {
+            return lng >= west || lng <= east;
+        } else {
+            return lng >= west && lng <= east;
+        }
+    }
+
+    /**
+     * Check if this bounding box overlaps with another bounding box.
+     * @param bb a bounding box.
+     * @return true if two bounding boxes overlap.
+     */
+    public boolean overlaps(GeoBoundingBox bb) {
+        if (this.south > bb.north || this.north < bb.south) {
+            return false;
+        }
+
+        for (GeoBoundingBox part : this.split()) {
+            for (GeoBoundingBox other : bb.split()) {
+                if (part.west <= other.east && part.east >= other.west) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        long temp;
+        temp = Double.doubleToLongBits(east);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(north);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(south);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(west);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+
+        GeoBoundingBox other = (GeoBoundingBox) obj;
+        return Double.doubleToLongBits(this.west) == Double.doubleToLongBits(other.west)
+            && Double.doubleToLongBits(this.south) == Double.doubleToLongBits(other.south)
+            && Double.doubleToLongBits(this.east) == Double.doubleToLongBits(other.east)
+            && Double.doubleToLongBits(this.north) == Double.doubleToLongBits(other.north);
+    }
+
+    @Override
+    public String toString() {
+        return "GeoBoundingBox [west=" + west + ", south=" + south + ", east=" + east + ", north=" + north + "]";
+    }
+}
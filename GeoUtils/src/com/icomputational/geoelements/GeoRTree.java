@@ -0,0 +1,250 @@
+package com.icomputational.geoelements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Shape;
+import com.icomputational.geometry.rtree.DistanceMetric;
+import com.icomputational.geometry.rtree.RTree;
+
+/**
+ * A {@link GeoRTree} is a geographic index of {@link GeoShape} over a {@link RTree}, which uses longitude
+ * as X coordinate and latitude as Y coordinate.
+ * A shape or a query crossing the antimeridian is split into two parts at the antimeridian, so each part
+ * costs one traversal of the underlying tree, and shapes found by multiple parts are returned only once.
+ */
+public class GeoRTree {
+    /**
+     * The margin in degrees (about 0.1 mm) to inflate a bounding box which has no width or height,
+     * as the {@link BoundingBox} of the underlying tree must have an area.
+     */
+    private static final double MARGIN = 1E-9;
+
+    /**
+     * A {@link Part} represents a part of a geographic shape on one side of the antimeridian.
+     */
+    private static class Part extends Shape {
+        final GeoShape shape;
+        final int index;
+        final BoundingBox bb;
+
+        Part(GeoShape shape, int index, GeoBoundingBox bb) {
+            this.shape = shape;
+            this.index = index;
+            this.bb = toBoundingBox(bb);
+        }
+
+        @Override
+        public BoundingBox boundingBox() {
+            return bb;
+        }
+
+        @Override
+        public boolean contains(double x, double y) {
+            return shape.contains(new Coordinate(x, y));
+        }
+
+        @Override
+        public boolean overlaps(BoundingBox bb) {
+            return shape.overlaps(toGeoBoundingBox(bb));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * shape.hashCode() + index;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (getClass() != obj.getClass())
+                return false;
+            Part other = (Part) obj;
+            return index == other.index && shape.equals(other.shape);
+        }
+    }
+
+    /**
+     * A {@link DistanceMetric} of great-circle distance to a coordinate.
+     */
+    private class GreatCircleDistance implements DistanceMetric {
+        private final Coordinate target;
+
+        GreatCircleDistance(Coordinate target) {
+            this.target = target;
+        }
+
+        @Override
+        public double distance(BoundingBox bb) {
+            return sphere.getDistance(target, toGeoBoundingBox(bb));
+        }
+
+        @Override
+        public double distance(Shape shape) {
+            return ((Part) shape).shape.distance(sphere, target);
+        }
+    }
+
+    private final RTree tree;
+    private final Sphere sphere;
+    private int size;
+
+    /**
+     * Construct from an empty tree, use {@link Sphere#EARTH} for distance calculation.
+     * @param tree an empty R-tree, which should not be accessed except via this index.
+     */
+    public GeoRTree(RTree tree) {
+        this(tree, Sphere.EARTH);
+    }
+
+    /**
+     * Construct from an empty tree and a sphere.
+     * @param tree an empty R-tree, which should not be accessed except via this index.
+     * @param sphere the sphere for distance calculation.
+     */
+    public GeoRTree(RTree tree, Sphere sphere) {
+        if (tree.size() != 0) {
+            throw new IllegalArgumentException("the tree is not empty");
+        }
+        this.tree = tree;
+        this.sphere = sphere;
+    }
+
+    /**
+     * Insert a shape to this index.
+     * @param shape a shape instance.
+     */
+    public void insert(GeoShape shape) {
+        GeoBoundingBox[] parts = shape.boundingBox().split();
+        for (int i = 0; i < parts.length; i++) {
+            tree.insert(new Part(shape, i, parts[i]));
+        }
+        size++;
+    }
+
+    /**
+     * Delete a shape from this index.
+     * @param shape the shape to be deleted.
+     * @return true if the shape has been deleted successfully.
+     */
+    public boolean delete(GeoShape shape) {
+        GeoBoundingBox[] parts = shape.boundingBox().split();
+        boolean deleted = false;
+        for (int i = 0; i < parts.length; i++) {
+            deleted |= tree.delete(new Part(shape, i, parts[i]));
+        }
+        if (deleted) {
+            size--;
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the number of shapes in this index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Search for shapes that contains specified coordinate.
+     * @param coord a coordinate to be tested.
+     * @return a list of shapes contains specified coordinate.
+     */
+    public List<GeoShape> search(Coordinate coord) {
+        return merge(tree.search(new Point(coord.longitude(), coord.latitude())), null);
+    }
+
+    /**
+     * Search for shapes that overlaps specified bounding box.
+     * @param bb a bounding box to be tested, which may cross the antimeridian.
+     * @return a list of shapes overlaps specified bounding box.
+     */
+    public List<GeoShape> search(GeoBoundingBox bb) {
+        GeoBoundingBox[] parts = bb.split();
+        List<GeoShape> result = merge(tree.search(toBoundingBox(parts[0])), null);
+        if (parts.length > 1) {
+            result = merge(tree.search(toBoundingBox(parts[1])), result);
+        }
+        return result;
+    }
+
+    /**
+     * Search for shapes within specified great-circle distance to a coordinate.
+     * @param centre the centre coordinate.
+     * @param radius the distance in meters.
+     * @return a list of shapes, sorted by distance in increasing order.
+     */
+    public List<GeoShape> search(Coordinate centre, double radius) {
+        return merge(tree.nearest(new GreatCircleDistance(centre), Integer.MAX_VALUE, radius), null);
+    }
+
+    /**
+     * Search for the nearest shapes by great-circle distance.
+     * @param coord the coordinate to be tested.
+     * @param k the maximum number of shapes to return.
+     * @return a list of shapes, sorted by distance in increasing order.
+     */
+    public List<GeoShape> nearest(Coordinate coord, int k) {
+        // a shape has 2 parts at most, both parts have the same distance
+        int limit = (k > Integer.MAX_VALUE / 2) ? Integer.MAX_VALUE : k * 2;
+        List<GeoShape> result = merge(tree.nearest(new GreatCircleDistance(coord), limit, Double.MAX_VALUE), null);
+        return (result.size() > k) ? result.subList(0, k) : result;
+    }
+
+    /**
+     * Merge shapes of parts to a result list without duplicates.
+     */
+    private static List<GeoShape> merge(List<Shape> parts, List<GeoShape> result) {
+        Set<GeoShape> found = Collections.newSetFromMap(new IdentityHashMap<GeoShape, Boolean>());
+        if (result == null) {
+            result = new ArrayList<GeoShape>(parts.size());
+        } else {
+            found.addAll(result);
+        }
+
+        for (Shape part : parts) {
+            GeoShape shape = ((Part) part).shape;
+            if (found.add(shape)) {
+                result.add(shape);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Convert a geographic bounding box which doesn't cross the antimeridian to a bounding box.
+     */
+    static BoundingBox toBoundingBox(GeoBoundingBox bb) {
+        double minX = bb.west();
+        double maxX = bb.east();
+        if (minX == maxX) {
+            minX -= MARGIN;
+            maxX += MARGIN;
+        }
+
+        double minY = bb.south();
+        double maxY = bb.north();
+        if (minY == maxY) {
+            minY -= MARGIN;
+            maxY += MARGIN;
+        }
+        return new BoundingBox(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Convert a bounding box to a geographic bounding box, the coordinates are clamped into valid range.
+     */
+    static GeoBoundingBox toGeoBoundingBox(BoundingBox bb) {
+        return new GeoBoundingBox(Math.max(bb.minX(), -180), Math.max(bb.minY(), -90), Math.min(bb.maxX(), 180),
+            Math.min(bb.maxY(), 90));
+    }
+}
@@ -0,0 +1,38 @@
+package com.icomputational.geoelements;
+
+/**
+ * A {@link GeoShape} is an immutable shape of geographic coordinates.
+ * @see GeoRTree
+ */
+public abstract class GeoShape {
+    /**
+     * Returns the bounding box of this shape, which may cross the antimeridian.
+     */
+    public abstract GeoBoundingBox boundingBox();
+
+    /**
+     * Check if this shape contains specified coordinate.
+     * @param coord a coordinate.
+     * @return true if the coordinate is contained by this shape.
+     */
+    public abstract boolean contains(Coordinate coord);
+
+    /**
+     * Check if this shape overlaps specified bounding box.
+     * @param bb a bounding box, which never crosses the antimeridian.
+     * @return true if this shape overlaps the bounding box.
+     */
+    public abstract boolean overlaps(GeoBoundingBox bb);
+
+    /**
+     * Calculate the great-circle distance from specified coordinate to this shape.
+     * The default implementation returns the distance to the bounding box of this shape, which is exact
+     * for a single coordinate, shapes with other outlines should override this method.
+     * @param sphere the sphere for distance calculation.
+     * @param coord a coordinate.
+     * @return the distance, 0 if the coordinate is inside this shape.
+     */
+    public double distance(Sphere sphere, Coordinate coord) {
+        return sphere.getDistance(coord, boundingBox());
+    }
+}
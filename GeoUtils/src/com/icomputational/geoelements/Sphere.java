@@ -57,6 +57,71 @@ public class Sphere {
         return radius * b;
     }
 
+    /**
+     * Get the minimal distance from a coordinate to a bounding box on Earth.
+     * @param from a coordinate in degrees.
+     * @param bb a bounding box, which may cross the antimeridian.
+     * @return distance in meters, 0 if the coordinate is inside the bounding box.
+     */
+    public double getDistance(Coordinate from, GeoBoundingBox bb) {
+        if (!from.isValid()) {
+            return Double.NaN;
+        }
+
+        if (bb.crossesAntimeridian()) {
+            GeoBoundingBox[] parts = bb.split();
+            return Math.min(getDistance(from, parts[0]), getDistance(from, parts[1]));
+        }
+
+        double lng = from.longitude();
+        double lat = from.latitude();
+        double h;
+        if (lng >= bb.west() && lng <= bb.east()) {
+            // the closest point is on the same meridian
+            if (lat < bb.south()) {
+                h = haversin(Math.toRadians(bb.south() - lat));
+            } else if (lat > bb.north()) {
+                h = haversin(Math.toRadians(lat - bb.north()));
+            } else {
+                return 0D;
+            }
+        } else {
+            // the closest point is on the closest edge meridian, at the vertex of the great circle if possible
+            double hDeltaLng = Math.min(haversin(Math.toRadians(lng - bb.west())),
+                haversin(Math.toRadians(lng - bb.east())));
+            double cosLat = Math.cos(Math.toRadians(lat));
+            double vertexLat = getVertexLatitude(lat, hDeltaLng);
+            if (vertexLat > bb.south() && vertexLat < bb.north()) {
+                h = haversin(hDeltaLng, cosLat, lat, vertexLat);
+            } else {
+                h = Math.min(haversin(hDeltaLng, cosLat, lat, bb.south()),
+                    haversin(hDeltaLng, cosLat, lat, bb.north()));
+            }
+        }
+
+        return 2 * radius * Math.asin(Math.sqrt(Math.min(1D, h)));
+    }
+
+    /**
+     * Returns the latitude on a meridian which is closest to specified latitude.
+     */
+    private static double getVertexLatitude(double lat, double hDeltaLng) {
+        double cosDeltaLng = 1 - 2 * hDeltaLng;
+        if (cosDeltaLng <= 0) {
+            return lat > 0 ? 90 : -90;
+        }
+        return Math.toDegrees(Math.atan(Math.tan(Math.toRadians(lat)) / cosDeltaLng));
+    }
+
+    private static double haversin(double hDeltaLng, double cosLat1, double lat1, double lat2) {
+        return cosLat1 * Math.cos(Math.toRadians(lat2)) * hDeltaLng + haversin(Math.toRadians(lat1 - lat2));
+    }
+
+    private static double haversin(double theta) {
+        double s = Math.sin(theta / 2);
+        return s * s;
+    }
+
     /**
      * Calculate bearing of two points on a spherical Earth.
      * Bearing is the clockwise angle between the north direction and the moving direction.
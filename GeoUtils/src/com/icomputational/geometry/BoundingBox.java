@@ -9,7 +9,8 @@ public class BoundingBox {
 	private final double minY;
 	private final double maxX;
 	private final double maxY;
-	private final Point centre;
+	// computed on demand, a race only computes the same immutable point twice
+	private Point centre;
 	
     /**
      * Construct a bounding box.
@@ -33,8 +34,6 @@ public class BoundingBox {
         this.minY = minY;
         this.maxX = maxX;
         this.maxY = maxY;
-
-        centre = new Point((minX + maxX) / 2, (minY + maxY) / 2);
     }
     
     /**
@@ -119,9 +118,26 @@ public class BoundingBox {
      * Returns the central point of this bounding box.
      */
     public Point centre() {
-        return centre;
+        Point result = centre;
+        if (result == null) {
+            result = new Point((minX + maxX) / 2, (minY + maxY) / 2);
+            centre = result;
+        }
+        return result;
     }
     
+    /**
+     * Calculate the distance from specified coordinate to this bounding box.
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return the distance, 0 if the coordinate is inside this bounding box.
+     */
+    public double distance(double x, double y) {
+        double dx = (x < minX) ? minX - x : ((x > maxX) ? x - maxX : 0D);
+        double dy = (y < minY) ? minY - y : ((y > maxY) ? y - maxY : 0D);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
     /**
      * Join two bounding boxes into a large bounding box covers all area of two bounding box.
      * @param bb another bounding box.
@@ -138,7 +154,7 @@ public class BoundingBox {
      * @return true if two bounding boxs overlap.
      */
     public boolean overlaps(BoundingBox bb) {
-        return this.minX < bb.maxX && this.maxX > bb.minX && this.minY < bb.maxY && this.maxY > bb.minY;
+        return overlaps(minX, minY, maxX, maxY, bb.minX, bb.minY, bb.maxX, bb.maxY);
     }
     
     /**
@@ -148,15 +164,7 @@ public class BoundingBox {
      *         0 if there is no overlap.
      */
     public double getOverlap(BoundingBox bb) {
-        double minx = Math.max(this.minX, bb.minX);
-        double miny = Math.max(this.minY, bb.minY);
-        double maxy = Math.min(this.maxY, bb.maxY);
-        double maxx = Math.min(this.maxX, bb.maxX);
-        if (minx < maxx && miny < maxy) {
-            return (maxx - minx) * (maxy - miny);
-        } else {
-            return 0;
-        }
+        return overlapArea(minX, minY, maxX, maxY, bb.minX, bb.minY, bb.maxX, bb.maxY);
     }
     
     /**
@@ -166,57 +174,99 @@ public class BoundingBox {
      * @return true if this bounding box intersect with specified line segment.
      */
     public boolean intersects(Point p1, Point p2) {
-        double minPx;
-        double maxPx;
-        if (p1.x() <= p2.x()) {
-            minPx = p1.x();
-            maxPx = p2.x();
-        } else {
-            minPx = p2.x();
-            maxPx = p1.x();
+        if (p1.equals(p2)) {
+            throw new IllegalArgumentException("two points are same");
         }
-        
-        double minPy;
-        double maxPy;
-        if (p1.y() < p2.y()) {
-            minPy = p1.y();
-            maxPy = p2.y();
+        return segmentIntersects(p1.x(), p1.y(), p2.x(), p2.y(), minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Check if two bounding boxes overlap, the same as {@link #overlaps(BoundingBox)} without objects.
+     */
+    public static boolean overlaps(double minX1, double minY1, double maxX1, double maxY1, double minX2,
+            double minY2, double maxX2, double maxY2) {
+        return minX1 < maxX2 && maxX1 > minX2 && minY1 < maxY2 && maxY1 > minY2;
+    }
+
+    /**
+     * Get the area of the bounding box which covers two bounding boxes, the same as the area of
+     * {@link #join(BoundingBox)} without objects.
+     */
+    public static double unionArea(double minX1, double minY1, double maxX1, double maxY1, double minX2,
+            double minY2, double maxX2, double maxY2) {
+        return (Math.max(maxX1, maxX2) - Math.min(minX1, minX2)) * (Math.max(maxY1, maxY2) - Math.min(minY1, minY2));
+    }
+
+    /**
+     * Get overlap area of two bounding boxes, the same as {@link #getOverlap(BoundingBox)} without objects.
+     * @return the overlap area, 0 if there is no overlap.
+     */
+    public static double overlapArea(double minX1, double minY1, double maxX1, double maxY1, double minX2,
+            double minY2, double maxX2, double maxY2) {
+        double minx = Math.max(minX1, minX2);
+        double miny = Math.max(minY1, minY2);
+        double maxy = Math.min(maxY1, maxY2);
+        double maxx = Math.min(maxX1, maxX2);
+        if (minx < maxx && miny < maxy) {
+            return (maxx - minx) * (maxy - miny);
         } else {
-            minPy = p2.y();
-            maxPy = p1.y();
+            return 0;
         }
-        
-        Line segment = new Line(p1, p2);
-        if (this.minX >= minPx && this.minX <= maxPx) {
-            double y1 = segment.getY(minX);
-            if (y1 >= minY && y1 <= maxY) {
-                return true;
+    }
+
+    /**
+     * Check if a bounding box intersects with a line segment, the same as {@link #intersects(Point, Point)}
+     * without objects. A segment whose ends are same never intersects.
+     * @param x1 the X coordinate of an end of the segment.
+     * @param y1 the Y coordinate of an end of the segment.
+     * @param x2 the X coordinate of another end of the segment.
+     * @param y2 the Y coordinate of another end of the segment.
+     * @return true if the bounding box intersects with the segment.
+     */
+    public static boolean segmentIntersects(double x1, double y1, double x2, double y2, double minX, double minY,
+            double maxX, double maxY) {
+        double minPx = Math.min(x1, x2);
+        double maxPx = Math.max(x1, x2);
+        double minPy = Math.min(y1, y2);
+        double maxPy = Math.max(y1, y2);
+
+        // the segment is on the line a * x + b * y = c
+        double a = y2 - y1;
+        double b = x1 - x2;
+        double c = x1 * y2 - x2 * y1;
+        if (b != 0) {
+            if (minX >= minPx && minX <= maxPx) {
+                double y = (c - a * minX) / b;
+                if (y >= minY && y <= maxY) {
+                    return true;
+                }
             }
-        }
-        if (this.maxX >= minPx && this.maxX <= maxPx) {
-            double y2 = segment.getY(maxX);
-            if (y2 >= minY && y2 <= maxY) {
-                return true;
+            if (maxX >= minPx && maxX <= maxPx) {
+                double y = (c - a * maxX) / b;
+                if (y >= minY && y <= maxY) {
+                    return true;
+                }
             }
         }
 
-        if (this.minY >= minPy && this.minY <= maxPy) {
-            double x1 = segment.getX(minY);
-            if (x1 >= minX && x1 <= maxX) {
-                return true;
+        if (a != 0) {
+            if (minY >= minPy && minY <= maxPy) {
+                double x = (c - b * minY) / a;
+                if (x >= minX && x <= maxX) {
+                    return true;
+                }
             }
-        }
-        if (this.maxY >= minPy && this.maxY <= maxPy) {
-            double x2 = segment.getX(maxY);
-            if (x2 >= minX && x2 <= maxX) {
-                return true;
+            if (maxY >= minPy && maxY <= maxPy) {
+                double x = (c - b * maxY) / a;
+                if (x >= minX && x <= maxX) {
+                    return true;
+                }
             }
         }
 
         return false;
-        
     }
-    
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -0,0 +1,356 @@
+package com.icomputational.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link Clipper} clips polygons and polylines to bounding boxes, or to whole grids of tiles for vector
+ * tiles.
+ * <p>
+ * Polygons are clipped by the Sutherland-Hodgman algorithm ring by ring, where inner rings are clipped as
+ * well, and polylines are clipped by the Liang-Barsky algorithm into parts. A grid is clipped in two passes
+ * over the coordinates, the first pass distributes each edge to the columns it crosses, and the second pass
+ * distributes the result of each column to the rows, so a shape is clipped to all tiles in time linear in the
+ * size of the output.
+ * <p>
+ * A clipped ring may have edges of zero width along the sides of a tile where the ring goes out of the tile
+ * and back, which are harmless for rendering and point-in-polygon tests. Rings without area are dropped.
+ * <p>
+ * A clipper reuses its buffers between calls, so it's not thread-safe, each thread should have its own
+ * clipper.
+ */
+public class Clipper {
+    /**
+     * A {@link Chains} is a reusable buffer of chains of coordinates, consecutive duplicate coordinates are
+     * dropped.
+     */
+    private static final class Chains {
+        double[] xs = new double[16];
+        double[] ys = new double[16];
+        int size;
+        // offsets of chains
+        int[] starts = new int[4];
+        int parts;
+
+        void clear() {
+            size = 0;
+            parts = 0;
+        }
+
+        /**
+         * Start a new chain, unless the last chain is empty.
+         */
+        void start() {
+            if (parts > 0 && starts[parts - 1] == size) {
+                return;
+            }
+            if (parts == starts.length) {
+                starts = Arrays.copyOf(starts, parts * 2);
+            }
+            starts[parts++] = size;
+        }
+
+        void add(double x, double y) {
+            if (parts == 0) {
+                start();
+            }
+            if (size > starts[parts - 1] && xs[size - 1] == x && ys[size - 1] == y) {
+                return;
+            }
+            if (size == xs.length) {
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+            }
+            xs[size] = x;
+            ys[size] = y;
+            size++;
+        }
+
+        int end(int part) {
+            return part + 1 < parts ? starts[part + 1] : size;
+        }
+    }
+
+    private Chains[] columns = new Chains[0];
+    private Chains[] rows = new Chains[0];
+
+    /**
+     * Clip a linear ring to a bounding box.
+     * @return the clipped ring, null if nothing is left.
+     */
+    public LinearRing clip(LinearRing ring, BoundingBox bb) {
+        LinearRing[] result = clipRing(ring.ax, ring.ay, bb, 1, 1);
+        return result[0];
+    }
+
+    /**
+     * Clip a polygon to a bounding box.
+     * @return the clipped polygon, null if nothing is left.
+     */
+    public Polygon clip(Polygon polygon, BoundingBox bb) {
+        return clip(polygon, bb, 1, 1)[0];
+    }
+
+    /**
+     * Clip a polygon to a grid of tiles.
+     * @param polygon the polygon to be clipped.
+     * @param grid the bounding box of the grid.
+     * @param columns the number of columns of the grid.
+     * @param rows the number of rows of the grid.
+     * @return clipped polygons of tiles row by row, indexed by {@code row * columns + column}, null for tiles
+     *         where nothing is left.
+     */
+    public Polygon[] clip(Polygon polygon, BoundingBox grid, int columns, int rows) {
+        Polygon[] result = new Polygon[columns * rows];
+        LinearRing outer = polygon.outerRing();
+        LinearRing[] rings = clipRing(outer.ax, outer.ay, grid, columns, rows);
+        for (int i = 0; i < result.length; i++) {
+            if (rings[i] != null) {
+                result[i] = new Polygon(rings[i]);
+            }
+        }
+
+        if (polygon.innerRings() != null) {
+            for (LinearRing inner : polygon.innerRings()) {
+                rings = clipRing(inner.ax, inner.ay, grid, columns, rows);
+                for (int i = 0; i < result.length; i++) {
+                    if (rings[i] != null && result[i] != null) {
+                        result[i].addInnerRing(rings[i]);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Clip a polyline to a bounding box.
+     * @return the parts of the polyline inside of the bounding box.
+     */
+    public List<Polyline> clip(Polyline polyline, BoundingBox bb) {
+        return clip(polyline, bb, 1, 1).get(0);
+    }
+
+    /**
+     * Clip a polyline to a grid of tiles.
+     * @param polyline the polyline to be clipped.
+     * @param grid the bounding box of the grid.
+     * @param columns the number of columns of the grid.
+     * @param rows the number of rows of the grid.
+     * @return parts of the polyline in tiles row by row, indexed by {@code row * columns + column}.
+     */
+    public List<List<Polyline>> clip(Polyline polyline, BoundingBox grid, int columns, int rows) {
+        List<List<Polyline>> result = new ArrayList<List<Polyline>>(columns * rows);
+        for (int i = 0; i < columns * rows; i++) {
+            result.add(new ArrayList<Polyline>());
+        }
+
+        prepare(columns, rows);
+        double width = grid.width() / columns;
+        double height = grid.height() / rows;
+        split(polyline.ax, polyline.ay, 0, polyline.ax.length, false, true, grid.minX(), width, this.columns,
+            columns);
+        for (int c = 0; c < columns; c++) {
+            Chains column = this.columns[c];
+            for (int r = 0; r < rows; r++) {
+                this.rows[r].clear();
+            }
+            for (int part = 0; part < column.parts; part++) {
+                split(column.xs, column.ys, column.starts[part], column.end(part), false, false, grid.minY(),
+                    height, this.rows, rows);
+            }
+
+            for (int r = 0; r < rows; r++) {
+                Chains row = this.rows[r];
+                for (int part = 0; part < row.parts; part++) {
+                    int from = row.starts[part];
+                    int to = row.end(part);
+                    if (to - from >= 2) {
+                        result.get(r * columns + c).add(new Polyline(Arrays.copyOfRange(row.xs, from, to),
+                            Arrays.copyOfRange(row.ys, from, to)));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Make sure there are enough buffers, and clear buffers of columns.
+     */
+    private void prepare(int columns, int rows) {
+        if (columns < 1 || rows < 1) {
+            throw new IllegalArgumentException("a grid needs 1 column and 1 row at least");
+        }
+        if (this.columns.length < columns) {
+            this.columns = grow(this.columns, columns);
+        }
+        if (this.rows.length < rows) {
+            this.rows = grow(this.rows, rows);
+        }
+        for (int c = 0; c < columns; c++) {
+            this.columns[c].clear();
+        }
+    }
+
+    private static Chains[] grow(Chains[] buffers, int length) {
+        Chains[] result = Arrays.copyOf(buffers, length);
+        for (int i = buffers.length; i < length; i++) {
+            result[i] = new Chains();
+        }
+        return result;
+    }
+
+    /**
+     * Clip a ring to a grid of tiles.
+     * @return clipped rings of tiles row by row, null for tiles where nothing is left.
+     */
+    private LinearRing[] clipRing(double[] ax, double[] ay, BoundingBox grid, int columns, int rows) {
+        LinearRing[] result = new LinearRing[columns * rows];
+        prepare(columns, rows);
+        double width = grid.width() / columns;
+        double height = grid.height() / rows;
+        split(ax, ay, 0, ax.length, true, true, grid.minX(), width, this.columns, columns);
+        for (int c = 0; c < columns; c++) {
+            Chains column = this.columns[c];
+            if (column.size < 3) {
+                continue;
+            }
+
+            for (int r = 0; r < rows; r++) {
+                this.rows[r].clear();
+            }
+            split(column.xs, column.ys, 0, column.size, true, false, grid.minY(), height, this.rows, rows);
+            for (int r = 0; r < rows; r++) {
+                result[r * columns + c] = toRing(this.rows[r]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create a ring from a buffer, null if the ring has no area.
+     */
+    private static LinearRing toRing(Chains chains) {
+        int n = chains.size;
+        // the ring may end at its first vertex
+        if (n > 0 && chains.xs[n - 1] == chains.xs[0] && chains.ys[n - 1] == chains.ys[0]) {
+            n--;
+        }
+        if (n < 3) {
+            return null;
+        }
+
+        double area = 0;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            area += chains.xs[j] * chains.ys[i] - chains.xs[i] * chains.ys[j];
+        }
+        if (area == 0) {
+            return null;
+        }
+        return new LinearRing(Arrays.copyOf(chains.xs, n), Arrays.copyOf(chains.ys, n));
+    }
+
+    /**
+     * Distribute edges of a chain to bands along an axis, where band c covers the range from
+     * {@code origin + c * size} to {@code origin + (c + 1) * size}. Edges are clipped to each band they cross
+     * by the Liang-Barsky algorithm.
+     * @param xs the X coordinates of the chain.
+     * @param ys the Y coordinates of the chain.
+     * @param from the first vertex of the chain.
+     * @param to the end of the chain, exclusive.
+     * @param closed true for a ring, whose clipped parts in a band are joined into one ring, otherwise each
+     *        clipped part starts a new chain.
+     * @param byX true for bands along the X axis, false for the Y axis.
+     * @param origin the start of the first band.
+     * @param size the size of each band.
+     * @param bands the buffers of bands.
+     * @param count the number of bands.
+     */
+    private static void split(double[] xs, double[] ys, int from, int to, boolean closed, boolean byX,
+            double origin, double size, Chains[] bands, int count) {
+        double[] us = byX ? xs : ys;
+        double[] vs = byX ? ys : xs;
+        int first = closed ? from : from + 1;
+        for (int i = first; i < to; i++) {
+            int j = (i == from) ? to - 1 : i - 1;
+            double u0 = us[j];
+            double v0 = vs[j];
+            double u1 = us[i];
+            double v1 = vs[i];
+            double du = u1 - u0;
+            double dv = v1 - v0;
+            int c0 = (int) Math.max(0, Math.floor((Math.min(u0, u1) - origin) / size));
+            int c1 = (int) Math.min(count - 1, Math.floor((Math.max(u0, u1) - origin) / size));
+            for (int c = c0; c <= c1; c++) {
+                double lo = origin + c * size;
+                double hi = origin + (c + 1) * size;
+                double t0 = 0;
+                double t1 = 1;
+                double enter = u0;
+                double exit = u1;
+                if (du == 0) {
+                    if (u0 < lo || u0 > hi) {
+                        continue;
+                    }
+                } else if (du > 0) {
+                    if (u0 < lo) {
+                        t0 = (lo - u0) / du;
+                        enter = lo;
+                    }
+                    if (u1 > hi) {
+                        t1 = (hi - u0) / du;
+                        exit = hi;
+                    }
+                } else {
+                    if (u0 > hi) {
+                        t0 = (hi - u0) / du;
+                        enter = hi;
+                    }
+                    if (u1 < lo) {
+                        t1 = (lo - u0) / du;
+                        exit = lo;
+                    }
+                }
+                if (t0 > t1) {
+                    continue;
+                }
+
+                Chains band = bands[c];
+                if (t0 > 0) {
+                    // enter the band
+                    if (!closed) {
+                        band.start();
+                    }
+                    add(band, byX, enter, v0 + t0 * dv);
+                } else if (!closed && !endsAt(band, byX, u0, v0)) {
+                    // the chain starts in the band
+                    band.start();
+                    add(band, byX, u0, v0);
+                }
+                add(band, byX, exit, t1 < 1 ? v0 + t1 * dv : v1);
+            }
+        }
+    }
+
+    /**
+     * Check if the last chain of a buffer ends at specified coordinate.
+     */
+    private static boolean endsAt(Chains chains, boolean byX, double u, double v) {
+        if (chains.parts == 0 || chains.size == chains.starts[chains.parts - 1]) {
+            return false;
+        }
+        double x = chains.xs[chains.size - 1];
+        double y = chains.ys[chains.size - 1];
+        return byX ? (x == u && y == v) : (x == v && y == u);
+    }
+
+    private static void add(Chains chains, boolean byX, double u, double v) {
+        if (byX) {
+            chains.add(u, v);
+        } else {
+            chains.add(v, u);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.icomputational.geometry;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.icomputational.geometry.util.IndexSort;
+
+/**
+ * A {@link ConvexHull} computes convex hulls of points by Andrew's monotone chain algorithm.
+ * <p>
+ * Points inside of the quadrilateral of the extreme points in X and Y are dropped before sorting, as
+ * suggested by Akl and Toussaint, which leaves few points for large point sets. Large point sets are split
+ * into chunks whose hulls are computed in a fork/join pool, and the hulls are merged pairwise by computing
+ * the hull of their vertices.
+ * <p>
+ * An instance of convex hull maintains the hull of points added one by one. Points inside of the current
+ * hull are dropped in O(log h) time, and other points are buffered and merged into the hull when there are
+ * as many of them as vertices of the hull. An instance is not thread-safe.
+ * @see <a href="http://en.wikibooks.org/wiki/Algorithm_Implementation/Geometry/Convex_hull/Monotone_chain">
+ *      Monotone chain algorithm</a>
+ */
+public class ConvexHull {
+    /**
+     * The maximum number of points of a chunk computed sequentially.
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The minimum number of points buffered before they are merged into the hull.
+     */
+    private static final int MIN_PENDING = 64;
+
+    // vertices of the hull in counter clockwise order
+    private double[] hullX = new double[0];
+    private double[] hullY = new double[0];
+    // points outside of the hull, which are not merged yet
+    private double[] pendingX = new double[MIN_PENDING];
+    private double[] pendingY = new double[MIN_PENDING];
+    private int pending;
+
+    /**
+     * Compute the convex hull of points.
+     * @param points at least 3 points which are not collinear.
+     * @return the hull, whose vertices are in counter clockwise order from the point with the minimum X.
+     */
+    public static LinearRing compute(List<Point> points) {
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        int i = 0;
+        for (Point p : points) {
+            xs[i] = p.x();
+            ys[i] = p.y();
+            i++;
+        }
+        return compute(xs, ys);
+    }
+
+    /**
+     * Compute the convex hull of coordinates.
+     * @param xs the X coordinates.
+     * @param ys the Y coordinates, should have the same length as X coordinates.
+     * @return the hull, whose vertices are in counter clockwise order from the point with the minimum X.
+     */
+    public static LinearRing compute(double[] xs, double[] ys) {
+        return compute(xs, ys, CHUNK_SIZE);
+    }
+
+    static LinearRing compute(double[] xs, double[] ys, int chunkSize) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("length of X " + xs.length + " differs from length of Y " + ys.length);
+        }
+
+        double[][] hull;
+        if (xs.length <= chunkSize) {
+            hull = hull(xs, ys, 0, xs.length);
+        } else {
+            hull = ForkJoinPool.commonPool().invoke(new HullTask(xs, ys, 0, xs.length, chunkSize));
+        }
+        return toRing(hull);
+    }
+
+    private static LinearRing toRing(double[][] hull) {
+        if (hull[0].length < 3) {
+            throw new IllegalArgumentException("a convex hull needs 3 points which are not collinear");
+        }
+        return new LinearRing(hull[0], hull[1]);
+    }
+
+    /**
+     * Add a point to the hull.
+     */
+    public void add(Point p) {
+        add(p.x(), p.y());
+    }
+
+    /**
+     * Add a coordinate to the hull.
+     */
+    public void add(double x, double y) {
+        if (inside(x, y)) {
+            return;
+        }
+
+        if (pending == pendingX.length) {
+            pendingX = Arrays.copyOf(pendingX, pending * 2);
+            pendingY = Arrays.copyOf(pendingY, pending * 2);
+        }
+        pendingX[pending] = x;
+        pendingY[pending] = y;
+        pending++;
+        if (pending >= Math.max(MIN_PENDING, hullX.length)) {
+            merge();
+        }
+    }
+
+    /**
+     * Returns the hull of points added so far, null if there are no 3 points which are not collinear.
+     */
+    public LinearRing hull() {
+        merge();
+        return hullX.length < 3 ? null : new LinearRing(hullX.clone(), hullY.clone());
+    }
+
+    /**
+     * Merge buffered points into the hull.
+     */
+    private void merge() {
+        if (pending == 0) {
+            return;
+        }
+
+        int n = hullX.length + pending;
+        double[] xs = Arrays.copyOf(hullX, n);
+        double[] ys = Arrays.copyOf(hullY, n);
+        System.arraycopy(pendingX, 0, xs, hullX.length, pending);
+        System.arraycopy(pendingY, 0, ys, hullY.length, pending);
+        double[][] hull = chain(xs, ys, n);
+        hullX = hull[0];
+        hullY = hull[1];
+        pending = 0;
+    }
+
+    /**
+     * Check if a coordinate is strictly inside of the hull, by a binary search of the triangle of the fan from
+     * the first vertex which contains the coordinate.
+     */
+    private boolean inside(double x, double y) {
+        int h = hullX.length;
+        if (h < 3) {
+            return false;
+        }
+
+        double x0 = hullX[0];
+        double y0 = hullY[0];
+        if (cross(x0, y0, hullX[1], hullY[1], x, y) <= 0 || cross(x0, y0, hullX[h - 1], hullY[h - 1], x, y) >= 0) {
+            return false;
+        }
+
+        // find the last vertex k where the coordinate is on the left side of the ray from the first vertex
+        int lo = 1;
+        int hi = h - 1;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (cross(x0, y0, hullX[mid], hullY[mid], x, y) > 0) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return cross(hullX[lo], hullY[lo], hullX[lo + 1], hullY[lo + 1], x, y) > 0;
+    }
+
+    /**
+     * Returns the cross product of (x1 - x0, y1 - y0) and (x - x0, y - y0), positive if the coordinate is on
+     * the left side.
+     */
+    private static double cross(double x0, double y0, double x1, double y1, double x, double y) {
+        return (x1 - x0) * (y - y0) - (y1 - y0) * (x - x0);
+    }
+
+    /**
+     * Compute the hull of a range of coordinates, after dropping coordinates inside of the quadrilateral of
+     * extreme points.
+     */
+    private static double[][] hull(double[] xs, double[] ys, int from, int to) {
+        if (from == to) {
+            return new double[2][0];
+        }
+
+        int left = from;
+        int bottom = from;
+        int right = from;
+        int top = from;
+        for (int i = from + 1; i < to; i++) {
+            if (xs[i] < xs[left]) {
+                left = i;
+            }
+            if (xs[i] > xs[right]) {
+                right = i;
+            }
+            if (ys[i] < ys[bottom]) {
+                bottom = i;
+            }
+            if (ys[i] > ys[top]) {
+                top = i;
+            }
+        }
+
+        // the quadrilateral is in counter clockwise order, a point is dropped if it's on the left of all edges
+        double[] qx = {xs[left], xs[bottom], xs[right], xs[top]};
+        double[] qy = {ys[left], ys[bottom], ys[right], ys[top]};
+        double[] cx = new double[16];
+        double[] cy = new double[16];
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            if (cross(qx[0], qy[0], qx[1], qy[1], x, y) > 0 && cross(qx[1], qy[1], qx[2], qy[2], x, y) > 0
+                && cross(qx[2], qy[2], qx[3], qy[3], x, y) > 0 && cross(qx[3], qy[3], qx[0], qy[0], x, y) > 0) {
+                continue;
+            }
+            if (n == cx.length) {
+                cx = Arrays.copyOf(cx, n * 2);
+                cy = Arrays.copyOf(cy, n * 2);
+            }
+            cx[n] = x;
+            cy[n] = y;
+            n++;
+        }
+        return chain(cx, cy, n);
+    }
+
+    /**
+     * Compute the hull of the first n coordinates by the monotone chain algorithm.
+     * @return the vertices of the hull in counter clockwise order, collinear vertices are dropped.
+     */
+    private static double[][] chain(double[] xs, double[] ys, int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        IndexSort.sort(order, 0, n, xs, ys);
+        double[] hx = new double[n * 2];
+        double[] hy = new double[n * 2];
+        int k = 0;
+        // the lower hull from left to right
+        for (int i = 0; i < n; i++) {
+            double x = xs[order[i]];
+            double y = ys[order[i]];
+            while (k >= 2 && cross(hx[k - 2], hy[k - 2], hx[k - 1], hy[k - 1], x, y) <= 0) {
+                k--;
+            }
+            hx[k] = x;
+            hy[k] = y;
+            k++;
+        }
+        // the upper hull from right to left
+        for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+            double x = xs[order[i]];
+            double y = ys[order[i]];
+            while (k >= lower && cross(hx[k - 2], hy[k - 2], hx[k - 1], hy[k - 1], x, y) <= 0) {
+                k--;
+            }
+            hx[k] = x;
+            hy[k] = y;
+            k++;
+        }
+
+        // the first vertex is repeated at the end
+        k = Math.max(0, k - 1);
+        if (n == 1) {
+            k = 1;
+        }
+        return new double[][] {Arrays.copyOf(hx, k), Arrays.copyOf(hy, k)};
+    }
+
+    /**
+     * A {@link HullTask} computes the hull of a range of coordinates.
+     */
+    private static class HullTask extends RecursiveTask<double[][]> {
+        private static final long serialVersionUID = 1L;
+        private final double[] xs;
+        private final double[] ys;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        HullTask(double[] xs, double[] ys, int from, int to, int chunkSize) {
+            this.xs = xs;
+            this.ys = ys;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected double[][] compute() {
+            if (to - from <= chunkSize) {
+                return hull(xs, ys, from, to);
+            }
+
+            int m = (from + to) >>> 1;
+            HullTask left = new HullTask(xs, ys, from, m, chunkSize);
+            HullTask right = new HullTask(xs, ys, m, to, chunkSize);
+            left.fork();
+            double[][] hull = right.compute();
+            double[][] other = left.join();
+
+            // merge two hulls by the hull of their vertices
+            int n = hull[0].length + other[0].length;
+            double[] hx = Arrays.copyOf(hull[0], n);
+            double[] hy = Arrays.copyOf(hull[1], n);
+            System.arraycopy(other[0], 0, hx, hull[0].length, other[0].length);
+            System.arraycopy(other[1], 0, hy, hull[1].length, other[1].length);
+            return chain(hx, hy, n);
+        }
+    }
+}
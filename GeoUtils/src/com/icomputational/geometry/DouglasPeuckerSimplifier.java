@@ -0,0 +1,92 @@
+package com.icomputational.geometry;
+
+import java.util.Arrays;
+
+/**
+ * A {@link DouglasPeuckerSimplifier} simplifies geometries by the Douglas-Peucker algorithm, every removed
+ * vertex is within the tolerance of the simplified segment replacing it.
+ * <p>
+ * Ranges of vertices to be split are kept in an explicit stack instead of recursion, so that rings with
+ * millions of vertices never overflow the call stack.
+ * @see <a href="http://en.wikipedia.org/wiki/Ramer%E2%80%93Douglas%E2%80%93Peucker_algorithm">Douglas-Peucker
+ *      algorithm</a>
+ */
+public class DouglasPeuckerSimplifier extends Simplifier {
+    private final double tolerance2;
+
+    /**
+     * Construct a simplifier which doesn't preserve topology.
+     * @param tolerance the maximum distance from a removed vertex to the simplified segment.
+     */
+    public DouglasPeuckerSimplifier(double tolerance) {
+        this(tolerance, false);
+    }
+
+    /**
+     * Construct a simplifier.
+     * @param tolerance the maximum distance from a removed vertex to the simplified segment.
+     * @param preserveTopology true to keep simplified geometries from self intersections.
+     */
+    public DouglasPeuckerSimplifier(double tolerance, boolean preserveTopology) {
+        super(preserveTopology);
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException("tolerance " + tolerance + " should not be negative");
+        }
+        this.tolerance2 = tolerance * tolerance;
+    }
+
+    @Override
+    void reduce(Chain chain) {
+        // ranges as pairs of start and end vertices
+        int[] stack = new int[64];
+        int size = 0;
+        if (chain.closed) {
+            // the ends of a ring are the same vertex, split it at the farthest vertex first
+            int k = farthestFromStart(chain);
+            if (k < 0) {
+                return;
+            }
+            chain.keep(k);
+            stack[size++] = 0;
+            stack[size++] = k;
+            stack[size++] = k;
+            stack[size++] = chain.last;
+        } else {
+            stack[size++] = 0;
+            stack[size++] = chain.last;
+        }
+
+        while (size > 0) {
+            int j = stack[--size];
+            int i = stack[--size];
+            int k = chain.farthest(i, j);
+            if (k < 0 || chain.distance2(k, i, j) <= tolerance2) {
+                continue;
+            }
+
+            chain.keep(k);
+            if (size + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[size++] = i;
+            stack[size++] = k;
+            stack[size++] = k;
+            stack[size++] = j;
+        }
+    }
+
+    private static int farthestFromStart(Chain chain) {
+        int result = -1;
+        double max = 0;
+        for (int k = 1; k < chain.last; k++) {
+            double dx = chain.xs[k] - chain.xs[0];
+            double dy = chain.ys[k] - chain.ys[0];
+            double d = dx * dx + dy * dy;
+            if (d > max) {
+                max = d;
+                result = k;
+            }
+        }
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package com.icomputational.geometry;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -26,8 +27,9 @@ public class LinearRing {
      */
     public static final int COLINEAR = 0;
     
-    private final double[] ax;
-    private final double[] ay;
+    // vertices, package visible for prepared geometries
+    final double[] ax;
+    final double[] ay;
     private final BoundingBox bb;
     
     public LinearRing(List<Point> vertices) {
@@ -49,6 +51,19 @@ public class LinearRing {
         bb = computeBoundingBox();
     }
     
+    /**
+     * Construct a linear ring from arrays of coordinates, the arrays are owned by the ring.
+     */
+    LinearRing(double[] ax, double[] ay) {
+        if (ax.length < 3) {
+            throw new IllegalArgumentException("a polygon needs 3 vertices at least");
+        }
+        
+        this.ax = ax;
+        this.ay = ay;
+        bb = computeBoundingBox();
+    }
+    
     /**
      * Returns the bounding box of this linear ring.
      */
@@ -94,26 +109,94 @@ public class LinearRing {
         for (int i = 0; i < ax.length; ++i, x0 = x1, y0 = y1) {
             x1 = ax[i];
             y1 = ay[i];
-            if ((y0 < y && y1 < y) || (y0 >= y && y1 >= y) || (x0 < x && x1 < x)) {
-                continue;
-            }
-            
-            double a = y1 - y0;
-            double b = x0 - x1;
-            double c = x0 * y1 - x1 * y0;
-            assert (a != 0 || b != 0);
-
-            // calculate intersection x
-            double ix = (c - b * y) / a;
-            // check if the intersection is on the ray
-            if (ix >= x && (x0 < x1 ? (ix >= x0 && ix <= x1) : (ix <= x0 && ix >= x1))) {
+            if (intersectRay(x0, y0, x1, y1, x, y)) {
                 intersectCount++;
             }
         }
 
         return intersectCount;
     }
+
+    /**
+     * Check if an edge intersects with a ray from specified coordinate to the positive X direction.
+     * The lower end of the edge is excluded, so that a ray through a vertex is counted once.
+     */
+    static boolean intersectRay(double x0, double y0, double x1, double y1, double x, double y) {
+        if ((y0 < y && y1 < y) || (y0 >= y && y1 >= y) || (x0 < x && x1 < x)) {
+            return false;
+        }
+
+        // the edge is not horizontal as it straddles the ray
+        double a = y1 - y0;
+        // d = (ix - x) * a where ix is the X of the intersection, to check if the intersection is on the ray
+        // without division, which is exact for vertical edges
+        double d = (x0 - x) * a + (y - y0) * (x1 - x0);
+        return ((d > 0) == (a > 0)) || d == 0;
+    }
     
+    /**
+     * Check a batch of coordinates, the bits of coordinates inside of this ring are set, and other bits of
+     * the coordinates are cleared.
+     * @param xs the X coordinates.
+     * @param ys the Y coordinates, should have the same length as X coordinates.
+     * @param result the bits for coordinates, bit i for coordinate (xs[i], ys[i]).
+     */
+    public void containsAll(double[] xs, double[] ys, BitSet result) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("length of X " + xs.length + " differs from length of Y " + ys.length);
+        }
+
+        if (ax.length < PointBatch.MIN_VERTICES) {
+            for (int i = 0; i < xs.length; i++) {
+                result.set(i, bb.contains(xs[i], ys[i]) && intersectRay(xs[i], ys[i]) % 2 != 0);
+            }
+            return;
+        }
+
+        PointBatch batch = new PointBatch(Math.min(PointBatch.SIZE, xs.length));
+        for (int from = 0; from < xs.length; from += PointBatch.SIZE) {
+            batch.load(xs, ys, from, Math.min(xs.length, from + PointBatch.SIZE));
+            intersectRay(batch);
+            batch.store(result);
+        }
+    }
+
+    /**
+     * Flip the parity of coordinates of a batch by each edge of this ring which intersects the ray from a
+     * coordinate, the same as {@link #intersectRay(double, double)}. Coordinates out of the bounding box of
+     * this ring are not flipped, as a polygon only counts intersections with rings whose bounding boxes
+     * contain the coordinate.
+     * <p>
+     * Edges are iterated in the outer loop, and each edge only visits the coordinates within its Y range.
+     */
+    void intersectRay(PointBatch batch) {
+        double minX = bb.minX();
+        double maxX = bb.maxX();
+        double x0 = ax[ax.length - 1];
+        double y0 = ay[ay.length - 1];
+        double x1, y1;
+        for (int e = 0; e < ax.length; ++e, x0 = x1, y0 = y1) {
+            x1 = ax[e];
+            y1 = ay[e];
+            double a = y1 - y0;
+            if (a == 0) {
+                // a horizontal edge never crosses a ray
+                continue;
+            }
+
+            double dx = x1 - x0;
+            boolean upward = a > 0;
+            // coordinates whose Y is in (min Y, max Y] of the edge
+            int to = batch.upperBound(Math.max(y0, y1));
+            for (int i = batch.upperBound(Math.min(y0, y1)); i < to; i++) {
+                double x = batch.xs[i];
+                double d = (x0 - x) * a + (batch.ys[i] - y0) * dx;
+                boolean cross = (((d > 0) == upward) | d == 0) & !(x0 < x & x1 < x) & x >= minX & x <= maxX;
+                batch.parity[i] ^= cross ? 1 : 0;
+            }
+        }
+    }
+
     /**
      * Compute clockwise of vertices of this ring. <br/>
      * @return {@link #CLOCKWISE}, {@link #COUNTER_CLOCKWISE} or {@link #COLINEAR}.
@@ -164,6 +247,20 @@ public class LinearRing {
     public int numberOfSides() {
         return ax.length;
     }
+
+    /**
+     * Returns the X coordinate of a vertex.
+     */
+    public double x(int index) {
+        return ax[index];
+    }
+
+    /**
+     * Returns the Y coordinate of a vertex.
+     */
+    public double y(int index) {
+        return ay[index];
+    }
     
     /**
      * Check if this linear ring overlaps specified bounding box.
@@ -219,40 +316,23 @@ public class LinearRing {
             x1 = ax[i];
             y1 = ay[i];
 
-            if ((x0 < minX && x1 < minX) || (x0 > maxX && x1 > maxX) || (y0 < minY && y1 < minY)
-                || (y0 > maxY && y1 > maxY)) {
-                continue;
-            }
-
-            double a = y1 - y0;
-            double b = x0 - x1;
-            double c = x0 * y1 - x1 * y0;
-            assert (a != 0 || b != 0);
-
-            if (a != 0) {
-                // calculate intersection x
-                double ix = (c - b * minY) / a;
-                if (ix >= minX && ix <= maxX && (x0 < x1 ? (ix >= x0 && ix <= x1) : (ix <= x0 && ix >= x1))) {
-                    return true;
-                }
-                ix = (c - b * maxY) / a;
-                if (ix >= minX && ix <= maxX && (x0 < x1 ? (ix >= x0 && ix <= x1) : (ix <= x0 && ix >= x1))) {
-                    return true;
-                }
-            }
-
-            if (b != 0) {
-                // calculate intersection y
-                double iy = (c - a * minX) / b;
-                if (iy >= minY && iy <= maxY && (y0 < y1 ? (iy >= y0 && iy <= y1) : (iy <= y0 && iy >= y1))) {
-                    return true;
-                }
-                iy = (c - a * maxX) / b;
-                if (iy >= minY && iy <= maxY && (y0 < y1 ? (iy >= y0 && iy <= y1) : (iy <= y0 && iy >= y1))) {
-                    return true;
-                }
+            if (intersects(x0, y0, x1, y1, minX, minY, maxX, maxY)) {
+                return true;
             }
         }
         return false;
     }
+
+    /**
+     * Check if an edge intersects the boundary of the specified bounding box, rejecting edges outside of the
+     * bounding box before {@link BoundingBox#segmentIntersects}.
+     */
+    static boolean intersects(double x0, double y0, double x1, double y1, double minX, double minY, double maxX,
+            double maxY) {
+        if ((x0 < minX && x1 < minX) || (x0 > maxX && x1 > maxX) || (y0 < minY && y1 < minY)
+            || (y0 > maxY && y1 > maxY)) {
+            return false;
+        }
+        return BoundingBox.segmentIntersects(x0, y0, x1, y1, minX, minY, maxX, maxY);
+    }
 }
@@ -0,0 +1,259 @@
+package com.icomputational.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link LodPolygon} is a polygon with a pyramid of simplified versions, the levels of detail, for coarse
+ * queries such as small-scale maps.
+ * <p>
+ * Each level is simplified from the original polygon by {@link DouglasPeuckerSimplifier} with topology
+ * preserved, so the original polygon differs from a level only within the tolerance of the boundary of the
+ * level. A query with a tolerance runs against the coarsest level whose tolerance is acceptable. Otherwise it
+ * is answered by the coarsest level where it's unambiguous, that is farther than the tolerance of the level
+ * from the boundary, and the original polygon is tested only if all levels are ambiguous.
+ * <p>
+ * The levels are built on the first query with a tolerance, and they can be shared by multiple threads.
+ */
+public class LodPolygon extends Shape {
+    /**
+     * The tolerance of the coarsest level relative to the diagonal of the bounding box.
+     */
+    private static final double COARSEST = 1.0 / 16;
+
+    /**
+     * The maximum number of levels.
+     */
+    private static final int MAX_LEVELS = 16;
+
+    private static final int OUTSIDE = 0;
+    private static final int INSIDE = 1;
+    private static final int AMBIGUOUS = 2;
+
+    /**
+     * A {@link Level} is a simplified version of the polygon.
+     */
+    private static final class Level {
+        final double tolerance;
+        final Polygon polygon;
+        final List<LinearRing> rings;
+
+        Level(double tolerance, Polygon polygon) {
+            this.tolerance = tolerance;
+            this.polygon = polygon;
+            rings = rings(polygon);
+        }
+
+        /**
+         * Classify a coordinate, which is ambiguous if it's within the tolerance of the boundary.
+         */
+        int classify(double x, double y) {
+            double t2 = tolerance * tolerance;
+            int count = 0;
+            for (LinearRing ring : rings) {
+                BoundingBox bb = ring.boundingBox();
+                if (x < bb.minX() - tolerance || x > bb.maxX() + tolerance || y < bb.minY() - tolerance
+                    || y > bb.maxY() + tolerance) {
+                    continue;
+                }
+
+                int m = ring.ax.length;
+                for (int i = 0, j = m - 1; i < m; j = i++) {
+                    double x0 = ring.ax[j];
+                    double y0 = ring.ay[j];
+                    double x1 = ring.ax[i];
+                    double y1 = ring.ay[i];
+                    if (distance2(x, y, x0, y0, x1, y1) <= t2) {
+                        return AMBIGUOUS;
+                    }
+                    if (LinearRing.intersectRay(x0, y0, x1, y1, x, y)) {
+                        count++;
+                    }
+                }
+            }
+            return count % 2 != 0 ? INSIDE : OUTSIDE;
+        }
+
+        /**
+         * Check if any vertex is inside of a bounding box, vertices of a level are vertices of the polygon.
+         */
+        boolean hasVertexInside(BoundingBox bb) {
+            for (LinearRing ring : rings) {
+                for (int i = 0; i < ring.ax.length; i++) {
+                    double x = ring.ax[i];
+                    double y = ring.ay[i];
+                    if (x > bb.minX() && x < bb.maxX() && y > bb.minY() && y < bb.maxY()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private final Polygon polygon;
+    private volatile Level[] levels;
+
+    /**
+     * Construct a polygon with levels of detail.
+     * @param polygon a polygon, inner rings added to the polygon later are not seen by the levels.
+     */
+    public LodPolygon(Polygon polygon) {
+        this.polygon = polygon;
+    }
+
+    private static List<LinearRing> rings(Polygon polygon) {
+        List<LinearRing> rings = new ArrayList<LinearRing>();
+        rings.add(polygon.outerRing());
+        if (polygon.innerRings() != null) {
+            rings.addAll(polygon.innerRings());
+        }
+        return rings;
+    }
+
+    private static int numberOfVertices(Polygon polygon) {
+        int n = 0;
+        for (LinearRing ring : rings(polygon)) {
+            n += ring.numberOfSides();
+        }
+        return n;
+    }
+
+    private static double distance2(double x, double y, double x0, double y0, double x1, double y1) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double length2 = dx * dx + dy * dy;
+        double t = 0;
+        if (length2 > 0) {
+            t = Math.max(0, Math.min(1, ((x - x0) * dx + (y - y0) * dy) / length2));
+        }
+        double ex = x0 + t * dx - x;
+        double ey = y0 + t * dy - y;
+        return ex * ex + ey * ey;
+    }
+
+    /**
+     * Get the levels, build them if they're not built yet.
+     */
+    private Level[] levels() {
+        Level[] result = levels;
+        if (result == null) {
+            synchronized (this) {
+                result = levels;
+                if (result == null) {
+                    result = buildLevels();
+                    levels = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Build levels from the coarsest one, halve the tolerance for each finer level, until a level keeps more
+     * than half of the vertices.
+     */
+    private Level[] buildLevels() {
+        BoundingBox bb = polygon.boundingBox();
+        int vertices = numberOfVertices(polygon);
+        List<Level> result = new ArrayList<Level>();
+        double tolerance = Math.hypot(bb.width(), bb.height()) * COARSEST;
+        for (int i = 0; i < MAX_LEVELS; i++, tolerance /= 2) {
+            Polygon simplified = new DouglasPeuckerSimplifier(tolerance, true).simplify(polygon);
+            if (numberOfVertices(simplified) * 2 > vertices) {
+                break;
+            }
+            result.add(new Level(tolerance, simplified));
+        }
+        return result.toArray(new Level[result.size()]);
+    }
+
+    /**
+     * Returns the original polygon.
+     */
+    public Polygon polygon() {
+        return polygon;
+    }
+
+    /**
+     * Returns the coarsest version of the polygon within specified tolerance, for rendering.
+     * @param tolerance the maximum distance from a vertex of the original polygon to the version.
+     * @return the coarsest version, the original polygon if no level is within the tolerance.
+     */
+    public Polygon polygon(double tolerance) {
+        for (Level level : levels()) {
+            if (level.tolerance <= tolerance) {
+                return level.polygon;
+            }
+        }
+        return polygon;
+    }
+
+    /**
+     * Returns the number of levels, except the original polygon.
+     */
+    public int numberOfLevels() {
+        return levels().length;
+    }
+
+    @Override
+    public BoundingBox boundingBox() {
+        return polygon.boundingBox();
+    }
+
+    @Override
+    public boolean contains(double x, double y) {
+        return polygon.contains(x, y);
+    }
+
+    @Override
+    public boolean overlaps(BoundingBox bb) {
+        return polygon.overlaps(bb);
+    }
+
+    @Override
+    public boolean contains(double x, double y, double tolerance) {
+        if (!polygon.boundingBox().contains(x, y)) {
+            return false;
+        }
+
+        for (Level level : levels()) {
+            if (level.tolerance <= tolerance) {
+                return level.polygon.contains(x, y);
+            }
+
+            int state = level.classify(x, y);
+            if (state != AMBIGUOUS) {
+                return state == INSIDE;
+            }
+        }
+        return polygon.contains(x, y);
+    }
+
+    @Override
+    public boolean overlaps(BoundingBox bb, double tolerance) {
+        BoundingBox boundingBox = polygon.boundingBox();
+        if (bb.contains(boundingBox)) {
+            return true;
+        } else if (!bb.overlaps(boundingBox)) {
+            return false;
+        }
+
+        for (Level level : levels()) {
+            if (level.tolerance <= tolerance) {
+                return level.polygon.overlaps(bb);
+            }
+
+            // the polygon is within the tolerance of the level
+            double t = level.tolerance;
+            BoundingBox enlarged = new BoundingBox(bb.minX() - t, bb.minY() - t, bb.maxX() + t, bb.maxY() + t);
+            if (!level.polygon.overlaps(enlarged)) {
+                return false;
+            }
+            if (level.hasVertexInside(bb) || level.classify(bb.centre().x(), bb.centre().y()) == INSIDE) {
+                return true;
+            }
+        }
+        return polygon.overlaps(bb);
+    }
+}
@@ -0,0 +1,80 @@
+package com.icomputational.geometry;
+
+import java.util.BitSet;
+
+import com.icomputational.geometry.util.IndexSort;
+
+/**
+ * A {@link PointBatch} is a block of coordinates sorted by Y, with the parity of ray intersections of each
+ * coordinate, for checking many coordinates against polygons together.
+ * <p>
+ * As the coordinates are sorted, an edge only visits the coordinates between its Y range, which are found
+ * by binary searches.
+ */
+class PointBatch {
+    /**
+     * The maximum number of coordinates of a batch.
+     */
+    static final int SIZE = 4096;
+
+    /**
+     * The minimum number of vertices of a polygon to be checked by batches, sorting is more expensive than
+     * checking all edges for each coordinate for smaller polygons.
+     */
+    static final int MIN_VERTICES = 64;
+
+    final double[] xs;
+    final double[] ys;
+    final int[] ids;
+    final byte[] parity;
+    int size;
+
+    PointBatch(int capacity) {
+        xs = new double[capacity];
+        ys = new double[capacity];
+        ids = new int[capacity];
+        parity = new byte[capacity];
+    }
+
+    /**
+     * Load coordinates from index {@code from} to {@code to}, and reset parities.
+     */
+    void load(double[] xs, double[] ys, int from, int to) {
+        size = to - from;
+        for (int i = 0; i < size; i++) {
+            ids[i] = from + i;
+        }
+        IndexSort.sort(ids, 0, size, ys, null);
+        for (int i = 0; i < size; i++) {
+            this.xs[i] = xs[ids[i]];
+            this.ys[i] = ys[ids[i]];
+            parity[i] = 0;
+        }
+    }
+
+    /**
+     * Store the parities to bits of coordinates, odd parity for set.
+     */
+    void store(BitSet result) {
+        for (int i = 0; i < size; i++) {
+            result.set(ids[i], parity[i] != 0);
+        }
+    }
+
+    /**
+     * Returns the index of the first coordinate whose Y is greater than specified value.
+     */
+    int upperBound(double y) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ys[mid] > y) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+}
@@ -4,6 +4,7 @@
 package com.icomputational.geometry;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -29,6 +30,20 @@ public class Polygon extends Shape {
         boundingBox = ring.boundingBox();
     }
     
+    /**
+     * Returns the outer ring of this polygon.
+     */
+    LinearRing outerRing() {
+        return outerRing;
+    }
+
+    /**
+     * Returns the inner rings of this polygon, null if there is no inner ring.
+     */
+    List<LinearRing> innerRings() {
+        return innerRings;
+    }
+
     /**
      * Returns true if this area is valid.
      */
@@ -88,6 +103,46 @@ public class Polygon extends Shape {
         return (count % 2) != 0;
     }
 
+    /**
+     * Check a batch of coordinates, the same as {@link #contains(double, double)} for each coordinate but
+     * much faster for many coordinates, as each edge is checked against a block of coordinates sorted by Y at
+     * a time.
+     * @param xs the X coordinates.
+     * @param ys the Y coordinates, should have the same length as X coordinates.
+     * @param result the bits for coordinates, bit i is set if coordinate (xs[i], ys[i]) is contained by this
+     *        polygon, otherwise it's cleared.
+     */
+    public void containsAll(double[] xs, double[] ys, BitSet result) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("length of X " + xs.length + " differs from length of Y " + ys.length);
+        }
+
+        int vertices = outerRing.numberOfSides();
+        if (innerRings != null) {
+            for (LinearRing ring : innerRings) {
+                vertices += ring.numberOfSides();
+            }
+        }
+        if (vertices < PointBatch.MIN_VERTICES) {
+            for (int i = 0; i < xs.length; i++) {
+                result.set(i, contains(xs[i], ys[i]));
+            }
+            return;
+        }
+
+        PointBatch batch = new PointBatch(Math.min(PointBatch.SIZE, xs.length));
+        for (int from = 0; from < xs.length; from += PointBatch.SIZE) {
+            batch.load(xs, ys, from, Math.min(xs.length, from + PointBatch.SIZE));
+            outerRing.intersectRay(batch);
+            if (innerRings != null) {
+                for (LinearRing ring : innerRings) {
+                    ring.intersectRay(batch);
+                }
+            }
+            batch.store(result);
+        }
+    }
+
     /* (non-Javadoc)
      * @see com.icomputational.geometry.Shape#overlaps(com.icomputational.geometry.BoundingBox)
      */
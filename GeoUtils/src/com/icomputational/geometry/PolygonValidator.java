@@ -0,0 +1,341 @@
+package com.icomputational.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.icomputational.geometry.util.IndexSort;
+import com.icomputational.geometry.util.PolygonChecker;
+import com.icomputational.geometry.util.SegmentIntersector;
+
+/**
+ * A {@link PolygonValidator} checks if polygons are valid as defined in OpenGIS, that is each ring is a simple
+ * polygon, rings don't intersect each other, inner rings are inside of the outer ring and not inside of each
+ * other. Optionally the outer ring should be counter clockwise and inner rings clockwise.
+ * <p>
+ * Checks run in stages from cheap to expensive, and a polygon failing a stage isn't checked further:
+ * <ol>
+ * <li>each ring has area and the right orientation, and each inner ring is within the bounding box of the
+ * outer ring, in linear time;</li>
+ * <li>each ring is simple, by {@link PolygonChecker} in O(n log n) time;</li>
+ * <li>rings don't intersect each other, by {@link SegmentIntersector} in O(n log n) time;</li>
+ * <li>inner rings are inside of the outer ring and not inside of each other, by one vertex of each inner
+ * ring as rings don't intersect.</li>
+ * </ol>
+ * A validator can be shared by multiple threads, collections of polygons are validated in a fork/join pool.
+ */
+public class PolygonValidator {
+    /**
+     * A ring has no area.
+     */
+    public static final int DEGENERATE_RING = 1;
+
+    /**
+     * The outer ring isn't counter clockwise, or an inner ring isn't clockwise.
+     */
+    public static final int WRONG_ORIENTATION = 2;
+
+    /**
+     * An inner ring isn't inside of the outer ring.
+     */
+    public static final int HOLE_OUTSIDE_SHELL = 3;
+
+    /**
+     * A ring isn't a simple polygon.
+     */
+    public static final int SELF_INTERSECTION = 4;
+
+    /**
+     * Two rings intersect or touch each other.
+     */
+    public static final int RINGS_INTERSECT = 5;
+
+    /**
+     * An inner ring is inside of another inner ring.
+     */
+    public static final int NESTED_HOLES = 6;
+
+    /**
+     * An {@link Issue} is a problem of a polygon, rings are indexed from 0 for the outer ring, and from 1 for
+     * inner rings in their order.
+     */
+    public static final class Issue {
+        private final int type;
+        private final int ring;
+        private final int other;
+        private final Point point;
+
+        Issue(int type, int ring, int other, Point point) {
+            this.type = type;
+            this.ring = ring;
+            this.other = other;
+            this.point = point;
+        }
+
+        /**
+         * Returns the type of the issue, such as {@link PolygonValidator#SELF_INTERSECTION}.
+         */
+        public int type() {
+            return type;
+        }
+
+        /**
+         * Returns the index of the ring with the issue.
+         */
+        public int ring() {
+            return ring;
+        }
+
+        /**
+         * Returns the index of the other ring for issues between two rings, -1 for issues of a single ring.
+         */
+        public int other() {
+            return other;
+        }
+
+        /**
+         * Returns a point where rings intersect, null for other issues.
+         */
+        public Point point() {
+            return point;
+        }
+
+        @Override
+        public String toString() {
+            return "Issue[" + type + ", " + ring + ", " + other + (point == null ? "" : ", " + point) + "]";
+        }
+    }
+
+    /**
+     * A {@link Report} is the result of the validation of a polygon.
+     */
+    public static final class Report {
+        private final List<Issue> issues = new ArrayList<Issue>();
+
+        /**
+         * Check if no issue is found.
+         */
+        public boolean isValid() {
+            return issues.isEmpty();
+        }
+
+        /**
+         * Returns the issues found.
+         */
+        public List<Issue> issues() {
+            return Collections.unmodifiableList(issues);
+        }
+
+        /**
+         * Check if an issue of specified type is found.
+         */
+        public boolean has(int type) {
+            for (Issue issue : issues) {
+                if (issue.type == type) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(int type, int ring, int other, Point point) {
+            issues.add(new Issue(type, ring, other, point));
+        }
+
+        @Override
+        public String toString() {
+            return "Report" + issues;
+        }
+    }
+
+    private final boolean orientation;
+
+    /**
+     * Construct a validator which checks orientation of rings.
+     */
+    public PolygonValidator() {
+        this(true);
+    }
+
+    /**
+     * Construct a validator.
+     * @param orientation true if the outer ring should be counter clockwise and inner rings clockwise.
+     */
+    public PolygonValidator(boolean orientation) {
+        this.orientation = orientation;
+    }
+
+    /**
+     * Validate polygons in parallel.
+     * @return the reports in the same order.
+     */
+    public List<Report> validate(List<Polygon> polygons) {
+        List<Report> result = new ArrayList<Report>(Collections.<Report>nCopies(polygons.size(), null));
+        ForkJoinPool.commonPool().invoke(new ValidationTask(new ArrayList<Polygon>(polygons), result, 0,
+            polygons.size()));
+        return result;
+    }
+
+    /**
+     * Validate a polygon.
+     */
+    public Report validate(Polygon polygon) {
+        List<LinearRing> rings = new ArrayList<LinearRing>();
+        rings.add(polygon.outerRing());
+        if (polygon.innerRings() != null) {
+            rings.addAll(polygon.innerRings());
+        }
+
+        Report report = new Report();
+        if (!checkRings(rings, report) || !checkSimplicity(rings, report) || rings.size() == 1
+            || !checkIntersections(rings, report)) {
+            return report;
+        }
+        checkHoles(rings, report);
+        return report;
+    }
+
+    /**
+     * Check area and orientation of rings, and bounding boxes of inner rings.
+     */
+    private boolean checkRings(List<LinearRing> rings, Report report) {
+        BoundingBox shell = rings.get(0).boundingBox();
+        for (int i = 0; i < rings.size(); i++) {
+            LinearRing ring = rings.get(i);
+            int clockwise = ring.clockwise();
+            if (clockwise == LinearRing.COLINEAR) {
+                report.add(DEGENERATE_RING, i, -1, null);
+            } else if (orientation && clockwise != (i == 0 ? LinearRing.COUNTER_CLOCKWISE : LinearRing.CLOCKWISE)) {
+                report.add(WRONG_ORIENTATION, i, -1, null);
+            }
+            if (i > 0 && !shell.contains(ring.boundingBox())) {
+                report.add(HOLE_OUTSIDE_SHELL, i, -1, null);
+            }
+        }
+        return report.isValid();
+    }
+
+    private boolean checkSimplicity(List<LinearRing> rings, Report report) {
+        PolygonChecker checker = new PolygonChecker();
+        for (int i = 0; i < rings.size(); i++) {
+            if (!checker.isSimple(rings.get(i).ax, rings.get(i).ay)) {
+                report.add(SELF_INTERSECTION, i, -1, null);
+            }
+        }
+        return report.isValid();
+    }
+
+    /**
+     * Check intersections between rings, each pair of rings is reported once.
+     */
+    private boolean checkIntersections(List<LinearRing> rings, Report report) {
+        SegmentIntersector intersector = new SegmentIntersector();
+        int[] firsts = new int[rings.size()];
+        for (int i = 0; i < rings.size(); i++) {
+            firsts[i] = intersector.add(rings.get(i));
+        }
+
+        Set<Long> pairs = new HashSet<Long>();
+        for (SegmentIntersector.Intersection intersection : intersector.intersections()) {
+            int ring = ringOf(firsts, intersection.first());
+            int other = ringOf(firsts, intersection.second());
+            if (ring != other && pairs.add(((long) ring << 32) | other)) {
+                report.add(RINGS_INTERSECT, ring, other, intersection.point());
+            }
+        }
+        return report.isValid();
+    }
+
+    /**
+     * Returns the ring of a segment by the indexes of the first segments of rings.
+     */
+    private static int ringOf(int[] firsts, int segment) {
+        int index = Arrays.binarySearch(firsts, segment);
+        return index >= 0 ? index : -2 - index;
+    }
+
+    /**
+     * Check inner rings are inside of the outer ring and not inside of each other, by the first vertex of each
+     * inner ring as rings don't intersect.
+     */
+    private void checkHoles(List<LinearRing> rings, Report report) {
+        int holes = rings.size() - 1;
+        double[] xs = new double[holes];
+        double[] ys = new double[holes];
+        for (int i = 0; i < holes; i++) {
+            xs[i] = rings.get(i + 1).ax[0];
+            ys[i] = rings.get(i + 1).ay[0];
+        }
+        BitSet inside = new BitSet(holes);
+        rings.get(0).containsAll(xs, ys, inside);
+        for (int i = 0; i < holes; i++) {
+            if (!inside.get(i)) {
+                report.add(HOLE_OUTSIDE_SHELL, i + 1, -1, null);
+            }
+        }
+
+        // sweep inner rings by the minimum X of bounding boxes, a ring may be inside of the overlapping ones
+        double[] minX = new double[holes];
+        double[] maxX = new double[holes];
+        int[] order = new int[holes];
+        for (int i = 0; i < holes; i++) {
+            BoundingBox bb = rings.get(i + 1).boundingBox();
+            minX[i] = bb.minX();
+            maxX[i] = bb.maxX();
+            order[i] = i;
+        }
+        IndexSort.sort(order, 0, holes, minX, null);
+        for (int i = 0; i < holes; i++) {
+            int a = order[i];
+            for (int j = i + 1; j < holes && minX[order[j]] <= maxX[a]; j++) {
+                int b = order[j];
+                if (contains(rings.get(a + 1), xs[b], ys[b])) {
+                    report.add(NESTED_HOLES, b + 1, a + 1, null);
+                } else if (contains(rings.get(b + 1), xs[a], ys[a])) {
+                    report.add(NESTED_HOLES, a + 1, b + 1, null);
+                }
+            }
+        }
+    }
+
+    private static boolean contains(LinearRing ring, double x, double y) {
+        return ring.boundingBox().contains(x, y) && ring.intersectRay(x, y) % 2 != 0;
+    }
+
+    /**
+     * A {@link ValidationTask} validates a range of polygons.
+     */
+    private class ValidationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Polygon> polygons;
+        private final List<Report> result;
+        private final int from;
+        private final int to;
+
+        ValidationTask(List<Polygon> polygons, List<Report> result, int from, int to) {
+            this.polygons = polygons;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    result.set(i, validate(polygons.get(i)));
+                }
+                return;
+            }
+
+            int m = (from + to) >>> 1;
+            invokeAll(new ValidationTask(polygons, result, from, m), new ValidationTask(polygons, result, m, to));
+        }
+    }
+}
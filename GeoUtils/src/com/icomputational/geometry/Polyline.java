@@ -3,8 +3,11 @@ package com.icomputational.geometry;
 import java.util.List;
 
 public class Polyline {
-    private final double[] ax;
-    private final double[] ay;
+    // points, package visible for simplification
+    final double[] ax;
+    final double[] ay;
+    // cumulative lengths, computed on demand
+    private volatile double[] lengths;
     
     public Polyline(List<Point> points) {
         this(points.toArray(new Point[points.size()]));
@@ -17,13 +20,46 @@ public class Polyline {
         
         this.ax = new double[points.length];
         this.ay = new double[points.length];
-        for (int i = 0; i < points.hashCode(); ++i) {
+        for (int i = 0; i < points.length; ++i) {
             final Point p = points[i];
             ax[i] = p.x();
             ay[i] = p.y();
         }
     }
     
+    /**
+     * Construct a polyline from arrays of coordinates, the arrays are owned by the polyline.
+     */
+    Polyline(double[] ax, double[] ay) {
+        if (ax.length < 2) {
+            throw new IllegalArgumentException("less than 2 points");
+        }
+        
+        this.ax = ax;
+        this.ay = ay;
+    }
+    
+    /**
+     * Returns number of points.
+     */
+    public int numberOfPoints() {
+        return ax.length;
+    }
+    
+    /**
+     * Returns the X coordinate of a point.
+     */
+    public double x(int index) {
+        return ax[index];
+    }
+    
+    /**
+     * Returns the Y coordinate of a point.
+     */
+    public double y(int index) {
+        return ay[index];
+    }
+    
     /**
      * Calculate a interpolation point with specified proportion.
      * @param proportion a proportion, from 0 to 1.
@@ -41,29 +77,97 @@ public class Polyline {
      * @return the interpolation point.
      */
     public Point interpolate(double proportion, double offset) {
-        double[] segments = new double[ax.length - 1];
-        double total = 0D;
-        for (int i = 1; i < ax.length; i++) {
-            final double d = distance(i - 1, i);
-            segments[i - 1] = d;
-            total += d;
+        double[] lengths = lengths();
+        double pos = lengths[lengths.length - 1] * proportion;
+        double[] x = new double[1];
+        double[] y = new double[1];
+        interpolate(lengths, locate(lengths, pos, 0, lengths.length - 1), pos, offset, x, y, 0);
+        return new Point(x[0], y[0]);
+    }
+
+    /**
+     * Calculate interpolation points with specified proportions, the same as
+     * {@link #interpolate(double, double)} for each proportion. The line is walked once if proportions are
+     * sorted in ascending order, otherwise each point is located by a binary search.
+     * @param proportions proportions, from 0 to 1.
+     * @param offset side offset to the line, positive for right side.
+     * @param outX the X coordinates of interpolation points, should have the same length as proportions.
+     * @param outY the Y coordinates of interpolation points, should have the same length as proportions.
+     */
+    public void interpolateAll(double[] proportions, double offset, double[] outX, double[] outY) {
+        if (outX.length != proportions.length || outY.length != proportions.length) {
+            throw new IllegalArgumentException("length of output " + outX.length + ", " + outY.length
+                + " differs from length of proportions " + proportions.length);
         }
 
-        double pos = total * proportion;
+        double[] lengths = lengths();
+        int last = lengths.length - 1;
         int index = 0;
-        for (; index < segments.length; index++) {
-            final double d = segments[index];
-            if (pos <= d) {
-                proportion = pos / d;
-                break;
+        double previous = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < proportions.length; i++) {
+            double pos = lengths[last] * proportions[i];
+            if (pos >= previous) {
+                // walk on from the last segment
+                while (index < last && lengths[index + 1] < pos) {
+                    index++;
+                }
             } else {
-                pos -= d;
+                index = locate(lengths, pos, 0, last);
             }
+            previous = pos;
+            interpolate(lengths, index, pos, offset, outX, outY, i);
         }
+    }
 
-        if (index == segments.length) {
-            index--;
+    /**
+     * Returns the cumulative lengths from the first point to each point, which are computed on the first
+     * call.
+     */
+    private double[] lengths() {
+        double[] result = lengths;
+        if (result == null) {
+            result = new double[ax.length];
+            for (int i = 1; i < ax.length; i++) {
+                result[i] = result[i - 1] + distance(i - 1, i);
+            }
+            lengths = result;
+        }
+        return result;
+    }
+
+    /**
+     * Find the first segment which ends at or after specified position, by a binary search.
+     * @return the index of the segment, or the number of segments if the position is after the last point.
+     */
+    private static int locate(double[] lengths, double pos, int from, int to) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (lengths[mid + 1] < pos) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Calculate a interpolation point at specified position of a segment.
+     * @param lengths the cumulative lengths.
+     * @param index the index of the segment, or the number of segments for the last point.
+     * @param pos the position from the first point.
+     */
+    private void interpolate(double[] lengths, int index, double pos, double offset, double[] outX, double[] outY,
+            int i) {
+        double length;
+        double proportion;
+        if (index >= ax.length - 1 || pos >= lengths[ax.length - 1]) {
+            index = ax.length - 2;
+            length = distance(index, index + 1);
             proportion = 1D;
+        } else {
+            length = distance(index, index + 1);
+            proportion = (pos - lengths[index]) / length;
         }
 
         final double x1 = ax[index];
@@ -81,11 +185,7 @@ public class Polyline {
         }
 
         // we are unable to calculate offset if two points are almost same point
-        if (Geometry.almostZero(segments[index])) {
-            return new Point(x, y);
-        }
-
-        if (offset != 0D) {
+        if (offset != 0D && !Geometry.almostZero(length)) {
             if (index > 0 && Geometry.almostEquals(x, x1) && Geometry.almostEquals(y, y1)) {
                 Vector v1 = new Vector(x1 - ax[index - 1], y1 - ay[index - 1]).normalize();
                 Vector v2 = new Vector(x2 - x1, y2 - y1).normalize();
@@ -99,12 +199,13 @@ public class Polyline {
                 x += offset * result.dx();
                 y += offset * result.dy();
             } else {
-                x += offset * (y2 - y1) / segments[index];
-                y += offset * (x1 - x2) / segments[index];
+                x += offset * (y2 - y1) / length;
+                y += offset * (x1 - x2) / length;
             }
         }
 
-        return new Point(x, y);
+        outX[i] = x;
+        outY[i] = y;
     }
 
     private double distance(int i, int j) {
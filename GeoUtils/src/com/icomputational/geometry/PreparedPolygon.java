@@ -0,0 +1,212 @@
+package com.icomputational.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.icomputational.geometry.util.IndexSort;
+
+/**
+ * A {@link PreparedPolygon} is a polygon with an index of the edges of all its rings, for polygons with many
+ * vertices which are tested repeatedly.
+ * <p>
+ * Edges are sorted by their minimum Y coordinates and stored as an implicit balanced binary tree, where each
+ * node keeps the extent of its subtree. A point or a bounding box is tested against the edges whose extents
+ * overlap it only, which takes O(log n + k) time.
+ * <p>
+ * The index is built on the first query, and it can be shared by multiple threads. The rings of the polygon
+ * are captured when a prepared polygon is constructed.
+ */
+public class PreparedPolygon extends Shape {
+    /**
+     * An {@link EdgeIndex} is the implicit interval tree of edges.
+     */
+    private static final class EdgeIndex {
+        // edges as x0, y0, x1, y1, sorted by the minimum Y of edges
+        final double[] edges;
+        final double[] minY;
+        // extents of subtrees, indexed by the middle of the range of a subtree
+        final double[] maxY;
+        final double[] minX;
+        final double[] maxX;
+
+        EdgeIndex(List<LinearRing> rings) {
+            int n = 0;
+            for (LinearRing ring : rings) {
+                n += ring.ax.length;
+            }
+
+            double[] unsorted = new double[n * 4];
+            double[] unsortedMinY = new double[n];
+            int k = 0;
+            for (LinearRing ring : rings) {
+                int m = ring.ax.length;
+                for (int i = 0, j = m - 1; i < m; j = i++) {
+                    unsortedMinY[k / 4] = Math.min(ring.ay[j], ring.ay[i]);
+                    unsorted[k++] = ring.ax[j];
+                    unsorted[k++] = ring.ay[j];
+                    unsorted[k++] = ring.ax[i];
+                    unsorted[k++] = ring.ay[i];
+                }
+            }
+
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            IndexSort.sort(order, 0, n, unsortedMinY, null);
+
+            edges = new double[n * 4];
+            minY = new double[n];
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(unsorted, order[i] * 4, edges, i * 4, 4);
+                minY[i] = unsortedMinY[order[i]];
+            }
+
+            maxY = new double[n];
+            minX = new double[n];
+            maxX = new double[n];
+            build(0, n - 1);
+        }
+
+        /**
+         * Compute extents of a subtree, returns the middle of the range.
+         */
+        private int build(int lo, int hi) {
+            int mid = (lo + hi) >>> 1;
+            double x0 = edges[mid * 4];
+            double y0 = edges[mid * 4 + 1];
+            double x1 = edges[mid * 4 + 2];
+            double y1 = edges[mid * 4 + 3];
+            maxY[mid] = Math.max(y0, y1);
+            minX[mid] = Math.min(x0, x1);
+            maxX[mid] = Math.max(x0, x1);
+            if (lo < mid) {
+                join(mid, build(lo, mid - 1));
+            }
+            if (mid < hi) {
+                join(mid, build(mid + 1, hi));
+            }
+            return mid;
+        }
+
+        private void join(int node, int child) {
+            maxY[node] = Math.max(maxY[node], maxY[child]);
+            minX[node] = Math.min(minX[node], minX[child]);
+            maxX[node] = Math.max(maxX[node], maxX[child]);
+        }
+
+        /**
+         * Count edges intersect with a ray from specified coordinate to the positive X direction.
+         */
+        int intersectRay(double x, double y, int lo, int hi) {
+            if (lo > hi) {
+                return 0;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            if (maxY[mid] < y || maxX[mid] < x) {
+                return 0;
+            }
+
+            int count = intersectRay(x, y, lo, mid - 1);
+            // edges on the right side are not lower than the middle one, which are never crossed
+            if (minY[mid] < y) {
+                if (LinearRing.intersectRay(edges[mid * 4], edges[mid * 4 + 1], edges[mid * 4 + 2],
+                    edges[mid * 4 + 3], x, y)) {
+                    count++;
+                }
+                count += intersectRay(x, y, mid + 1, hi);
+            }
+            return count;
+        }
+
+        /**
+         * Check if any edge intersects specified bounding box.
+         */
+        boolean intersects(BoundingBox bb, int lo, int hi) {
+            if (lo > hi) {
+                return false;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            if (maxY[mid] < bb.minY() || maxX[mid] < bb.minX() || minX[mid] > bb.maxX()) {
+                return false;
+            }
+
+            if (intersects(bb, lo, mid - 1)) {
+                return true;
+            }
+            if (minY[mid] > bb.maxY()) {
+                return false;
+            }
+            return LinearRing.intersects(edges[mid * 4], edges[mid * 4 + 1], edges[mid * 4 + 2],
+                edges[mid * 4 + 3], bb.minX(), bb.minY(), bb.maxX(), bb.maxY()) || intersects(bb, mid + 1, hi);
+        }
+    }
+
+    private final List<LinearRing> rings;
+    private final BoundingBox boundingBox;
+    private volatile EdgeIndex index;
+
+    /**
+     * Prepare a polygon.
+     * @param polygon a polygon, inner rings added to the polygon later are not seen by the prepared polygon.
+     */
+    public PreparedPolygon(Polygon polygon) {
+        rings = new ArrayList<LinearRing>();
+        rings.add(polygon.outerRing());
+        if (polygon.innerRings() != null) {
+            rings.addAll(polygon.innerRings());
+        }
+        boundingBox = polygon.boundingBox();
+    }
+
+    /**
+     * Get the edge index, build it if it's not built yet.
+     */
+    private EdgeIndex index() {
+        EdgeIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = new EdgeIndex(rings);
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BoundingBox boundingBox() {
+        return boundingBox;
+    }
+
+    @Override
+    public boolean contains(double x, double y) {
+        if (!boundingBox.contains(x, y)) {
+            return false;
+        }
+
+        EdgeIndex edges = index();
+        return edges.intersectRay(x, y, 0, edges.minY.length - 1) % 2 != 0;
+    }
+
+    @Override
+    public boolean overlaps(BoundingBox bb) {
+        if (bb.contains(boundingBox)) {
+            return true;
+        } else if (!bb.overlaps(boundingBox)) {
+            return false;
+        }
+
+        EdgeIndex edges = index();
+        if (edges.intersects(bb, 0, edges.minY.length - 1)) {
+            return true;
+        }
+
+        // no edge crosses the bounding box, it's either inside of the polygon or outside
+        return edges.intersectRay(bb.maxX(), bb.maxY(), 0, edges.minY.length - 1) % 2 != 0;
+    }
+}
@@ -0,0 +1,192 @@
+package com.icomputational.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link RasterizedPolygon} is a polygon overlaid by a grid over its bounding box, where each cell is
+ * classified as inside, outside or on the boundary of the polygon.
+ * <p>
+ * A point in an inside or outside cell is resolved by one array lookup, and only points in boundary cells are
+ * tested exactly by a {@link PreparedPolygon}. The number of cells is proportional to the number of vertices
+ * by default, so each boundary cell is crossed by a few edges.
+ * <p>
+ * Cells crossed by edges or containing vertices are marked as boundary cells first, then other cells of each
+ * row are classified by one ray test per run of cells between boundary cells.
+ */
+public class RasterizedPolygon extends Shape {
+    private static final byte OUTSIDE = 0;
+    private static final byte INSIDE = 1;
+    private static final byte BOUNDARY = 2;
+
+    private static final int MIN_CELLS = 64;
+    private static final int MAX_CELLS = 1 << 22;
+
+    private final PreparedPolygon prepared;
+    private final BoundingBox boundingBox;
+    private final int columns;
+    private final int rows;
+    private final double cellWidth;
+    private final double cellHeight;
+    // classes of cells, row by row
+    private final byte[] cells;
+
+    /**
+     * Rasterize a polygon with a grid of about as many cells as vertices.
+     */
+    public RasterizedPolygon(Polygon polygon) {
+        this(polygon, numberOfVertices(polygon));
+    }
+
+    /**
+     * Rasterize a polygon.
+     * @param polygon a polygon, inner rings added to the polygon later are not seen by the rasterized polygon.
+     * @param cells the expected number of cells, which is clamped between 64 and 2^22.
+     */
+    public RasterizedPolygon(Polygon polygon, int cells) {
+        prepared = new PreparedPolygon(polygon);
+        boundingBox = polygon.boundingBox();
+
+        // square cells if possible
+        int n = Math.max(MIN_CELLS, Math.min(MAX_CELLS, cells));
+        double aspect = boundingBox.width() / boundingBox.height();
+        columns = (int) Math.max(1, Math.min(n, Math.round(Math.sqrt(n * aspect))));
+        rows = Math.max(1, n / columns);
+        cellWidth = boundingBox.width() / columns;
+        cellHeight = boundingBox.height() / rows;
+        this.cells = new byte[columns * rows];
+
+        List<LinearRing> rings = new ArrayList<LinearRing>();
+        rings.add(polygon.outerRing());
+        if (polygon.innerRings() != null) {
+            rings.addAll(polygon.innerRings());
+        }
+        for (LinearRing ring : rings) {
+            markBoundary(ring);
+        }
+        classify();
+    }
+
+    private static int numberOfVertices(Polygon polygon) {
+        int n = polygon.outerRing().numberOfSides();
+        if (polygon.innerRings() != null) {
+            for (LinearRing ring : polygon.innerRings()) {
+                n += ring.numberOfSides();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Mark cells crossed by edges of a ring, and cells of its vertices, as boundary cells. An edge visits only the
+     * cells it passes through, row by row, so marking costs O(vertices + boundary cells).
+     */
+    private void markBoundary(LinearRing ring) {
+        // cells are slightly enlarged, rounding errors make more boundary cells but never less
+        double dx = cellWidth * 1E-9;
+        double dy = cellHeight * 1E-9;
+        int m = ring.ax.length;
+        for (int i = 0, j = m - 1; i < m; j = i++) {
+            double x0 = ring.ax[j];
+            double y0 = ring.ay[j];
+            double x1 = ring.ax[i];
+            double y1 = ring.ay[i];
+            // an edge may lie inside of a cell without crossing its sides, but its end points are in the cell
+            cells[row(y1) * columns + column(x1)] = BOUNDARY;
+            double left = Math.min(x0, x1);
+            double right = Math.max(x0, x1);
+            int r0 = row(Math.min(y0, y1) - dy);
+            int r1 = row(Math.max(y0, y1) + dy);
+            for (int r = r0; r <= r1; r++) {
+                // the X range of the part of the edge in the enlarged row
+                double from = left;
+                double to = right;
+                if (y0 != y1) {
+                    double minY = boundingBox.minY() + r * cellHeight - dy;
+                    double maxY = minY + cellHeight + 2 * dy;
+                    double xa = x0 + (minY - y0) / (y1 - y0) * (x1 - x0);
+                    double xb = x0 + (maxY - y0) / (y1 - y0) * (x1 - x0);
+                    from = Math.max(left, Math.min(xa, xb));
+                    to = Math.min(right, Math.max(xa, xb));
+                }
+
+                int c0 = column(from - dx);
+                int c1 = column(to + dx);
+                if (c0 <= c1) {
+                    Arrays.fill(cells, r * columns + c0, r * columns + c1 + 1, BOUNDARY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Classify cells which are not boundary cells, cells between two boundary cells of a row are either all
+     * inside or all outside.
+     */
+    private void classify() {
+        for (int r = 0; r < rows; r++) {
+            double y = boundingBox.minY() + (r + 0.5) * cellHeight;
+            byte state = BOUNDARY;
+            for (int c = 0; c < columns; c++) {
+                int index = r * columns + c;
+                if (cells[index] == BOUNDARY) {
+                    state = BOUNDARY;
+                    continue;
+                }
+
+                if (state == BOUNDARY) {
+                    double x = boundingBox.minX() + (c + 0.5) * cellWidth;
+                    state = prepared.contains(x, y) ? INSIDE : OUTSIDE;
+                }
+                cells[index] = state;
+            }
+        }
+    }
+
+    private int column(double x) {
+        int c = (int) Math.floor((x - boundingBox.minX()) / cellWidth);
+        return Math.max(0, Math.min(columns - 1, c));
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor((y - boundingBox.minY()) / cellHeight);
+        return Math.max(0, Math.min(rows - 1, r));
+    }
+
+    @Override
+    public BoundingBox boundingBox() {
+        return boundingBox;
+    }
+
+    @Override
+    public boolean contains(double x, double y) {
+        if (!boundingBox.contains(x, y)) {
+            return false;
+        }
+
+        byte state = cells[row(y) * columns + column(x)];
+        if (state == BOUNDARY) {
+            return prepared.contains(x, y);
+        }
+        return state == INSIDE;
+    }
+
+    @Override
+    public boolean overlaps(BoundingBox bb) {
+        return prepared.overlaps(bb);
+    }
+
+    /**
+     * Returns the proportion of boundary cells, which need exact tests.
+     */
+    public double boundaryRatio() {
+        int count = 0;
+        for (byte state : cells) {
+            if (state == BOUNDARY) {
+                count++;
+            }
+        }
+        return (double) count / cells.length;
+    }
+}
@@ -0,0 +1,42 @@
+package com.icomputational.geometry;
+
+import java.util.List;
+
+/**
+ * A {@link ReadOnlySpatialIndex} represents the queries of an index of shapes on a 2-dimension plane, which is
+ * implemented by immutable indexes, and by every {@link SpatialIndex}.
+ */
+public interface ReadOnlySpatialIndex {
+    /**
+     * Search for shapes that overlaps specified bounding box.
+     * @param bb a bounding box to be tested.
+     * @return a list of shapes overlaps specified bounding box.
+     */
+    List<Shape> search(BoundingBox bb);
+
+    /**
+     * Search for shapes that contains specified point.
+     * @param point a point to be tested
+     * @return a list of shapes contains specified point.
+     */
+    List<Shape> search(Point point);
+
+    /**
+     * Search for the nearest shapes of specified point.
+     * @param point the point to be tested.
+     * @param k the maximum number of shapes to return.
+     * @return a list of shapes, sorted by {@link Shape#distance(double, double)} in increasing order.
+     */
+    List<Shape> nearest(Point point, int k);
+
+    /**
+     * Get a bounding box that covers all shapes of this index.
+     * @return a bounding box, null if this index is empty.
+     */
+    BoundingBox boundingBox();
+
+    /**
+     * Returns the number of shapes in this index.
+     */
+    int size();
+}
@@ -32,4 +32,44 @@ public abstract class Shape {
      * @return true if this polygon overlaps the bounding box. 
      */
     public abstract boolean overlaps(BoundingBox bb);
+
+    /**
+     * Check if this shape contains specified coordinate, where the answer may be wrong for coordinates near
+     * the boundary within the tolerance, so that a simplified version of this shape can be tested.
+     * The default implementation is exact, the same as {@link #contains(double, double)}.
+     * @param x the X coordinate.
+     * @param y the Y coordinate.
+     * @param tolerance the tolerance of the boundary, 0 for an exact answer.
+     * @return true if the coordinate is contained by this shape.
+     */
+    public boolean contains(double x, double y, double tolerance) {
+        return contains(x, y);
+    }
+
+    /**
+     * Check if this shape overlaps specified bounding box, where the answer may be wrong for bounding boxes
+     * near the boundary within the tolerance, so that a simplified version of this shape can be tested.
+     * The default implementation is exact, the same as {@link #overlaps(BoundingBox)}.
+     * @param bb a bounding box.
+     * @param tolerance the tolerance of the boundary, 0 for an exact answer.
+     * @return true if this shape overlaps the bounding box.
+     */
+    public boolean overlaps(BoundingBox bb, double tolerance) {
+        return overlaps(bb);
+    }
+
+    /**
+     * Calculate the distance from specified coordinate to this shape.
+     * The default implementation returns 0 if the coordinate is contained by this shape, otherwise
+     * the distance to the bounding box, subclasses should override it for an exact distance.
+     * @param x the X coordinate.
+     * @param y the Y coordinate.
+     * @return the distance, 0 if the coordinate is contained by this shape.
+     */
+    public double distance(double x, double y) {
+        if (contains(x, y)) {
+            return 0D;
+        }
+        return boundingBox().distance(x, y);
+    }
 }
@@ -0,0 +1,532 @@
+package com.icomputational.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.icomputational.geometry.util.IndexSort;
+
+/**
+ * A {@link Simplifier} reduces vertices of linear rings, polygons and polylines, for rendering and queries at
+ * coarse resolutions. Subclasses decide which vertices to keep, the first and the last vertex are always kept,
+ * and a ring keeps 3 vertices at least.
+ * <p>
+ * If topology is preserved, a simplified segment which crosses or touches another simplified segment of the
+ * same geometry, or which jumps over a vertex of another ring, is split at its farthest removed vertex again,
+ * until no such segment is left. Simplified geometries are then as simple as their originals, and inner
+ * rings of a polygon stay inside its outer ring.
+ * <p>
+ * A simplifier can be shared by multiple threads, collections of geometries are simplified in a fork/join
+ * pool.
+ */
+public abstract class Simplifier {
+    /**
+     * A {@link Chain} is the vertices of a ring or a polyline being simplified, where the first vertex of a
+     * ring is repeated at the end.
+     */
+    static final class Chain {
+        final double[] xs;
+        final double[] ys;
+        final int last;
+        final boolean closed;
+        final boolean[] keep;
+        int count;
+
+        Chain(double[] ax, double[] ay, boolean closed) {
+            if (closed) {
+                xs = Arrays.copyOf(ax, ax.length + 1);
+                ys = Arrays.copyOf(ay, ay.length + 1);
+                xs[ax.length] = ax[0];
+                ys[ay.length] = ay[0];
+            } else {
+                xs = ax;
+                ys = ay;
+            }
+            this.closed = closed;
+            last = xs.length - 1;
+            keep = new boolean[xs.length];
+            keep[0] = true;
+            keep[last] = true;
+            count = 2;
+        }
+
+        /**
+         * Returns the minimum number of vertices to be kept, including the repeated vertex of a ring.
+         */
+        int minimum() {
+            return closed ? 4 : 2;
+        }
+
+        /**
+         * Returns the squared distance from vertex k to the segment from vertex i to vertex j.
+         */
+        double distance2(int k, int i, int j) {
+            double x0 = xs[i];
+            double y0 = ys[i];
+            double dx = xs[j] - x0;
+            double dy = ys[j] - y0;
+            double length2 = dx * dx + dy * dy;
+            double t = 0;
+            if (length2 > 0) {
+                t = ((xs[k] - x0) * dx + (ys[k] - y0) * dy) / length2;
+                t = Math.max(0, Math.min(1, t));
+            }
+            double ex = x0 + t * dx - xs[k];
+            double ey = y0 + t * dy - ys[k];
+            return ex * ex + ey * ey;
+        }
+
+        /**
+         * Returns the vertex between vertex i and vertex j which is farthest from the segment between them,
+         * -1 if there is no vertex between them.
+         */
+        int farthest(int i, int j) {
+            int result = -1;
+            double max = -1;
+            for (int k = i + 1; k < j; k++) {
+                double d = distance2(k, i, j);
+                if (d > max) {
+                    max = d;
+                    result = k;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Keep a vertex.
+         */
+        void keep(int k) {
+            if (!keep[k]) {
+                keep[k] = true;
+                count++;
+            }
+        }
+
+        /**
+         * Keep the farthest vertex between two kept vertices.
+         * @return false if there is no vertex between them.
+         */
+        boolean split(int i, int j) {
+            int k = farthest(i, j);
+            if (k < 0) {
+                return false;
+            }
+            keep(k);
+            return true;
+        }
+
+        /**
+         * Returns the next kept vertex after vertex i.
+         */
+        int next(int i) {
+            int j = i + 1;
+            while (!keep[j]) {
+                j++;
+            }
+            return j;
+        }
+
+        /**
+         * Returns coordinates of kept vertices, without the repeated vertex of a ring.
+         */
+        double[][] result() {
+            int n = closed ? count - 1 : count;
+            double[][] result = new double[2][n];
+            for (int i = 0, k = 0; k < n; i++) {
+                if (keep[i]) {
+                    result[0][k] = xs[i];
+                    result[1][k] = ys[i];
+                    k++;
+                }
+            }
+            return result;
+        }
+    }
+
+    private final boolean preserveTopology;
+
+    /**
+     * Construct a simplifier.
+     * @param preserveTopology true to keep simplified geometries from self intersections.
+     */
+    Simplifier(boolean preserveTopology) {
+        this.preserveTopology = preserveTopology;
+    }
+
+    /**
+     * Choose vertices to be kept, by {@link Chain#keep(int)}.
+     */
+    abstract void reduce(Chain chain);
+
+    /**
+     * Simplify a linear ring.
+     */
+    public LinearRing simplify(LinearRing ring) {
+        Chain chain = new Chain(ring.ax, ring.ay, true);
+        simplify(Collections.singletonList(chain));
+        double[][] result = chain.result();
+        return new LinearRing(result[0], result[1]);
+    }
+
+    /**
+     * Simplify a polygon, all rings are simplified together if topology is preserved.
+     */
+    public Polygon simplify(Polygon polygon) {
+        List<Chain> chains = new ArrayList<Chain>();
+        chains.add(new Chain(polygon.outerRing().ax, polygon.outerRing().ay, true));
+        if (polygon.innerRings() != null) {
+            for (LinearRing ring : polygon.innerRings()) {
+                chains.add(new Chain(ring.ax, ring.ay, true));
+            }
+        }
+        simplify(chains);
+
+        double[][] result = chains.get(0).result();
+        Polygon simplified = new Polygon(new LinearRing(result[0], result[1]));
+        for (int i = 1; i < chains.size(); i++) {
+            result = chains.get(i).result();
+            simplified.addInnerRing(new LinearRing(result[0], result[1]));
+        }
+        return simplified;
+    }
+
+    /**
+     * Simplify a polyline.
+     */
+    public Polyline simplify(Polyline polyline) {
+        Chain chain = new Chain(polyline.ax, polyline.ay, false);
+        simplify(Collections.singletonList(chain));
+        double[][] result = chain.result();
+        return new Polyline(result[0], result[1]);
+    }
+
+    /**
+     * Simplify polygons in parallel.
+     * @return the simplified polygons in the same order.
+     */
+    public List<Polygon> simplifyPolygons(List<Polygon> polygons) {
+        List<Polygon> result = new ArrayList<Polygon>(Collections.<Polygon>nCopies(polygons.size(), null));
+        ForkJoinPool.commonPool().invoke(new PolygonTask(new ArrayList<Polygon>(polygons), result, 0,
+            polygons.size()));
+        return result;
+    }
+
+    /**
+     * Simplify polylines in parallel.
+     * @return the simplified polylines in the same order.
+     */
+    public List<Polyline> simplifyPolylines(List<Polyline> polylines) {
+        List<Polyline> result = new ArrayList<Polyline>(Collections.<Polyline>nCopies(polylines.size(), null));
+        ForkJoinPool.commonPool().invoke(new PolylineTask(new ArrayList<Polyline>(polylines), result, 0,
+            polylines.size()));
+        return result;
+    }
+
+    private void simplify(List<Chain> chains) {
+        for (Chain chain : chains) {
+            reduce(chain);
+            ensureMinimum(chain);
+        }
+
+        if (preserveTopology) {
+            boolean changed = true;
+            while (changed) {
+                changed = splitCrossings(chains) || splitJumps(chains);
+            }
+        }
+    }
+
+    /**
+     * Keep the farthest vertices until a chain has the minimum number of vertices.
+     */
+    private static void ensureMinimum(Chain chain) {
+        while (chain.count < chain.minimum()) {
+            int from = -1;
+            int to = -1;
+            double max = -1;
+            for (int i = 0; i < chain.last; ) {
+                int j = chain.next(i);
+                int k = chain.farthest(i, j);
+                if (k >= 0 && chain.distance2(k, i, j) > max) {
+                    max = chain.distance2(k, i, j);
+                    from = i;
+                    to = j;
+                }
+                i = j;
+            }
+            if (from < 0) {
+                return;
+            }
+            chain.split(from, to);
+        }
+    }
+
+    /**
+     * Split simplified segments which cross or touch other simplified segments. The segments are sorted by
+     * their minimum X, and each segment is only checked against segments whose X ranges overlap it.
+     * @return true if any segment is split.
+     */
+    private static boolean splitCrossings(List<Chain> chains) {
+        int n = 0;
+        for (Chain chain : chains) {
+            n += chain.count - 1;
+        }
+
+        // segments as chain, start vertex and end vertex
+        int[] segments = new int[n * 3];
+        double[] minX = new double[n];
+        int s = 0;
+        for (int c = 0; c < chains.size(); c++) {
+            Chain chain = chains.get(c);
+            for (int i = 0; i < chain.last; ) {
+                int j = chain.next(i);
+                segments[s * 3] = c;
+                segments[s * 3 + 1] = i;
+                segments[s * 3 + 2] = j;
+                minX[s] = Math.min(chain.xs[i], chain.xs[j]);
+                s++;
+                i = j;
+            }
+        }
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        IndexSort.sort(order, 0, n, minX, null);
+
+        boolean[] crossed = new boolean[n];
+        int[] active = new int[n];
+        int size = 0;
+        for (int k = 0; k < n; k++) {
+            int t = order[k];
+            // remove segments on the left side
+            int kept = 0;
+            for (int a = 0; a < size; a++) {
+                if (maxX(chains, segments, active[a]) >= minX[t]) {
+                    active[kept++] = active[a];
+                }
+            }
+            size = kept;
+
+            for (int a = 0; a < size; a++) {
+                int u = active[a];
+                if (conflicts(chains, segments, t, u)) {
+                    crossed[t] = true;
+                    crossed[u] = true;
+                }
+            }
+            active[size++] = t;
+        }
+
+        boolean changed = false;
+        for (int t = 0; t < n; t++) {
+            if (crossed[t] && chains.get(segments[t * 3]).split(segments[t * 3 + 1], segments[t * 3 + 2])) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static double maxX(List<Chain> chains, int[] segments, int s) {
+        Chain chain = chains.get(segments[s * 3]);
+        return Math.max(chain.xs[segments[s * 3 + 1]], chain.xs[segments[s * 3 + 2]]);
+    }
+
+    /**
+     * Check if two segments cross or touch, segments sharing an end conflict only if they overlap.
+     */
+    private static boolean conflicts(List<Chain> chains, int[] segments, int s, int t) {
+        Chain c1 = chains.get(segments[s * 3]);
+        Chain c2 = chains.get(segments[t * 3]);
+        int i1 = segments[s * 3 + 1];
+        int j1 = segments[s * 3 + 2];
+        int i2 = segments[t * 3 + 1];
+        int j2 = segments[t * 3 + 2];
+        double px = c1.xs[i1];
+        double py = c1.ys[i1];
+        double qx = c1.xs[j1];
+        double qy = c1.ys[j1];
+        double rx = c2.xs[i2];
+        double ry = c2.ys[i2];
+        double sx = c2.xs[j2];
+        double sy = c2.ys[j2];
+        if (Math.max(py, qy) < Math.min(ry, sy) || Math.min(py, qy) > Math.max(ry, sy)) {
+            return false;
+        }
+
+        boolean pr = px == rx && py == ry;
+        boolean ps = px == sx && py == sy;
+        boolean qr = qx == rx && qy == ry;
+        boolean qs = qx == sx && qy == sy;
+        if ((pr || ps) && (qr || qs)) {
+            // the same segment
+            return true;
+        } else if (pr) {
+            return overlaps(px, py, qx, qy, sx, sy);
+        } else if (ps) {
+            return overlaps(px, py, qx, qy, rx, ry);
+        } else if (qr) {
+            return overlaps(qx, qy, px, py, sx, sy);
+        } else if (qs) {
+            return overlaps(qx, qy, px, py, rx, ry);
+        }
+
+        int o1 = orientation(px, py, qx, qy, rx, ry);
+        int o2 = orientation(px, py, qx, qy, sx, sy);
+        int o3 = orientation(rx, ry, sx, sy, px, py);
+        int o4 = orientation(rx, ry, sx, sy, qx, qy);
+        if (o1 * o2 < 0 && o3 * o4 < 0) {
+            return true;
+        }
+        return (o1 == 0 && between(px, py, qx, qy, rx, ry)) || (o2 == 0 && between(px, py, qx, qy, sx, sy))
+            || (o3 == 0 && between(rx, ry, sx, sy, px, py)) || (o4 == 0 && between(rx, ry, sx, sy, qx, qy));
+    }
+
+    /**
+     * Check if two segments from a shared end (x, y) to (x1, y1) and (x2, y2) overlap.
+     */
+    private static boolean overlaps(double x, double y, double x1, double y1, double x2, double y2) {
+        return orientation(x, y, x1, y1, x2, y2) == 0 && (x1 - x) * (x2 - x) + (y1 - y) * (y2 - y) > 0;
+    }
+
+    /**
+     * Returns the sign of the cross product of (x1 - x0, y1 - y0) and (x2 - x0, y2 - y0).
+     */
+    private static int orientation(double x0, double y0, double x1, double y1, double x2, double y2) {
+        return (int) Math.signum((x1 - x0) * (y2 - y0) - (x2 - x0) * (y1 - y0));
+    }
+
+    /**
+     * Check if a point collinear with a segment is on the segment.
+     */
+    private static boolean between(double x0, double y0, double x1, double y1, double x, double y) {
+        return Math.min(x0, x1) <= x && x <= Math.max(x0, x1) && Math.min(y0, y1) <= y && y <= Math.max(y0, y1);
+    }
+
+    /**
+     * Split simplified segments which jump over the first vertex of another ring, which is inside of the area
+     * between the segment and the removed vertices.
+     * @return true if any segment is split.
+     */
+    private static boolean splitJumps(List<Chain> chains) {
+        if (chains.size() < 2) {
+            return false;
+        }
+
+        boolean changed = false;
+        for (Chain chain : chains) {
+            for (int i = 0; i < chain.last; ) {
+                int j = chain.next(i);
+                if (j - i > 1 && jumps(chain, i, j, chains)) {
+                    chain.split(i, j);
+                    changed = true;
+                }
+                i = j;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean jumps(Chain chain, int i, int j, List<Chain> chains) {
+        double minX = chain.xs[i];
+        double minY = chain.ys[i];
+        double maxX = minX;
+        double maxY = minY;
+        for (int k = i + 1; k <= j; k++) {
+            minX = Math.min(minX, chain.xs[k]);
+            minY = Math.min(minY, chain.ys[k]);
+            maxX = Math.max(maxX, chain.xs[k]);
+            maxY = Math.max(maxY, chain.ys[k]);
+        }
+
+        for (Chain other : chains) {
+            double x = other.xs[0];
+            double y = other.ys[0];
+            if (other == chain || !other.closed || x < minX || x > maxX || y < minY || y > maxY) {
+                continue;
+            }
+
+            // the area is closed by the simplified segment from vertex j to vertex i
+            int count = 0;
+            for (int k = i; k < j; k++) {
+                if (LinearRing.intersectRay(chain.xs[k], chain.ys[k], chain.xs[k + 1], chain.ys[k + 1], x, y)) {
+                    count++;
+                }
+            }
+            if (LinearRing.intersectRay(chain.xs[j], chain.ys[j], chain.xs[i], chain.ys[i], x, y)) {
+                count++;
+            }
+            if (count % 2 != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A {@link PolygonTask} simplifies a range of polygons.
+     */
+    private class PolygonTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Polygon> polygons;
+        private final List<Polygon> result;
+        private final int from;
+        private final int to;
+
+        PolygonTask(List<Polygon> polygons, List<Polygon> result, int from, int to) {
+            this.polygons = polygons;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    result.set(i, simplify(polygons.get(i)));
+                }
+                return;
+            }
+
+            int m = (from + to) >>> 1;
+            invokeAll(new PolygonTask(polygons, result, from, m), new PolygonTask(polygons, result, m, to));
+        }
+    }
+
+    /**
+     * A {@link PolylineTask} simplifies a range of polylines.
+     */
+    private class PolylineTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Polyline> polylines;
+        private final List<Polyline> result;
+        private final int from;
+        private final int to;
+
+        PolylineTask(List<Polyline> polylines, List<Polyline> result, int from, int to) {
+            this.polylines = polylines;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    result.set(i, simplify(polylines.get(i)));
+                }
+                return;
+            }
+
+            int m = (from + to) >>> 1;
+            invokeAll(new PolylineTask(polylines, result, from, m), new PolylineTask(polylines, result, m, to));
+        }
+    }
+}
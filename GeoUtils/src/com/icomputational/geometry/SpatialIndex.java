@@ -0,0 +1,21 @@
+package com.icomputational.geometry;
+
+/**
+ * A {@link SpatialIndex} represents an index of shapes on a 2-dimension plane,
+ * so that callers can switch between index implementations per dataset.
+ * Implementations are not thread-safe unless they state otherwise.
+ */
+public interface SpatialIndex extends ReadOnlySpatialIndex {
+    /**
+     * Insert a shape to this index.
+     * @param shape a shape instance.
+     */
+    void insert(Shape shape);
+
+    /**
+     * Delete a shape from this index.
+     * @param shape the shape to be deleted.
+     * @return true if the shape has been deleted successfully.
+     */
+    boolean delete(Shape shape);
+}
@@ -0,0 +1,141 @@
+package com.icomputational.geometry;
+
+/**
+ * A {@link VisvalingamWhyattSimplifier} simplifies geometries by the Visvalingam-Whyatt algorithm, which
+ * repeatedly removes the vertex with the smallest effective area, the area of the triangle formed by the
+ * vertex and its neighbours.
+ * <p>
+ * Vertices are kept in a min-heap by their effective areas, and the areas of neighbours are updated in the
+ * heap when a vertex is removed, which takes O(n log n) time. The effective area of a neighbour is never
+ * less than the area of the removed vertex, so that vertices are removed in the order of their areas.
+ * @see <a href="http://en.wikipedia.org/wiki/Visvalingam%E2%80%93Whyatt_algorithm">Visvalingam-Whyatt
+ *      algorithm</a>
+ */
+public class VisvalingamWhyattSimplifier extends Simplifier {
+    private final double area;
+
+    /**
+     * Construct a simplifier which doesn't preserve topology.
+     * @param area the minimum effective area of a vertex to be kept.
+     */
+    public VisvalingamWhyattSimplifier(double area) {
+        this(area, false);
+    }
+
+    /**
+     * Construct a simplifier.
+     * @param area the minimum effective area of a vertex to be kept.
+     * @param preserveTopology true to keep simplified geometries from self intersections.
+     */
+    public VisvalingamWhyattSimplifier(double area, boolean preserveTopology) {
+        super(preserveTopology);
+        if (!(area >= 0)) {
+            throw new IllegalArgumentException("area " + area + " should not be negative");
+        }
+        this.area = area;
+    }
+
+    @Override
+    void reduce(Chain chain) {
+        int n = chain.last + 1;
+        int[] prev = new int[n];
+        int[] next = new int[n];
+        double[] areas = new double[n];
+        // the heap of inner vertices, and positions of vertices in the heap
+        int[] heap = new int[n];
+        int[] positions = new int[n];
+        int size = 0;
+        for (int i = 1; i < chain.last; i++) {
+            prev[i] = i - 1;
+            next[i] = i + 1;
+            areas[i] = area(chain, i - 1, i, i + 1);
+            heap[size] = i;
+            positions[i] = size;
+            size++;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(heap, positions, areas, size, i);
+        }
+
+        // all vertices are kept at first, and removed from the heap
+        int count = n;
+        while (size > 0 && count > chain.minimum()) {
+            int i = heap[0];
+            if (areas[i] >= area) {
+                break;
+            }
+
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                positions[heap[0]] = 0;
+                siftDown(heap, positions, areas, size, 0);
+            }
+            positions[i] = -1;
+            count--;
+
+            int p = prev[i];
+            int q = next[i];
+            next[p] = q;
+            prev[q] = p;
+            if (p > 0) {
+                areas[p] = Math.max(areas[i], area(chain, prev[p], p, q));
+                update(heap, positions, areas, size, positions[p]);
+            }
+            if (q < chain.last) {
+                areas[q] = Math.max(areas[i], area(chain, p, q, next[q]));
+                update(heap, positions, areas, size, positions[q]);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            chain.keep(heap[i]);
+        }
+    }
+
+    private static double area(Chain chain, int i, int j, int k) {
+        double x0 = chain.xs[i];
+        double y0 = chain.ys[i];
+        return Math.abs((chain.xs[j] - x0) * (chain.ys[k] - y0) - (chain.xs[k] - x0) * (chain.ys[j] - y0)) / 2;
+    }
+
+    /**
+     * Move a vertex in the heap after its area is changed.
+     */
+    private static void update(int[] heap, int[] positions, double[] areas, int size, int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (areas[heap[parent]] <= areas[v]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            positions[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        positions[v] = i;
+        siftDown(heap, positions, areas, size, i);
+    }
+
+    private static void siftDown(int[] heap, int[] positions, double[] areas, int size, int i) {
+        int v = heap[i];
+        while (true) {
+            int child = i * 2 + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && areas[heap[child + 1]] < areas[heap[child]]) {
+                child++;
+            }
+            if (areas[heap[child]] >= areas[v]) {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        positions[v] = i;
+    }
+}
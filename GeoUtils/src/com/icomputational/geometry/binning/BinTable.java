@@ -0,0 +1,141 @@
+package com.icomputational.geometry.binning;
+
+/**
+ * A {@link BinTable} is a sparse table of cells, which accumulates the count and the sum of weights of
+ * points of each cell.
+ * <p>
+ * Cells are stored in primitive arrays by open addressing with linear probing, no object is allocated per
+ * cell or per point.
+ */
+public class BinTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] cells;
+    // a slot is empty if its count is 0
+    private long[] counts;
+    private double[] sums;
+    private int size;
+
+    /**
+     * Construct an empty table.
+     */
+    public BinTable() {
+        cells = new long[INITIAL_CAPACITY];
+        counts = new long[INITIAL_CAPACITY];
+        sums = new double[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Add a point of weight 1 to a cell.
+     */
+    public void add(long cell) {
+        add(cell, 1, 1);
+    }
+
+    /**
+     * Add a point to a cell.
+     * @param weight the weight of the point.
+     */
+    public void add(long cell, double weight) {
+        add(cell, 1, weight);
+    }
+
+    private void add(long cell, long count, double sum) {
+        int slot = slot(cell);
+        if (counts[slot] == 0) {
+            cells[slot] = cell;
+            size++;
+        }
+        counts[slot] += count;
+        sums[slot] += sum;
+
+        // keep the load factor no more than 1/2
+        if (size * 2 > cells.length) {
+            resize(cells.length * 2);
+        }
+    }
+
+    /**
+     * Add all cells of another table to this table.
+     */
+    public void merge(BinTable other) {
+        for (int i = 0; i < other.cells.length; i++) {
+            if (other.counts[i] > 0) {
+                add(other.cells[i], other.counts[i], other.sums[i]);
+            }
+        }
+    }
+
+    /**
+     * Get the number of non-empty cells.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of points of a cell.
+     */
+    public long count(long cell) {
+        return counts[slot(cell)];
+    }
+
+    /**
+     * Get the sum of weights of points of a cell.
+     */
+    public double sum(long cell) {
+        return sums[slot(cell)];
+    }
+
+    /**
+     * Get all non-empty cells.
+     * @return ids of cells in no particular order.
+     */
+    public long[] cells() {
+        long[] result = new long[size];
+        int n = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (counts[i] > 0) {
+                result[n++] = cells[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the slot of a cell, or the empty slot where it should be.
+     */
+    private int slot(long cell) {
+        int mask = cells.length - 1;
+        int slot = hash(cell) & mask;
+        while (counts[slot] > 0 && cells[slot] != cell) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] oldCells = cells;
+        long[] oldCounts = counts;
+        double[] oldSums = sums;
+        cells = new long[capacity];
+        counts = new long[capacity];
+        sums = new double[capacity];
+        for (int i = 0; i < oldCells.length; i++) {
+            if (oldCounts[i] > 0) {
+                int slot = slot(oldCells[i]);
+                cells[slot] = oldCells[i];
+                counts[slot] = oldCounts[i];
+                sums[slot] = oldSums[i];
+            }
+        }
+    }
+
+    /**
+     * Mix bits of a cell id, as ids of neighbour cells differ only in a few bits.
+     */
+    private static int hash(long cell) {
+        long h = cell * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
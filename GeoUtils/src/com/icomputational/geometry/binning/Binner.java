@@ -0,0 +1,172 @@
+package com.icomputational.geometry.binning;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Projection;
+
+/**
+ * A {@link Binner} accumulates points into cells of a {@link Binning}.
+ * <p>
+ * Points in primitive arrays are split into chunks, which are accumulated into their own tables in a
+ * fork/join pool, and the tables are merged at the end. Coordinates of an {@link Iterable} are read by the
+ * calling thread into chunks, which are projected and accumulated in the pool while reading goes on.
+ */
+public class Binner {
+    /**
+     * The maximum number of points accumulated by one task.
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final Binning binning;
+
+    /**
+     * Construct a binner.
+     * @param binning the cells to accumulate points into.
+     */
+    public Binner(Binning binning) {
+        this.binning = binning;
+    }
+
+    /**
+     * Count points of each cell.
+     * @param xs the X coordinates.
+     * @param ys the Y coordinates, should have the same length as X coordinates.
+     * @return a table of cells.
+     */
+    public BinTable bin(double[] xs, double[] ys) {
+        return bin(xs, ys, null);
+    }
+
+    /**
+     * Count points and sum up their weights of each cell.
+     * @param xs the X coordinates.
+     * @param ys the Y coordinates, should have the same length as X coordinates.
+     * @param weights the weights of points, should have the same length as X coordinates, null for weight 1.
+     * @return a table of cells.
+     */
+    public BinTable bin(double[] xs, double[] ys, double[] weights) {
+        if (xs.length != ys.length || (weights != null && weights.length != xs.length)) {
+            throw new IllegalArgumentException("arrays of coordinates and weights should have the same length");
+        }
+
+        return ForkJoinPool.commonPool().invoke(new BinTask(xs, ys, weights, 0, xs.length));
+    }
+
+    /**
+     * Count points of each cell from coordinates, which are projected to the plane of the binning. Each
+     * coordinate counts with weight 1.
+     * @param coordinates any coordinates.
+     * @param projection the projection of coordinates, which is called by multiple threads.
+     * @return a table of cells.
+     */
+    public <C> BinTable bin(Iterable<? extends C> coordinates, Projection<C> projection) {
+        List<ForkJoinTask<BinTable>> tasks = new ArrayList<ForkJoinTask<BinTable>>();
+        Object[] chunk = new Object[CHUNK_SIZE];
+        int n = 0;
+        for (C coordinate : coordinates) {
+            chunk[n++] = coordinate;
+            if (n == CHUNK_SIZE) {
+                tasks.add(ForkJoinPool.commonPool().submit(new ProjectTask<C>(chunk, n, projection)));
+                chunk = new Object[CHUNK_SIZE];
+                n = 0;
+            }
+        }
+
+        // the last chunk is accumulated by the calling thread
+        BinTable table = new ProjectTask<C>(chunk, n, projection).compute();
+        for (ForkJoinTask<BinTable> task : tasks) {
+            table = merge(table, task.join());
+        }
+        return table;
+    }
+
+    /**
+     * Merge the smaller table into the larger one.
+     * @return the merged table.
+     */
+    private static BinTable merge(BinTable table, BinTable other) {
+        if (table.size() < other.size()) {
+            other.merge(table);
+            return other;
+        }
+        table.merge(other);
+        return table;
+    }
+
+    /**
+     * A {@link ProjectTask} projects and accumulates a chunk of coordinates.
+     */
+    private class ProjectTask<C> extends RecursiveTask<BinTable> {
+        private static final long serialVersionUID = 1L;
+        private Object[] coordinates;
+        private final int size;
+        private final Projection<C> projection;
+
+        ProjectTask(Object[] coordinates, int size, Projection<C> projection) {
+            this.coordinates = coordinates;
+            this.size = size;
+            this.projection = projection;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected BinTable compute() {
+            BinTable table = new BinTable();
+            for (int i = 0; i < size; i++) {
+                Point p = projection.toPoint((C) coordinates[i]);
+                table.add(binning.cell(p.x(), p.y()));
+            }
+            // release the chunk, the task is referenced until all chunks are accumulated
+            coordinates = null;
+            return table;
+        }
+    }
+
+    /**
+     * A {@link BinTask} accumulates a range of points.
+     */
+    private class BinTask extends RecursiveTask<BinTable> {
+        private static final long serialVersionUID = 1L;
+        private final double[] xs;
+        private final double[] ys;
+        private final double[] weights;
+        private final int from;
+        private final int to;
+
+        BinTask(double[] xs, double[] ys, double[] weights, int from, int to) {
+            this.xs = xs;
+            this.ys = ys;
+            this.weights = weights;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BinTable compute() {
+            if (to - from <= CHUNK_SIZE) {
+                BinTable table = new BinTable();
+                for (int i = from; i < to; i++) {
+                    long cell = binning.cell(xs[i], ys[i]);
+                    if (weights == null) {
+                        table.add(cell);
+                    } else {
+                        table.add(cell, weights[i]);
+                    }
+                }
+                return table;
+            }
+
+            int m = (from + to) >>> 1;
+            BinTask left = new BinTask(xs, ys, weights, from, m);
+            BinTask right = new BinTask(xs, ys, weights, m, to);
+            left.fork();
+            BinTable table = right.compute();
+            return merge(table, left.join());
+        }
+    }
+}
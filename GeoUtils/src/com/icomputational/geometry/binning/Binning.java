@@ -0,0 +1,21 @@
+package com.icomputational.geometry.binning;
+
+import com.icomputational.geometry.Point;
+
+/**
+ * A {@link Binning} divides a plane into cells, each cell is identified by a long integer.
+ */
+public interface Binning {
+    /**
+     * Get the cell of a coordinate.
+     * @return the id of the cell which contains the coordinate.
+     */
+    long cell(double x, double y);
+
+    /**
+     * Get the central point of a cell.
+     * @param cell the id of a cell.
+     * @return the central point.
+     */
+    Point centre(long cell);
+}
@@ -0,0 +1,77 @@
+package com.icomputational.geometry.binning;
+
+import com.icomputational.geometry.Point;
+
+/**
+ * A {@link HexBinning} divides a plane into pointy-top regular hexagons, the hexagon of axial coordinate
+ * (0, 0) is centred at (0, 0).
+ * <p>
+ * The id of a cell packs its axial coordinate q in the upper 32 bits and r in the lower 32 bits.
+ * @see <a href="https://www.redblobgames.com/grids/hexagons/">Hexagonal grids</a>
+ */
+public class HexBinning implements Binning {
+    private static final double SQRT3 = Math.sqrt(3);
+
+    private final double size;
+
+    /**
+     * Construct a hexagon binning.
+     * @param size the distance from the centre to a corner of hexagons, should be positive.
+     */
+    public HexBinning(double size) {
+        if (!(size > 0)) {
+            throw new IllegalArgumentException("size " + size + " should be positive");
+        }
+
+        this.size = size;
+    }
+
+    @Override
+    public long cell(double x, double y) {
+        double q = (SQRT3 / 3 * x - y / 3) / size;
+        double r = (2.0 / 3 * y) / size;
+        double s = -q - r;
+
+        // round the cube coordinate, and fix the component with the largest rounding error
+        double rq = Math.rint(q);
+        double rr = Math.rint(r);
+        double rs = Math.rint(s);
+        double dq = Math.abs(rq - q);
+        double dr = Math.abs(rr - r);
+        double ds = Math.abs(rs - s);
+        if (dq > dr && dq > ds) {
+            rq = -rr - rs;
+        } else if (dr > ds) {
+            rr = -rq - rs;
+        }
+        return SquareBinning.pack((int) rq, (int) rr);
+    }
+
+    @Override
+    public Point centre(long cell) {
+        int q = q(cell);
+        int r = r(cell);
+        return new Point(size * SQRT3 * (q + r / 2.0), size * 1.5 * r);
+    }
+
+    /**
+     * Get the distance from the centre to a corner of hexagons.
+     */
+    public double size() {
+        return size;
+    }
+
+    /**
+     * Get the axial coordinate q of a cell.
+     */
+    public static int q(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    /**
+     * Get the axial coordinate r of a cell.
+     */
+    public static int r(long cell) {
+        return (int) cell;
+    }
+}
@@ -0,0 +1,75 @@
+package com.icomputational.geometry.binning;
+
+import com.icomputational.geometry.Point;
+
+/**
+ * A {@link SquareBinning} divides a plane into squares aligned to an origin.
+ * <p>
+ * The id of a cell packs its column in the upper 32 bits and its row in the lower 32 bits.
+ */
+public class SquareBinning implements Binning {
+    private final double size;
+    private final double originX;
+    private final double originY;
+
+    /**
+     * Construct a square binning aligned to (0, 0).
+     * @param size the side length of squares, should be positive.
+     */
+    public SquareBinning(double size) {
+        this(size, 0, 0);
+    }
+
+    /**
+     * Construct a square binning.
+     * @param size the side length of squares, should be positive.
+     * @param originX the X coordinate of a corner of the square of column 0 and row 0.
+     * @param originY the Y coordinate of a corner of the square of column 0 and row 0.
+     */
+    public SquareBinning(double size, double originX, double originY) {
+        if (!(size > 0)) {
+            throw new IllegalArgumentException("size " + size + " should be positive");
+        }
+
+        this.size = size;
+        this.originX = originX;
+        this.originY = originY;
+    }
+
+    @Override
+    public long cell(double x, double y) {
+        int column = (int) Math.floor((x - originX) / size);
+        int row = (int) Math.floor((y - originY) / size);
+        return pack(column, row);
+    }
+
+    @Override
+    public Point centre(long cell) {
+        return new Point(originX + (column(cell) + 0.5) * size, originY + (row(cell) + 0.5) * size);
+    }
+
+    /**
+     * Get the side length of squares.
+     */
+    public double size() {
+        return size;
+    }
+
+    static long pack(int a, int b) {
+        return (long) a << 32 | (b & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the column of a cell.
+     */
+    public static int column(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    /**
+     * Get the row of a cell.
+     */
+    public static int row(long cell) {
+        return (int) cell;
+    }
+}
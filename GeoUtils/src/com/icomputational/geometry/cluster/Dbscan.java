@@ -0,0 +1,217 @@
+package com.icomputational.geometry.cluster;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.icomputational.geometry.kdtree.KdTree;
+import com.icomputational.geometry.util.HilbertCurve;
+
+/**
+ * The {@link Dbscan} is a density-based clustering of points.
+ * <p>
+ * A point is a core point if there are at least {@code minPoints} points, including itself, within
+ * distance {@code eps}. Core points within distance {@code eps} of each other are in the same cluster.
+ * A non-core point within distance {@code eps} of a core point is a border point of the cluster of the
+ * nearest-indexed such core point, and other points are noise.
+ * <p>
+ * Neighbourhoods are searched on a {@link KdTree}. Points are ordered along a Hilbert curve and split into
+ * partitions, which are processed in parallel by a fork/join pool. Clusters are merged across partitions
+ * by a lock-free union-find.
+ * @see <a href="https://en.wikipedia.org/wiki/DBSCAN">DBSCAN</a>
+ */
+public class Dbscan {
+    /**
+     * The label of noise points.
+     */
+    public static final int NOISE = -1;
+
+    /**
+     * The maximum number of points of a partition.
+     */
+    private static final int PARTITION_SIZE = 4096;
+
+    private final double eps;
+    private final int minPoints;
+
+    /**
+     * Construct a DBSCAN clustering.
+     * @param eps the radius of neighbourhood, should be positive.
+     * @param minPoints the minimum number of points of a neighbourhood of a core point, should be positive.
+     */
+    public Dbscan(double eps, int minPoints) {
+        if (!(eps > 0)) {
+            throw new IllegalArgumentException("eps " + eps + " should be positive");
+        }
+        if (minPoints < 1) {
+            throw new IllegalArgumentException("min points " + minPoints + " should be positive");
+        }
+
+        this.eps = eps;
+        this.minPoints = minPoints;
+    }
+
+    /**
+     * Cluster points from primitive coordinate arrays.
+     * @param xs the X coordinates.
+     * @param ys the Y coordinates, should have the same length as X coordinates.
+     * @return labels of points, clusters are numbered from 0 in order of their first points, and noise points
+     *         are labelled {@link #NOISE}.
+     */
+    public int[] cluster(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("length of X " + xs.length + " differs from length of Y " + ys.length);
+        }
+
+        int n = xs.length;
+        Job job = new Job(xs, ys);
+        ForkJoinPool.commonPool().invoke(new PartitionAction(job, 0, n, false));
+        ForkJoinPool.commonPool().invoke(new PartitionAction(job, 0, n, true));
+
+        int[] labels = new int[n];
+        int[] clusters = new int[n];
+        Arrays.fill(clusters, NOISE);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int core = job.core[i] ? i : job.border[i];
+            if (core == NOISE) {
+                labels[i] = NOISE;
+                continue;
+            }
+
+            int root = job.unionFind.find(core);
+            if (clusters[root] == NOISE) {
+                clusters[root] = count++;
+            }
+            labels[i] = clusters[root];
+        }
+        return labels;
+    }
+
+    /**
+     * Shared state of a clustering.
+     */
+    private class Job {
+        final double[] xs;
+        final double[] ys;
+        final KdTree tree;
+        // indices of points in order of Hilbert curve
+        final int[] order;
+        final boolean[] core;
+        // the nearest-indexed core point of each border point
+        final int[] border;
+        final UnionFind unionFind;
+
+        Job(double[] xs, double[] ys) {
+            this.xs = xs;
+            this.ys = ys;
+            int n = xs.length;
+            tree = new KdTree(xs, ys);
+            order = hilbertOrder(xs, ys);
+            core = new boolean[n];
+            border = new int[n];
+            unionFind = new UnionFind(n);
+        }
+
+        /**
+         * Mark core points of a partition.
+         */
+        void findCores(int from, int to) {
+            for (int i = from; i < to; i++) {
+                int p = order[i];
+                core[p] = tree.within(xs[p], ys[p], eps).length >= minPoints;
+            }
+        }
+
+        /**
+         * Merge core points with their core neighbours, and find core points of border points.
+         */
+        void connect(int from, int to) {
+            for (int i = from; i < to; i++) {
+                int p = order[i];
+                int[] neighbours = tree.within(xs[p], ys[p], eps);
+                if (core[p]) {
+                    for (int q : neighbours) {
+                        // each pair of core points is merged once
+                        if (q < p && core[q]) {
+                            unionFind.union(p, q);
+                        }
+                    }
+                } else {
+                    int nearest = NOISE;
+                    for (int q : neighbours) {
+                        if (core[q] && (nearest == NOISE || q < nearest)) {
+                            nearest = q;
+                        }
+                    }
+                    border[p] = nearest;
+                }
+            }
+        }
+    }
+
+    /**
+     * A {@link PartitionAction} processes a range of points in Hilbert order, which is split into
+     * partitions to be processed in parallel.
+     */
+    private static class PartitionAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Job job;
+        private final int from;
+        private final int to;
+        private final boolean connect;
+
+        PartitionAction(Job job, int from, int to, boolean connect) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+            this.connect = connect;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARTITION_SIZE) {
+                if (connect) {
+                    job.connect(from, to);
+                } else {
+                    job.findCores(from, to);
+                }
+                return;
+            }
+
+            int m = (from + to) >>> 1;
+            invokeAll(new PartitionAction(job, from, m, connect), new PartitionAction(job, m, to, connect));
+        }
+    }
+
+    /**
+     * Sort indices of points along a Hilbert curve.
+     */
+    private static int[] hilbertOrder(double[] xs, double[] ys) {
+        int n = xs.length;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        // the Hilbert index takes the upper 32 bits, and the point index takes the lower 32 bits, the sign bit is
+        // flipped so signed order of keys is unsigned order of Hilbert indices
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (HilbertCurve.index(xs[i], ys[i], minX, minY, maxX, maxY) << 32 | i) ^ Long.MIN_VALUE;
+        }
+        Arrays.parallelSort(keys);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,61 @@
+package com.icomputational.geometry.cluster;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free disjoint set of integers, which can be merged by multiple threads concurrently.
+ * <p>
+ * A root is always linked to a smaller root by compare-and-set, so no cycle is created. Paths are halved
+ * while finding roots.
+ */
+class UnionFind {
+    private final AtomicIntegerArray parents;
+
+    /**
+     * Construct a disjoint set of integers from 0 to size - 1, each in its own set.
+     */
+    UnionFind(int size) {
+        parents = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parents.set(i, i);
+        }
+    }
+
+    /**
+     * Find the root of the set of specified value, which is the smallest value of the set when there is
+     * no concurrent merge.
+     */
+    int find(int x) {
+        int parent;
+        while ((parent = parents.get(x)) != x) {
+            int grandparent = parents.get(parent);
+            if (parent != grandparent) {
+                parents.compareAndSet(x, parent, grandparent);
+            }
+            x = grandparent;
+        }
+        return x;
+    }
+
+    /**
+     * Merge the sets of two values.
+     */
+    void union(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return;
+            }
+
+            if (a > b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            if (parents.compareAndSet(b, b, a)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package com.icomputational.geometry.grid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Shape;
+import com.icomputational.geometry.SpatialIndex;
+
+/**
+ * The {@link GridIndex} is a hashed uniform grid, which registers a shape to every cell its bounding box
+ * covers. It works best for points and small shapes with a roughly uniform distribution, where the
+ * cell size is close to the typical query size.
+ * <p>
+ * Cells are distributed to lock-striped buckets, so this index is thread-safe and concurrent writes to
+ * different buckets don't block each other.
+ */
+public class GridIndex implements SpatialIndex {
+    private static final int DEFAULT_STRIPES = 64;
+
+    /**
+     * A {@link Stripe} is a bucket of cells guarded by one lock.
+     */
+    static class Stripe {
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, List<Shape>> cells = new HashMap<Long, List<Shape>>();
+    }
+
+    /**
+     * A candidate of nearest neighbour search.
+     */
+    static class Candidate implements Comparable<Candidate> {
+        final Shape shape;
+        final double distance;
+
+        Candidate(Shape shape, double distance) {
+            this.shape = shape;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate o) {
+            // farthest first
+            return Double.compare(o.distance, distance);
+        }
+    }
+
+    private final double cellSize;
+    private final Stripe[] stripes;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger cellCount = new AtomicInteger();
+
+    // the range of cells which have ever been occupied, used to stop nearest search
+    private volatile int minCellX = Integer.MAX_VALUE;
+    private volatile int minCellY = Integer.MAX_VALUE;
+    private volatile int maxCellX = Integer.MIN_VALUE;
+    private volatile int maxCellY = Integer.MIN_VALUE;
+
+    /**
+     * Construct a grid with specified cell size.
+     * @param cellSize the width and height of a cell, should be positive.
+     */
+    public GridIndex(double cellSize) {
+        this(cellSize, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Construct a grid with specified cell size and number of lock stripes.
+     * @param cellSize the width and height of a cell, should be positive.
+     * @param stripes the number of lock stripes, should be positive.
+     */
+    public GridIndex(double cellSize, int stripes) {
+        if (!(cellSize > 0) || Double.isInfinite(cellSize)) {
+            throw new IllegalArgumentException("invalid cell size " + cellSize);
+        } else if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must greater than 0");
+        }
+
+        this.cellSize = cellSize;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the cell size of this grid.
+     */
+    public double cellSize() {
+        return cellSize;
+    }
+
+    @Override
+    public void insert(Shape shape) {
+        BoundingBox bb = shape.boundingBox();
+        int x0 = cell(bb.minX());
+        int y0 = cell(bb.minY());
+        int x1 = cell(bb.maxX());
+        int y1 = cell(bb.maxY());
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                Long key = key(cx, cy);
+                Stripe stripe = stripe(key);
+                Lock lock = stripe.lock.writeLock();
+                lock.lock();
+                try {
+                    List<Shape> shapes = stripe.cells.get(key);
+                    if (shapes == null) {
+                        shapes = new ArrayList<Shape>(4);
+                        stripe.cells.put(key, shapes);
+                        cellCount.incrementAndGet();
+                    }
+                    shapes.add(shape);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        size.incrementAndGet();
+        expand(x0, y0, x1, y1);
+    }
+
+    @Override
+    public boolean delete(Shape shape) {
+        BoundingBox bb = shape.boundingBox();
+        int x0 = cell(bb.minX());
+        int y0 = cell(bb.minY());
+        int x1 = cell(bb.maxX());
+        int y1 = cell(bb.maxY());
+        boolean deleted = false;
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                Long key = key(cx, cy);
+                Stripe stripe = stripe(key);
+                Lock lock = stripe.lock.writeLock();
+                lock.lock();
+                try {
+                    List<Shape> shapes = stripe.cells.get(key);
+                    if (shapes != null && shapes.remove(shape)) {
+                        deleted = true;
+                        if (shapes.isEmpty()) {
+                            stripe.cells.remove(key);
+                            cellCount.decrementAndGet();
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        if (deleted) {
+            size.decrementAndGet();
+        }
+        return deleted;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Get a bounding box that covers all shapes of this index, by scanning the occupied cells.
+     * @return a bounding box, null if this index is empty.
+     */
+    @Override
+    public BoundingBox boundingBox() {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Stripe stripe : stripes) {
+            Lock lock = stripe.lock.readLock();
+            lock.lock();
+            try {
+                for (List<Shape> shapes : stripe.cells.values()) {
+                    for (Shape shape : shapes) {
+                        BoundingBox bb = shape.boundingBox();
+                        minX = Math.min(minX, bb.minX());
+                        minY = Math.min(minY, bb.minY());
+                        maxX = Math.max(maxX, bb.maxX());
+                        maxY = Math.max(maxY, bb.maxY());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return (minX > maxX) ? null : new BoundingBox(minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public List<Shape> search(Point point) {
+        List<Shape> result = new ArrayList<Shape>();
+        Long key = key(cell(point.x()), cell(point.y()));
+        Stripe stripe = stripe(key);
+        Lock lock = stripe.lock.readLock();
+        lock.lock();
+        try {
+            List<Shape> shapes = stripe.cells.get(key);
+            if (shapes != null) {
+                for (Shape shape : shapes) {
+                    if (shape.boundingBox().contains(point) && shape.contains(point)) {
+                        result.add(shape);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<Shape> search(BoundingBox bb) {
+        List<Shape> result = new ArrayList<Shape>();
+        int x0 = cell(bb.minX());
+        int y0 = cell(bb.minY());
+        int x1 = cell(bb.maxX());
+        int y1 = cell(bb.maxY());
+        if ((double) (x1 - x0 + 1) * (y1 - y0 + 1) > cellCount.get()) {
+            // it's cheaper to scan the occupied cells
+            for (Stripe stripe : stripes) {
+                Lock lock = stripe.lock.readLock();
+                lock.lock();
+                try {
+                    for (Map.Entry<Long, List<Shape>> entry : stripe.cells.entrySet()) {
+                        long key = entry.getKey();
+                        int cx = (int) (key >> 32);
+                        int cy = (int) key;
+                        if (cx >= x0 && cx <= x1 && cy >= y0 && cy <= y1) {
+                            search(cx, cy, entry.getValue(), bb, result);
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return result;
+        }
+
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                Long key = key(cx, cy);
+                Stripe stripe = stripe(key);
+                Lock lock = stripe.lock.readLock();
+                lock.lock();
+                try {
+                    List<Shape> shapes = stripe.cells.get(key);
+                    if (shapes != null) {
+                        search(cx, cy, shapes, bb, result);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Search shapes of a cell, a shape is reported only by the cell contains the lower left corner
+     * of its intersection with the query bounding box, so no duplicates are returned.
+     */
+    private void search(int cx, int cy, List<Shape> shapes, BoundingBox bb, List<Shape> result) {
+        for (Shape shape : shapes) {
+            BoundingBox sbb = shape.boundingBox();
+            if (!sbb.overlaps(bb)) {
+                continue;
+            }
+            if (cell(Math.max(sbb.minX(), bb.minX())) != cx || cell(Math.max(sbb.minY(), bb.minY())) != cy) {
+                continue;
+            }
+            if (shape.overlaps(bb)) {
+                result.add(shape);
+            }
+        }
+    }
+
+    /**
+     * Search for the nearest shapes of specified point.
+     * Cells are visited ring by ring around the cell of the point, until the ring is farther than
+     * the k-th nearest shape found.
+     */
+    @Override
+    public List<Shape> nearest(Point point, int k) {
+        if (k <= 0 || size.get() == 0) {
+            return new ArrayList<Shape>();
+        }
+
+        double x = point.x();
+        double y = point.y();
+        int cx = cell(x);
+        int cy = cell(y);
+        PriorityQueue<Candidate> queue = new PriorityQueue<Candidate>();
+        Set<Shape> visited = Collections.newSetFromMap(new IdentityHashMap<Shape, Boolean>());
+        int x0 = minCellX;
+        int y0 = minCellY;
+        int x1 = maxCellX;
+        int y1 = maxCellY;
+        // rings inside of the first ring have no occupied cell
+        int first = Math.max(Math.max(x0 - cx, cx - x1), Math.max(y0 - cy, cy - y1));
+        for (int r = Math.max(first, 0); ; r++) {
+            if (queue.size() >= k && ringDistance(x, y, cx, cy, r) > queue.peek().distance) {
+                break;
+            }
+
+            // visit cells of the ring inside of the occupied range
+            int from = Math.max(-r, x0 - cx);
+            int to = Math.min(r, x1 - cx);
+            for (int i = from; i <= to; i++) {
+                visitCell(cx + i, cy - r, x, y, k, queue, visited);
+                if (r > 0) {
+                    visitCell(cx + i, cy + r, x, y, k, queue, visited);
+                }
+            }
+            from = Math.max(-r + 1, y0 - cy);
+            to = Math.min(r - 1, y1 - cy);
+            for (int j = from; j <= to; j++) {
+                visitCell(cx - r, cy + j, x, y, k, queue, visited);
+                visitCell(cx + r, cy + j, x, y, k, queue, visited);
+            }
+
+            if (cx - r <= x0 && cx + r >= x1 && cy - r <= y0 && cy + r >= y1) {
+                // the ring covers all occupied cells
+                break;
+            }
+        }
+
+        Shape[] shapes = new Shape[queue.size()];
+        for (int i = shapes.length - 1; i >= 0; i--) {
+            shapes[i] = queue.poll().shape;
+        }
+        List<Shape> result = new ArrayList<Shape>(shapes.length);
+        Collections.addAll(result, shapes);
+        return result;
+    }
+
+    private void visitCell(int cx, int cy, double x, double y, int k, PriorityQueue<Candidate> queue,
+        Set<Shape> visited) {
+        if (cx < minCellX || cx > maxCellX || cy < minCellY || cy > maxCellY) {
+            return;
+        }
+
+        Long key = key(cx, cy);
+        Stripe stripe = stripe(key);
+        Lock lock = stripe.lock.readLock();
+        lock.lock();
+        try {
+            List<Shape> shapes = stripe.cells.get(key);
+            if (shapes == null) {
+                return;
+            }
+            for (Shape shape : shapes) {
+                if (!visited.add(shape)) {
+                    continue;
+                }
+                if (queue.size() >= k && shape.boundingBox().distance(x, y) >= queue.peek().distance) {
+                    continue;
+                }
+                double distance = shape.distance(x, y);
+                if (queue.size() < k) {
+                    queue.add(new Candidate(shape, distance));
+                } else if (distance < queue.peek().distance) {
+                    queue.poll();
+                    queue.add(new Candidate(shape, distance));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the minimum distance from a coordinate to cells on specified ring around its cell.
+     */
+    private double ringDistance(double x, double y, int cx, int cy, int r) {
+        if (r == 0) {
+            return 0D;
+        }
+
+        // the inner block of the ring
+        double minX = (double) (cx - r + 1) * cellSize;
+        double maxX = (double) (cx + r) * cellSize;
+        double minY = (double) (cy - r + 1) * cellSize;
+        double maxY = (double) (cy + r) * cellSize;
+        return Math.min(Math.min(x - minX, maxX - x), Math.min(y - minY, maxY - y));
+    }
+
+    private synchronized void expand(int x0, int y0, int x1, int y1) {
+        if (x0 < minCellX) {
+            minCellX = x0;
+        }
+        if (y0 < minCellY) {
+            minCellY = y0;
+        }
+        if (x1 > maxCellX) {
+            maxCellX = x1;
+        }
+        if (y1 > maxCellY) {
+            maxCellY = y1;
+        }
+    }
+
+    private int cell(double v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    private static Long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private Stripe stripe(Long key) {
+        return stripes[(key.hashCode() & Integer.MAX_VALUE) % stripes.length];
+    }
+}
@@ -0,0 +1,277 @@
+package com.icomputational.geometry.kdtree;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+
+/**
+ * The {@link DynamicKdTree} is a point index supports insertion and deletion, by the logarithmic method
+ * over static {@link KdTree}s.
+ * <p>
+ * New points are appended to a small buffer which is scanned linearly. Once the buffer is full, it's merged
+ * with static trees of level 0, 1, ... until an empty level, into a new tree of that level, so the level
+ * {@code i} holds {@code bufferSize * 2^i} points at most, and each point is rebuilt {@code O(log n)} times.
+ * A deleted point is marked and filtered from query results, and dropped when its tree is rebuilt. All trees
+ * are rebuilt once deleted points are more than live points.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class DynamicKdTree {
+    private static final int DEFAULT_NODE_SIZE = 64;
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final int nodeSize;
+    private final double[] bufferCoords;
+    private final int[] bufferIds;
+    private int bufferCount;
+    private KdTree[] levels = new KdTree[0];
+
+    private final BitSet deleted = new BitSet();
+    // number of deleted points still stored in the buffer or trees
+    private int garbage;
+    private int size;
+    private int nextId;
+
+    /**
+     * Construct an empty tree with default parameters.
+     */
+    public DynamicKdTree() {
+        this(DEFAULT_NODE_SIZE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Construct an empty tree.
+     * @param nodeSize the maximum number of points in a leaf node of static trees, should be positive.
+     * @param bufferSize the maximum number of points in the insertion buffer, should be positive.
+     */
+    public DynamicKdTree(int nodeSize, int bufferSize) {
+        if (nodeSize <= 0) {
+            throw new IllegalArgumentException("node size must greater than 0");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("buffer size must greater than 0");
+        }
+        this.nodeSize = nodeSize;
+        this.bufferCoords = new double[bufferSize * 2];
+        this.bufferIds = new int[bufferSize];
+    }
+
+    /**
+     * Returns the number of points in this tree.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Insert a point to this tree.
+     * @return id of the point, which is the number of points inserted before.
+     */
+    public int insert(Point point) {
+        return insert(point.x(), point.y());
+    }
+
+    /**
+     * Insert a coordinate to this tree.
+     * @return id of the point, which is the number of points inserted before.
+     */
+    public int insert(double x, double y) {
+        if (nextId == Integer.MAX_VALUE) {
+            throw new IllegalStateException("too many points");
+        }
+        int id = nextId++;
+        bufferCoords[2 * bufferCount] = x;
+        bufferCoords[2 * bufferCount + 1] = y;
+        bufferIds[bufferCount++] = id;
+        size++;
+
+        if (bufferCount == bufferIds.length) {
+            flush();
+        }
+        return id;
+    }
+
+    /**
+     * Delete a point from this tree.
+     * @param id the id of the point returned by insertion.
+     * @return true if the point has been deleted successfully.
+     */
+    public boolean delete(int id) {
+        if (id < 0 || id >= nextId || deleted.get(id)) {
+            return false;
+        }
+        deleted.set(id);
+        size--;
+        garbage++;
+
+        if (garbage > size && garbage > bufferIds.length) {
+            rebuild();
+        }
+        return true;
+    }
+
+    /**
+     * Search for points inside specified bounding box, inclusively.
+     * @return ids of points.
+     */
+    public int[] range(BoundingBox bb) {
+        return range(bb.minX(), bb.minY(), bb.maxX(), bb.maxY());
+    }
+
+    /**
+     * Search for points inside specified range, inclusively.
+     * The range could have no width or height.
+     * @return ids of points.
+     */
+    public int[] range(double minX, double minY, double maxX, double maxY) {
+        IntList result = new IntList();
+        for (int i = 0; i < bufferCount; i++) {
+            double x = bufferCoords[2 * i];
+            double y = bufferCoords[2 * i + 1];
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && !deleted.get(bufferIds[i])) {
+                result.add(bufferIds[i]);
+            }
+        }
+        for (KdTree tree : levels) {
+            if (tree != null) {
+                tree.range(minX, minY, maxX, maxY, deleted, result);
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Search for points within specified distance to a point, inclusively.
+     * @return ids of points.
+     */
+    public int[] within(Point centre, double radius) {
+        return within(centre.x(), centre.y(), radius);
+    }
+
+    /**
+     * Search for points within specified distance to a coordinate, inclusively.
+     * @return ids of points.
+     */
+    public int[] within(double x, double y, double radius) {
+        IntList result = new IntList();
+        double r2 = radius * radius;
+        for (int i = 0; i < bufferCount; i++) {
+            if (KdTree.squareDistance(bufferCoords[2 * i], bufferCoords[2 * i + 1], x, y) <= r2
+                && !deleted.get(bufferIds[i])) {
+                result.add(bufferIds[i]);
+            }
+        }
+        for (KdTree tree : levels) {
+            if (tree != null) {
+                tree.within(x, y, radius, deleted, result);
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Search for the nearest points of specified point.
+     * @param k the maximum number of points to return.
+     * @return ids of points, sorted by distance in increasing order.
+     */
+    public int[] nearest(Point point, int k) {
+        return nearest(point.x(), point.y(), k);
+    }
+
+    /**
+     * Search for the nearest points of specified coordinate.
+     * @param k the maximum number of points to return.
+     * @return ids of points, sorted by distance in increasing order.
+     */
+    public int[] nearest(double x, double y, int k) {
+        NearestHeap heap = new NearestHeap(k);
+        if (k > 0) {
+            for (int i = 0; i < bufferCount; i++) {
+                if (!deleted.get(bufferIds[i])) {
+                    heap.offer(bufferIds[i], KdTree.squareDistance(bufferCoords[2 * i], bufferCoords[2 * i + 1], x, y));
+                }
+            }
+            // the heap is shared, so points found in a tree prune searches in following trees
+            for (KdTree tree : levels) {
+                if (tree != null) {
+                    tree.nearest(x, y, deleted, heap);
+                }
+            }
+        }
+        return heap.toSortedArray();
+    }
+
+    /**
+     * Merge the buffer with trees of lower levels into a tree of the first empty level.
+     */
+    private void flush() {
+        int level = 0;
+        int count = bufferCount;
+        while (level < levels.length && levels[level] != null) {
+            count += levels[level].size();
+            level++;
+        }
+
+        double[] coords = new double[count * 2];
+        int[] ids = new int[count];
+        int n = collect(bufferCoords, bufferIds, bufferCount, coords, ids, 0);
+        bufferCount = 0;
+        for (int i = 0; i < level; i++) {
+            n = collect(levels[i].coords, levels[i].ids, levels[i].size(), coords, ids, n);
+            levels[i] = null;
+        }
+
+        if (level == levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+        }
+        if (n > 0) {
+            levels[level] = new KdTree(Arrays.copyOf(coords, n * 2), Arrays.copyOf(ids, n), nodeSize);
+        }
+    }
+
+    /**
+     * Rebuild all live points into one tree.
+     */
+    private void rebuild() {
+        double[] coords = new double[size * 2];
+        int[] ids = new int[size];
+        int n = collect(bufferCoords, bufferIds, bufferCount, coords, ids, 0);
+        bufferCount = 0;
+        for (KdTree tree : levels) {
+            if (tree != null) {
+                n = collect(tree.coords, tree.ids, tree.size(), coords, ids, n);
+            }
+        }
+        garbage = 0;
+
+        // the level of a tree holds points no more than bufferSize * 2^level
+        int level = 0;
+        while ((long) bufferIds.length << level < n) {
+            level++;
+        }
+        levels = new KdTree[level + 1];
+        if (n > 0) {
+            levels[level] = new KdTree(coords, ids, nodeSize);
+        }
+    }
+
+    /**
+     * Copy live points to the destination arrays.
+     * @return the number of points in the destination after copy.
+     */
+    private int collect(double[] srcCoords, int[] srcIds, int count, double[] coords, int[] ids, int n) {
+        for (int i = 0; i < count; i++) {
+            int id = srcIds[i];
+            if (deleted.get(id)) {
+                garbage--;
+            } else {
+                coords[2 * n] = srcCoords[2 * i];
+                coords[2 * n + 1] = srcCoords[2 * i + 1];
+                ids[n++] = id;
+            }
+        }
+        return n;
+    }
+}
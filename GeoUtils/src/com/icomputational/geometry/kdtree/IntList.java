@@ -0,0 +1,35 @@
+package com.icomputational.geometry.kdtree;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive integers, to collect query results without boxing.
+ */
+class IntList {
+    private int[] values = new int[16];
+    private int size;
+
+    /**
+     * Append a value to this list.
+     */
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Returns the number of values in this list.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a copy of values in this list.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,446 @@
+package com.icomputational.geometry.kdtree;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+
+/**
+ * The {@link KdTree} is a static balanced k-d tree of points, which supports points with identical
+ * coordinates as well as points on the same vertical or horizontal line.
+ * <p>
+ * The tree is stored implicitly in an interleaved coordinate array: a range is split at its median
+ * element, alternately by X and Y, until it has no more than {@code nodeSize} points. No object is
+ * allocated per point or per node. Large ranges are sorted in parallel by a fork/join pool.
+ * <p>
+ * Queries return ids of points, which are the indices of points in the input.
+ * @see <a href="https://en.wikipedia.org/wiki/K-d_tree">k-d tree</a>
+ */
+public class KdTree {
+    private static final int DEFAULT_NODE_SIZE = 64;
+
+    /**
+     * The minimum number of points of a range to be sorted in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final int nodeSize;
+    // interleaved coordinates: x0, y0, x1, y1, ...
+    final double[] coords;
+    final int[] ids;
+
+    /**
+     * Construct from a list of points.
+     */
+    public KdTree(List<Point> points) {
+        this(points, DEFAULT_NODE_SIZE);
+    }
+
+    /**
+     * Construct from a list of points.
+     * @param points the points, ids of points are their indices in the list.
+     * @param nodeSize the maximum number of points in a leaf node, should be positive.
+     */
+    public KdTree(List<Point> points, int nodeSize) {
+        this(toCoordinates(points), sequence(points.size()), nodeSize);
+    }
+
+    /**
+     * Construct from primitive coordinate arrays.
+     */
+    public KdTree(double[] xs, double[] ys) {
+        this(xs, ys, DEFAULT_NODE_SIZE);
+    }
+
+    /**
+     * Construct from primitive coordinate arrays.
+     * @param xs the X coordinates, ids of points are their indices in the array.
+     * @param ys the Y coordinates, should have the same length as X coordinates.
+     * @param nodeSize the maximum number of points in a leaf node, should be positive.
+     */
+    public KdTree(double[] xs, double[] ys, int nodeSize) {
+        this(interleave(xs, ys), sequence(xs.length), nodeSize);
+    }
+
+    /**
+     * Construct from interleaved coordinates and ids, both arrays are owned by this tree.
+     */
+    KdTree(double[] coords, int[] ids, int nodeSize) {
+        if (nodeSize <= 0) {
+            throw new IllegalArgumentException("node size must greater than 0");
+        }
+        this.coords = coords;
+        this.ids = ids;
+        this.nodeSize = nodeSize;
+
+        int n = ids.length;
+        if (n > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new SortAction(0, n - 1, 0));
+        } else {
+            sort(0, n - 1, 0);
+        }
+    }
+
+    /**
+     * Returns the number of points in this tree.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Search for points inside specified bounding box, inclusively.
+     * @return ids of points.
+     */
+    public int[] range(BoundingBox bb) {
+        return range(bb.minX(), bb.minY(), bb.maxX(), bb.maxY());
+    }
+
+    /**
+     * Search for points inside specified range, inclusively.
+     * The range could have no width or height.
+     * @return ids of points.
+     */
+    public int[] range(double minX, double minY, double maxX, double maxY) {
+        IntList result = new IntList();
+        range(minX, minY, maxX, maxY, null, result);
+        return result.toArray();
+    }
+
+    /**
+     * Search for points within specified distance to a point, inclusively.
+     * @return ids of points.
+     */
+    public int[] within(Point centre, double radius) {
+        return within(centre.x(), centre.y(), radius);
+    }
+
+    /**
+     * Search for points within specified distance to a coordinate, inclusively.
+     * @return ids of points.
+     */
+    public int[] within(double x, double y, double radius) {
+        IntList result = new IntList();
+        within(x, y, radius, null, result);
+        return result.toArray();
+    }
+
+    /**
+     * Search for the nearest points of specified point.
+     * @param k the maximum number of points to return.
+     * @return ids of points, sorted by distance in increasing order.
+     */
+    public int[] nearest(Point point, int k) {
+        return nearest(point.x(), point.y(), k);
+    }
+
+    /**
+     * Search for the nearest points of specified coordinate.
+     * @param k the maximum number of points to return.
+     * @return ids of points, sorted by distance in increasing order.
+     */
+    public int[] nearest(double x, double y, int k) {
+        NearestHeap heap = new NearestHeap(k);
+        nearest(x, y, null, heap);
+        return heap.toSortedArray();
+    }
+
+    /**
+     * Search for points inside specified range, points with excluded ids are ignored.
+     */
+    void range(double minX, double minY, double maxX, double maxY, BitSet excluded, IntList result) {
+        int[] stack = new int[64 * 3];
+        int top = 0;
+        if (ids.length > 0) {
+            stack[top++] = 0;
+            stack[top++] = ids.length - 1;
+            stack[top++] = 0;
+        }
+
+        while (top > 0) {
+            int axis = stack[--top];
+            int right = stack[--top];
+            int left = stack[--top];
+
+            if (right - left <= nodeSize) {
+                for (int i = left; i <= right; i++) {
+                    double x = coords[2 * i];
+                    double y = coords[2 * i + 1];
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        add(ids[i], excluded, result);
+                    }
+                }
+                continue;
+            }
+
+            int m = (left + right) >>> 1;
+            double x = coords[2 * m];
+            double y = coords[2 * m + 1];
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                add(ids[m], excluded, result);
+            }
+
+            if (top + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (axis == 0 ? minX <= x : minY <= y) {
+                stack[top++] = left;
+                stack[top++] = m - 1;
+                stack[top++] = 1 - axis;
+            }
+            if (axis == 0 ? maxX >= x : maxY >= y) {
+                stack[top++] = m + 1;
+                stack[top++] = right;
+                stack[top++] = 1 - axis;
+            }
+        }
+    }
+
+    /**
+     * Search for points within specified distance, points with excluded ids are ignored.
+     */
+    void within(double qx, double qy, double radius, BitSet excluded, IntList result) {
+        double r2 = radius * radius;
+        int[] stack = new int[64 * 3];
+        int top = 0;
+        if (ids.length > 0) {
+            stack[top++] = 0;
+            stack[top++] = ids.length - 1;
+            stack[top++] = 0;
+        }
+
+        while (top > 0) {
+            int axis = stack[--top];
+            int right = stack[--top];
+            int left = stack[--top];
+
+            if (right - left <= nodeSize) {
+                for (int i = left; i <= right; i++) {
+                    if (squareDistance(coords[2 * i], coords[2 * i + 1], qx, qy) <= r2) {
+                        add(ids[i], excluded, result);
+                    }
+                }
+                continue;
+            }
+
+            int m = (left + right) >>> 1;
+            double x = coords[2 * m];
+            double y = coords[2 * m + 1];
+            if (squareDistance(x, y, qx, qy) <= r2) {
+                add(ids[m], excluded, result);
+            }
+
+            if (top + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (axis == 0 ? qx - radius <= x : qy - radius <= y) {
+                stack[top++] = left;
+                stack[top++] = m - 1;
+                stack[top++] = 1 - axis;
+            }
+            if (axis == 0 ? qx + radius >= x : qy + radius >= y) {
+                stack[top++] = m + 1;
+                stack[top++] = right;
+                stack[top++] = 1 - axis;
+            }
+        }
+    }
+
+    /**
+     * Add the nearest points to the heap, points with excluded ids are ignored.
+     */
+    void nearest(double qx, double qy, BitSet excluded, NearestHeap heap) {
+        if (ids.length > 0 && heap.capacity() > 0) {
+            nearest(qx, qy, 0, ids.length - 1, 0, excluded, heap);
+        }
+    }
+
+    private void nearest(double qx, double qy, int left, int right, int axis, BitSet excluded, NearestHeap heap) {
+        if (right - left <= nodeSize) {
+            for (int i = left; i <= right; i++) {
+                if (excluded == null || !excluded.get(ids[i])) {
+                    heap.offer(ids[i], squareDistance(coords[2 * i], coords[2 * i + 1], qx, qy));
+                }
+            }
+            return;
+        }
+
+        int m = (left + right) >>> 1;
+        double x = coords[2 * m];
+        double y = coords[2 * m + 1];
+        if (excluded == null || !excluded.get(ids[m])) {
+            heap.offer(ids[m], squareDistance(x, y, qx, qy));
+        }
+
+        double delta = (axis == 0) ? qx - x : qy - y;
+        if (delta <= 0) {
+            nearest(qx, qy, left, m - 1, 1 - axis, excluded, heap);
+            if (!heap.isFull() || delta * delta <= heap.maxDistance()) {
+                nearest(qx, qy, m + 1, right, 1 - axis, excluded, heap);
+            }
+        } else {
+            nearest(qx, qy, m + 1, right, 1 - axis, excluded, heap);
+            if (!heap.isFull() || delta * delta <= heap.maxDistance()) {
+                nearest(qx, qy, left, m - 1, 1 - axis, excluded, heap);
+            }
+        }
+    }
+
+    private static void add(int id, BitSet excluded, IntList result) {
+        if (excluded == null || !excluded.get(id)) {
+            result.add(id);
+        }
+    }
+
+    static double squareDistance(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Sort a range of points, the range is split at its median element by specified axis.
+     */
+    private void sort(int left, int right, int axis) {
+        if (right - left <= nodeSize) {
+            return;
+        }
+
+        int m = (left + right) >>> 1;
+        select(m, left, right, axis);
+        sort(left, m - 1, 1 - axis);
+        sort(m + 1, right, 1 - axis);
+    }
+
+    /**
+     * A {@link SortAction} sorts a range of points in a fork/join pool.
+     */
+    private class SortAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int left;
+        private final int right;
+        private final int axis;
+
+        SortAction(int left, int right, int axis) {
+            this.left = left;
+            this.right = right;
+            this.axis = axis;
+        }
+
+        @Override
+        protected void compute() {
+            if (right - left <= PARALLEL_THRESHOLD) {
+                sort(left, right, axis);
+                return;
+            }
+
+            int m = (left + right) >>> 1;
+            select(m, left, right, axis);
+            invokeAll(new SortAction(left, m - 1, 1 - axis), new SortAction(m + 1, right, 1 - axis));
+        }
+    }
+
+    /**
+     * Rearrange points so that the k-th element is the one would be in a sorted range, and all elements
+     * on the left side are not greater, and elements on the right side are not less.
+     * @see <a href="https://en.wikipedia.org/wiki/Floyd%E2%80%93Rivest_algorithm">Floyd-Rivest algorithm</a>
+     */
+    private void select(int k, int left, int right, int axis) {
+        while (right > left) {
+            if (right - left > 600) {
+                int n = right - left + 1;
+                int m = k - left + 1;
+                double z = Math.log(n);
+                double s = 0.5 * Math.exp(2 * z / 3);
+                double sd = 0.5 * Math.sqrt(z * s * (n - s) / n) * (m - n / 2 < 0 ? -1 : 1);
+                int newLeft = Math.max(left, (int) Math.floor(k - m * s / n + sd));
+                int newRight = Math.min(right, (int) Math.floor(k + (n - m) * s / n + sd));
+                select(k, newLeft, newRight, axis);
+            }
+
+            double t = coords[2 * k + axis];
+            int i = left;
+            int j = right;
+
+            swap(left, k);
+            if (coords[2 * right + axis] > t) {
+                swap(left, right);
+            }
+
+            while (i < j) {
+                swap(i, j);
+                i++;
+                j--;
+                while (coords[2 * i + axis] < t) {
+                    i++;
+                }
+                while (coords[2 * j + axis] > t) {
+                    j--;
+                }
+            }
+
+            if (coords[2 * left + axis] == t) {
+                swap(left, j);
+            } else {
+                j++;
+                swap(j, right);
+            }
+
+            if (j <= k) {
+                left = j + 1;
+            }
+            if (k <= j) {
+                right = j - 1;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+
+        double v = coords[2 * i];
+        coords[2 * i] = coords[2 * j];
+        coords[2 * j] = v;
+
+        v = coords[2 * i + 1];
+        coords[2 * i + 1] = coords[2 * j + 1];
+        coords[2 * j + 1] = v;
+    }
+
+    private static double[] toCoordinates(List<Point> points) {
+        double[] coords = new double[points.size() * 2];
+        int i = 0;
+        for (Point p : points) {
+            coords[i++] = p.x();
+            coords[i++] = p.y();
+        }
+        return coords;
+    }
+
+    private static double[] interleave(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("length of X and Y coordinates are different");
+        }
+
+        double[] coords = new double[xs.length * 2];
+        for (int i = 0; i < xs.length; i++) {
+            coords[2 * i] = xs[i];
+            coords[2 * i + 1] = ys[i];
+        }
+        return coords;
+    }
+
+    private static int[] sequence(int n) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,105 @@
+package com.icomputational.geometry.kdtree;
+
+import java.util.Arrays;
+
+/**
+ * A {@link NearestHeap} is a bounded max-heap of point ids keyed by square distance, which keeps the
+ * nearest points found so far. The farthest point is at the top to be replaced by a nearer one.
+ */
+class NearestHeap {
+    private final int capacity;
+    private int[] ids;
+    private double[] distances;
+    private int size;
+
+    NearestHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        this.capacity = capacity;
+        // the heap grows on demand, as k may be much larger than the number of points
+        int initial = Math.min(capacity, 64);
+        this.ids = new int[initial];
+        this.distances = new double[initial];
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Returns the square distance of the farthest point in this heap.
+     */
+    double maxDistance() {
+        return distances[0];
+    }
+
+    /**
+     * Offer a point to this heap, it's kept if the heap is not full or it's nearer than the farthest one.
+     */
+    void offer(int id, double distance) {
+        if (size < capacity) {
+            if (size == ids.length) {
+                int length = (int) Math.min(capacity, ids.length * 2L);
+                ids = Arrays.copyOf(ids, length);
+                distances = Arrays.copyOf(distances, length);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] >= distance) {
+                    break;
+                }
+                ids[i] = ids[parent];
+                distances[i] = distances[parent];
+                i = parent;
+            }
+            ids[i] = id;
+            distances[i] = distance;
+        } else if (capacity > 0 && distance < distances[0]) {
+            ids[0] = id;
+            distances[0] = distance;
+            siftDown();
+        }
+    }
+
+    /**
+     * Returns ids in this heap sorted by distance in increasing order, the heap is emptied.
+     */
+    int[] toSortedArray() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = ids[0];
+            size--;
+            ids[0] = ids[size];
+            distances[0] = distances[size];
+            siftDown();
+        }
+        return result;
+    }
+
+    private void siftDown() {
+        int id = ids[0];
+        double distance = distances[0];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && distances[child + 1] > distances[child]) {
+                child++;
+            }
+            if (distances[child] <= distance) {
+                break;
+            }
+            ids[i] = ids[child];
+            distances[i] = distances[child];
+            i = child;
+        }
+        ids[i] = id;
+        distances[i] = distance;
+    }
+}
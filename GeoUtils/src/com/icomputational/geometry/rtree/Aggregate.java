@@ -0,0 +1,99 @@
+package com.icomputational.geometry.rtree;
+
+/**
+ * An {@link Aggregate} is the count, sum, minimum and maximum of a numeric attribute of shapes.
+ * @see AggregateRTree
+ */
+public class Aggregate {
+    /**
+     * The aggregate of no shape.
+     */
+    public static final Aggregate EMPTY = new Aggregate(0, 0D, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+    private final int count;
+    private final double sum;
+    private final double min;
+    private final double max;
+
+    public Aggregate(int count, double sum, double min, double max) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Returns the number of shapes.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of attribute values, 0 if there is no shape.
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the minimum attribute value, positive infinity if there is no shape.
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * Returns the maximum attribute value, negative infinity if there is no shape.
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Returns the average attribute value, NaN if there is no shape.
+     */
+    public double mean() {
+        return (count == 0) ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Merge with another aggregate.
+     * @return the aggregate of shapes of both aggregates.
+     */
+    public Aggregate merge(Aggregate other) {
+        return new Aggregate(count + other.count, sum + other.sum, Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = count;
+        long temp = Double.doubleToLongBits(sum);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(min);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(max);
+        result = prime * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        Aggregate other = (Aggregate) obj;
+        return count == other.count && Double.doubleToLongBits(sum) == Double.doubleToLongBits(other.sum)
+            && Double.doubleToLongBits(min) == Double.doubleToLongBits(other.min)
+            && Double.doubleToLongBits(max) == Double.doubleToLongBits(other.max);
+    }
+
+    @Override
+    public String toString() {
+        return "Aggregate [count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + "]";
+    }
+}
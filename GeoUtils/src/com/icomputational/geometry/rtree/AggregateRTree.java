@@ -0,0 +1,252 @@
+package com.icomputational.geometry.rtree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Shape;
+
+/**
+ * The {@link AggregateRTree} is a R*-tree whose branch entries store the {@link Aggregate} of a numeric
+ * attribute of all shapes in their subtrees, which are maintained whenever the bounding boxes of entries
+ * are adjusted on insertion, split and deletion.
+ * <p>
+ * An aggregate query takes the stored aggregate of a subtree which is fully inside the query box, without
+ * descending into it. A query filtered by a range of attribute values skips subtrees whose minimum and
+ * maximum values are out of the range.
+ */
+public class AggregateRTree extends RsTree {
+    /**
+     * A leaf node which knows the attribute of its shapes.
+     */
+    private static class AggregateLeafNode extends LeafNode {
+        final ToDoubleFunction<? super Shape> attribute;
+
+        AggregateLeafNode(int capacity, ToDoubleFunction<? super Shape> attribute) {
+            super(capacity);
+            this.attribute = attribute;
+        }
+
+        @Override
+        public Node createPartner(Collection<Entry> entries) {
+            AggregateLeafNode partner = new AggregateLeafNode(maxEntries, attribute);
+            partner.setEntries(entries);
+            return partner;
+        }
+    }
+
+    /**
+     * A branch node whose entries are {@link AggregateBranchEntry}.
+     */
+    private static class AggregateBranchNode extends BranchNode {
+        AggregateBranchNode(int maxEntries, int level) {
+            super(maxEntries, level);
+        }
+
+        @Override
+        BranchEntry createEntry(Node node) {
+            node.setParent(this);
+            return new AggregateBranchEntry(node);
+        }
+
+        @Override
+        public Node createPartner(Collection<Entry> entries) {
+            AggregateBranchNode partner = new AggregateBranchNode(maxEntries, level());
+            partner.setEntries(entries);
+            for (Entry entry : entries) {
+                ((BranchEntry) entry).child.setParent(partner);
+            }
+            return partner;
+        }
+    }
+
+    /**
+     * A branch entry with the aggregate of its child node.
+     */
+    private static class AggregateBranchEntry extends BranchEntry {
+        int count;
+        double sum;
+        double min;
+        double max;
+
+        AggregateBranchEntry(Node child) {
+            super(child);
+        }
+
+        @Override
+        public void adjust() {
+            super.adjust();
+
+            Accumulator accumulator = new Accumulator();
+            if (child.isLeaf()) {
+                ToDoubleFunction<? super Shape> attribute = ((AggregateLeafNode) child).attribute;
+                for (Entry entry : child.entries) {
+                    accumulator.add(attribute.applyAsDouble(((LeafEntry) entry).shape));
+                }
+            } else {
+                for (Entry entry : child.entries) {
+                    accumulator.add((AggregateBranchEntry) entry);
+                }
+            }
+            count = accumulator.count;
+            sum = accumulator.sum;
+            min = accumulator.min;
+            max = accumulator.max;
+        }
+    }
+
+    /**
+     * A mutable aggregate to collect values.
+     */
+    private static class Accumulator {
+        int count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        void add(AggregateBranchEntry entry) {
+            count += entry.count;
+            sum += entry.sum;
+            min = Math.min(min, entry.min);
+            max = Math.max(max, entry.max);
+        }
+
+        Aggregate toAggregate() {
+            return new Aggregate(count, sum, min, max);
+        }
+    }
+
+    private final ToDoubleFunction<? super Shape> attribute;
+
+    /**
+     * Construct an aggregate R*-tree.
+     * @param M maximum number of entries that will fit in one node, should be greater than 1.
+     * @param m minimum number of entries in a node, must be less than M/2.
+     * @param attribute the numeric attribute of shapes to be aggregated, which should never change for a shape
+     *        in this tree.
+     */
+    public AggregateRTree(int M, int m, ToDoubleFunction<? super Shape> attribute) {
+        super(M, m);
+        this.attribute = attribute;
+        // the root created by the super constructor doesn't know the attribute
+        rootNode = createLeafNode();
+    }
+
+    @Override
+    protected LeafNode createLeafNode() {
+        return new AggregateLeafNode(maxEntries, attribute);
+    }
+
+    @Override
+    protected BranchNode createRootNode(int level, Node... nodes) {
+        BranchNode parent = new AggregateBranchNode(maxEntries, level);
+        for (Node node : nodes) {
+            BranchEntry entry = parent.createEntry(node);
+            parent.add(entry);
+        }
+        return parent;
+    }
+
+    /**
+     * Aggregate the attribute of all shapes in this tree.
+     */
+    public Aggregate aggregate() {
+        return aggregate(null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Aggregate the attribute of shapes that overlaps specified bounding box.
+     * The stored aggregate of a subtree is taken if its bounding box is inside the query box, as a shape
+     * always overlaps a box which contains its bounding box.
+     * @param bb a bounding box to be tested.
+     * @return the aggregate of shapes returned by {@link #search(BoundingBox)}.
+     */
+    public Aggregate aggregate(BoundingBox bb) {
+        return aggregate(bb, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Aggregate the attribute of shapes that overlaps specified bounding box, and whose attribute values are
+     * within specified range.
+     * @param bb a bounding box to be tested, null for all shapes.
+     * @param min the minimum attribute value, inclusive.
+     * @param max the maximum attribute value, inclusive.
+     * @return the aggregate of shapes returned by {@link #search(BoundingBox, double, double)}.
+     */
+    public Aggregate aggregate(BoundingBox bb, double min, double max) {
+        Accumulator accumulator = new Accumulator();
+        aggregate(rootNode, bb, min, max, accumulator);
+        return accumulator.toAggregate();
+    }
+
+    private void aggregate(Node node, BoundingBox bb, double min, double max, Accumulator accumulator) {
+        for (Entry entry : node.entries) {
+            if (bb != null && !entry.getBoundingBox().overlaps(bb)) {
+                continue;
+            }
+
+            if (node.isLeaf()) {
+                Shape shape = ((LeafEntry) entry).shape;
+                double value = attribute.applyAsDouble(shape);
+                if (value >= min && value <= max && (bb == null || shape.overlaps(bb))) {
+                    accumulator.add(value);
+                }
+            } else {
+                AggregateBranchEntry be = (AggregateBranchEntry) entry;
+                if (be.max < min || be.min > max) {
+                    continue;
+                }
+
+                if (be.min >= min && be.max <= max && (bb == null || bb.contains(be.getBoundingBox()))) {
+                    accumulator.add(be);
+                } else {
+                    aggregate(be.child, bb, min, max, accumulator);
+                }
+            }
+        }
+    }
+
+    /**
+     * Search for shapes that overlaps specified bounding box, and whose attribute values are within
+     * specified range. Subtrees are skipped if their values are out of the range.
+     * @param bb a bounding box to be tested.
+     * @param min the minimum attribute value, inclusive.
+     * @param max the maximum attribute value, inclusive.
+     * @return a list of shapes.
+     */
+    public List<Shape> search(BoundingBox bb, double min, double max) {
+        List<Shape> result = new ArrayList<Shape>();
+        search(rootNode, bb, min, max, result);
+        return result;
+    }
+
+    private void search(Node node, BoundingBox bb, double min, double max, List<Shape> result) {
+        for (Entry entry : node.entries) {
+            if (!entry.getBoundingBox().overlaps(bb)) {
+                continue;
+            }
+
+            if (node.isLeaf()) {
+                Shape shape = ((LeafEntry) entry).shape;
+                double value = attribute.applyAsDouble(shape);
+                if (value >= min && value <= max && shape.overlaps(bb)) {
+                    result.add(shape);
+                }
+            } else {
+                AggregateBranchEntry be = (AggregateBranchEntry) entry;
+                if (be.max >= min && be.min <= max) {
+                    search(be.child, bb, min, max, result);
+                }
+            }
+        }
+    }
+}
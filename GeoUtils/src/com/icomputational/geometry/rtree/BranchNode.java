@@ -1,13 +1,12 @@
 package com.icomputational.geometry.rtree;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 import com.icomputational.geometry.BoundingBox;
 import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polygon;
 import com.icomputational.geometry.Shape;
 
 class BranchNode extends Node {
@@ -56,21 +55,41 @@ class BranchNode extends Node {
     }
 
     @Override
-    public void search(Point point, List<Shape> result) {
+    public void search(Point point, double tolerance, List<Shape> result) {
         for (Entry entry : entries) {
             if (entry.getBoundingBox().contains(point)) {
                 Node child = ((BranchEntry) entry).child;
-                child.search(point, result);
+                child.search(point, tolerance, result);
             }
         }
     }
 
     @Override
-    public void search(BoundingBox bb, List<Shape> result) {
+    public void search(BoundingBox bb, double tolerance, List<Shape> result) {
         for (Entry entry : entries) {
             if (entry.getBoundingBox().overlaps(bb)) {
                 Node child = ((BranchEntry) entry).child;
-                child.search(bb, result);
+                child.search(bb, tolerance, result);
+            }
+        }
+    }
+
+    @Override
+    public void search(Polygon polygon, List<Shape> result) {
+        for (Entry entry : entries) {
+            if (polygon.overlaps(entry.getBoundingBox())) {
+                Node child = ((BranchEntry) entry).child;
+                child.search(polygon, result);
+            }
+        }
+    }
+
+    @Override
+    public void search(Point p1, Point p2, List<Shape> result) {
+        for (Entry entry : entries) {
+            if (intersects(entry.getBoundingBox(), p1, p2)) {
+                Node child = ((BranchEntry) entry).child;
+                child.search(p1, p2, result);
             }
         }
     }
@@ -158,35 +177,83 @@ class BranchNode extends Node {
     }
 
     /**
-     * Sort entries by area enlargement for specified bounding box.
+     * Choose the entry needs least area enlargement for specified bounding box, resolve ties by choosing the
+     * entry with the smallest area, and then the first one.
      */
-    public List<BranchEntry> sortByAreaEnlargement(BoundingBox bb) {
-        List<BranchEntry.Enlargement> list = new ArrayList<BranchEntry.Enlargement>(entries.size());
+    public BranchEntry chooseByAreaEnlargement(BoundingBox bb) {
+        BranchEntry result = null;
+        double minDelta = 0;
         for (Entry entry : entries) {
-            list.add(((BranchEntry) entry).getEnlargement(bb));
+            BranchEntry be = (BranchEntry) entry;
+            double delta = be.getAreaEnlargement(bb);
+            if (result == null || delta < minDelta || (delta == minDelta && be.area() < result.area())) {
+                result = be;
+                minDelta = delta;
+            }
         }
-
-        Collections.sort(list, BranchEntry.ENLARGEMENT_COMPARATOR);
-        return BranchEntry.toEntries(list);
+        return result;
     }
 
     /**
-     * Sort all entries by overlap enlargement, used by R*-tree
+     * Choose the entry needs least overlap enlargement for specified bounding box, used by R*-tree. The overlap
+     * enlargement is computed only for the entries need least area enlargement, ties are resolved by choosing the
+     * entry needs least area enlargement, then the entry with the smallest area, and then the first one.
      */
-    public List<BranchEntry> sortByOverlapEnlargement(BoundingBox bb) {
-        List<BranchEntry.Enlargement> list = new ArrayList<BranchEntry.Enlargement>(entries.size());
-        for (Entry entry : entries) {
-            list.add(((BranchEntry) entry).getEnlargement(bb));
-        }
-        Collections.sort(list, BranchEntry.ENLARGEMENT_COMPARATOR);
-        for (int i = list.size() - 1; i >= OVERLAP_COST_ENTRIES; i--) {
-            list.remove(i);
+    public BranchEntry chooseByOverlapEnlargement(BoundingBox bb) {
+        int n = entries.size();
+        // indices of candidates in order of area enlargement and then area
+        int[] candidates = new int[Math.min(n, OVERLAP_COST_ENTRIES)];
+        double[] deltaAreas = new double[candidates.length];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            BranchEntry be = (BranchEntry) entries.get(i);
+            double delta = be.getAreaEnlargement(bb);
+            int j = count;
+            while (j > 0 && (delta < deltaAreas[j - 1]
+                || (delta == deltaAreas[j - 1] && be.area() < ((BranchEntry) entries.get(candidates[j - 1])).area()))) {
+                j--;
+            }
+            if (j == candidates.length) {
+                continue;
+            }
+
+            int moved = Math.min(count, candidates.length - 1) - j;
+            System.arraycopy(candidates, j, candidates, j + 1, moved);
+            System.arraycopy(deltaAreas, j, deltaAreas, j + 1, moved);
+            candidates[j] = i;
+            deltaAreas[j] = delta;
+            count = Math.min(count + 1, candidates.length);
         }
 
-        for (BranchEntry.Enlargement ae : list) {
-            ae.computeOverlapDelta(entries);
+        int result = -1;
+        double minDelta = 0;
+        for (int c = 0; c < count; c++) {
+            int i = candidates[c];
+            BoundingBox original = entries.get(i).getBoundingBox();
+            double minX = Math.min(original.minX(), bb.minX());
+            double minY = Math.min(original.minY(), bb.minY());
+            double maxX = Math.max(original.maxX(), bb.maxX());
+            double maxY = Math.max(original.maxY(), bb.maxY());
+            double delta = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) {
+                    continue;
+                }
+
+                BoundingBox other = entries.get(j).getBoundingBox();
+                double overlap = BoundingBox.overlapArea(minX, minY, maxX, maxY, other.minX(), other.minY(),
+                    other.maxX(), other.maxY());
+                if (overlap != 0) {
+                    delta += overlap - BoundingBox.overlapArea(original.minX(), original.minY(), original.maxX(),
+                        original.maxY(), other.minX(), other.minY(), other.maxX(), other.maxY());
+                }
+            }
+            // candidates are in order of area enlargement, the first one wins ties
+            if (result == -1 || delta < minDelta) {
+                result = i;
+                minDelta = delta;
+            }
         }
-        Collections.sort(list, BranchEntry.ENLARGEMENT_COMPARATOR);
-        return BranchEntry.toEntries(list);
+        return (BranchEntry) entries.get(result);
     }
 }
@@ -0,0 +1,359 @@
+package com.icomputational.geometry.rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.ReadOnlySpatialIndex;
+import com.icomputational.geometry.Shape;
+
+/**
+ * The {@link CompressedRTree} is a {@link PackedRTree} whose bounding boxes are quantized to 16-bit values
+ * relative to the bounding boxes of their parent nodes, as in QR-trees, so an entry costs 12 bytes instead
+ * of 36 bytes.
+ * <p>
+ * Quantized boxes are rounded outward, so a quantized box always covers the original box, and no result is
+ * lost. Quantized boxes are decoded from the decoded boxes of parent nodes from the root down to items, and
+ * false positives of items are filtered by the exact bounding boxes of shapes in the refine step.
+ * <p>
+ * This index is thread-safe and read-only.
+ * @see PackedRTree#compress()
+ * @see <a href="https://doi.org/10.1145/375663.375681">Quantized R-tree</a>
+ */
+public class CompressedRTree implements ReadOnlySpatialIndex {
+    private static final int MAX = 0xFFFF;
+
+    private final int nodeSize;
+    private final Shape[] shapes;
+    // quantized minX, minY, maxX, maxY of entries, relative to their parent nodes
+    private final char[] boxes;
+    private final int[] indices;
+    private final int[] levelBounds;
+    private final int root;
+    // the exact bounding box of the root
+    private final double[] rootBox;
+
+    /**
+     * Construct from a packed tree, which shares indices and shapes with this tree.
+     */
+    CompressedRTree(PackedRTree tree) {
+        this.nodeSize = tree.nodeSize;
+        this.shapes = tree.shapes;
+        this.indices = tree.indices;
+        this.levelBounds = tree.levelBounds;
+        this.root = tree.root();
+        this.boxes = new char[tree.boxes.length];
+        this.rootBox = new double[4];
+        if (root < 0) {
+            return;
+        }
+
+        // decoded boxes of nodes, nodes are stored after their children, so parents are decoded first
+        double[] decoded = new double[tree.boxes.length];
+        System.arraycopy(tree.boxes, 4 * root, decoded, 4 * root, 4);
+        System.arraycopy(tree.boxes, 4 * root, rootBox, 0, 4);
+        for (int node = root; node >= shapes.length; node--) {
+            int first = indices[node];
+            int end = end(first);
+            for (int i = first; i < end; i++) {
+                encode(tree.boxes, decoded, node, i);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return shapes.length;
+    }
+
+    @Override
+    public BoundingBox boundingBox() {
+        if (root < 0) {
+            return null;
+        }
+        return new BoundingBox(rootBox[0], rootBox[1], rootBox[2], rootBox[3]);
+    }
+
+    @Override
+    public List<Shape> search(Point point) {
+        List<Shape> result = new ArrayList<Shape>();
+        if (root < 0) {
+            return result;
+        }
+
+        double x = point.x();
+        double y = point.y();
+        if (rootBox[0] > x || rootBox[1] > y || rootBox[2] < x || rootBox[3] < y) {
+            return result;
+        }
+
+        // first child and decoded box of pending nodes
+        int[] nodes = new int[16];
+        double[] parents = new double[16 * 4];
+        int top = 0;
+        int node = indices[root];
+        double pMinX = rootBox[0];
+        double pMinY = rootBox[1];
+        double pMaxX = rootBox[2];
+        double pMaxY = rootBox[3];
+        while (true) {
+            int end = end(node);
+            for (int i = node; i < end; i++) {
+                double minX = decode(boxes[4 * i], pMinX, pMaxX);
+                double minY = decode(boxes[4 * i + 1], pMinY, pMaxY);
+                double maxX = decode(boxes[4 * i + 2], pMinX, pMaxX);
+                double maxY = decode(boxes[4 * i + 3], pMinY, pMaxY);
+                if (minX > x || minY > y || maxX < x || maxY < y) {
+                    continue;
+                }
+
+                if (i < shapes.length) {
+                    Shape shape = shapes[indices[i]];
+                    if (shape.boundingBox().contains(x, y) && shape.contains(point)) {
+                        result.add(shape);
+                    }
+                } else {
+                    if (top == nodes.length) {
+                        nodes = Arrays.copyOf(nodes, top * 2);
+                        parents = Arrays.copyOf(parents, top * 8);
+                    }
+                    nodes[top] = indices[i];
+                    parents[4 * top] = minX;
+                    parents[4 * top + 1] = minY;
+                    parents[4 * top + 2] = maxX;
+                    parents[4 * top + 3] = maxY;
+                    top++;
+                }
+            }
+
+            if (top == 0) {
+                return result;
+            }
+            top--;
+            node = nodes[top];
+            pMinX = parents[4 * top];
+            pMinY = parents[4 * top + 1];
+            pMaxX = parents[4 * top + 2];
+            pMaxY = parents[4 * top + 3];
+        }
+    }
+
+    @Override
+    public List<Shape> search(BoundingBox bb) {
+        List<Shape> result = new ArrayList<Shape>();
+        if (root < 0) {
+            return result;
+        }
+
+        double qMinX = bb.minX();
+        double qMinY = bb.minY();
+        double qMaxX = bb.maxX();
+        double qMaxY = bb.maxY();
+        if (rootBox[0] >= qMaxX || rootBox[1] >= qMaxY || rootBox[2] <= qMinX || rootBox[3] <= qMinY) {
+            return result;
+        }
+
+        int[] nodes = new int[16];
+        double[] parents = new double[16 * 4];
+        int top = 0;
+        int node = indices[root];
+        double pMinX = rootBox[0];
+        double pMinY = rootBox[1];
+        double pMaxX = rootBox[2];
+        double pMaxY = rootBox[3];
+        while (true) {
+            int end = end(node);
+            for (int i = node; i < end; i++) {
+                double minX = decode(boxes[4 * i], pMinX, pMaxX);
+                double minY = decode(boxes[4 * i + 1], pMinY, pMaxY);
+                double maxX = decode(boxes[4 * i + 2], pMinX, pMaxX);
+                double maxY = decode(boxes[4 * i + 3], pMinY, pMaxY);
+                // the same test as BoundingBox.overlaps
+                if (minX >= qMaxX || minY >= qMaxY || maxX <= qMinX || maxY <= qMinY) {
+                    continue;
+                }
+
+                if (i < shapes.length) {
+                    Shape shape = shapes[indices[i]];
+                    if (shape.boundingBox().overlaps(bb) && shape.overlaps(bb)) {
+                        result.add(shape);
+                    }
+                } else {
+                    if (top == nodes.length) {
+                        nodes = Arrays.copyOf(nodes, top * 2);
+                        parents = Arrays.copyOf(parents, top * 8);
+                    }
+                    nodes[top] = indices[i];
+                    parents[4 * top] = minX;
+                    parents[4 * top + 1] = minY;
+                    parents[4 * top + 2] = maxX;
+                    parents[4 * top + 3] = maxY;
+                    top++;
+                }
+            }
+
+            if (top == 0) {
+                return result;
+            }
+            top--;
+            node = nodes[top];
+            pMinX = parents[4 * top];
+            pMinY = parents[4 * top + 1];
+            pMaxX = parents[4 * top + 2];
+            pMaxY = parents[4 * top + 3];
+        }
+    }
+
+    /**
+     * Search for the nearest shapes of specified point by euclidean distance.
+     * @param point the point to be tested.
+     * @param k the maximum number of shapes to return.
+     * @return a list of shapes, sorted by distance in increasing order.
+     * @see Shape#distance(double, double)
+     */
+    @Override
+    public List<Shape> nearest(Point point, int k) {
+        List<Shape> result = new ArrayList<Shape>();
+        if (k <= 0 || root < 0) {
+            return result;
+        }
+
+        double x = point.x();
+        double y = point.y();
+        // decoded boxes of queued nodes, referred by the index of node in queue
+        double[] nodeBoxes = new double[64 * 4];
+        int[] nodeStarts = new int[64];
+        int nodeCount = 0;
+
+        PackedRTree.FlatQueue queue = new PackedRTree.FlatQueue();
+        int node = indices[root];
+        double pMinX = rootBox[0];
+        double pMinY = rootBox[1];
+        double pMaxX = rootBox[2];
+        double pMaxY = rootBox[3];
+        while (node >= 0) {
+            int end = end(node);
+            for (int i = node; i < end; i++) {
+                double minX = decode(boxes[4 * i], pMinX, pMaxX);
+                double minY = decode(boxes[4 * i + 1], pMinY, pMaxY);
+                double maxX = decode(boxes[4 * i + 2], pMinX, pMaxX);
+                double maxY = decode(boxes[4 * i + 3], pMinY, pMaxY);
+                double distance = distance(x, y, minX, minY, maxX, maxY);
+                if (i < shapes.length) {
+                    queue.push(indices[i], PackedRTree.ITEM, distance);
+                } else {
+                    if (nodeCount == nodeStarts.length) {
+                        nodeStarts = Arrays.copyOf(nodeStarts, nodeCount * 2);
+                        nodeBoxes = Arrays.copyOf(nodeBoxes, nodeCount * 8);
+                    }
+                    nodeStarts[nodeCount] = indices[i];
+                    nodeBoxes[4 * nodeCount] = minX;
+                    nodeBoxes[4 * nodeCount + 1] = minY;
+                    nodeBoxes[4 * nodeCount + 2] = maxX;
+                    nodeBoxes[4 * nodeCount + 3] = maxY;
+                    queue.push(nodeCount++, PackedRTree.NODE, distance);
+                }
+            }
+
+            node = -1;
+            while (node < 0 && queue.size() > 0) {
+                int kind = queue.peekKind();
+                int index = queue.peekIndex();
+                queue.pop();
+
+                if (kind == PackedRTree.NODE) {
+                    node = nodeStarts[index];
+                    pMinX = nodeBoxes[4 * index];
+                    pMinY = nodeBoxes[4 * index + 1];
+                    pMaxX = nodeBoxes[4 * index + 2];
+                    pMaxY = nodeBoxes[4 * index + 3];
+                } else if (kind == PackedRTree.ITEM) {
+                    queue.push(index, PackedRTree.SHAPE, shapes[index].distance(x, y));
+                } else {
+                    result.add(shapes[index]);
+                    if (result.size() >= k) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Quantize the box of an entry relative to the decoded box of its parent, and decode it.
+     */
+    private void encode(double[] exact, double[] decoded, int parent, int i) {
+        double pMinX = decoded[4 * parent];
+        double pMinY = decoded[4 * parent + 1];
+        double pMaxX = decoded[4 * parent + 2];
+        double pMaxY = decoded[4 * parent + 3];
+
+        boxes[4 * i] = lower(exact[4 * i], pMinX, pMaxX);
+        boxes[4 * i + 1] = lower(exact[4 * i + 1], pMinY, pMaxY);
+        boxes[4 * i + 2] = upper(exact[4 * i + 2], pMinX, pMaxX);
+        boxes[4 * i + 3] = upper(exact[4 * i + 3], pMinY, pMaxY);
+
+        decoded[4 * i] = decode(boxes[4 * i], pMinX, pMaxX);
+        decoded[4 * i + 1] = decode(boxes[4 * i + 1], pMinY, pMaxY);
+        decoded[4 * i + 2] = decode(boxes[4 * i + 2], pMinX, pMaxX);
+        decoded[4 * i + 3] = decode(boxes[4 * i + 3], pMinY, pMaxY);
+    }
+
+    /**
+     * Quantize a lower bound, the decoded value is not greater than the original value.
+     */
+    static char lower(double v, double min, double max) {
+        if (!(max > min)) {
+            return 0;
+        }
+        int q = (int) Math.max(0, Math.min(MAX, Math.floor((v - min) / (max - min) * MAX)));
+        while (q > 0 && decode(q, min, max) > v) {
+            q--;
+        }
+        return (char) q;
+    }
+
+    /**
+     * Quantize an upper bound, the decoded value is not less than the original value.
+     */
+    static char upper(double v, double min, double max) {
+        if (!(max > min)) {
+            return MAX;
+        }
+        int q = (int) Math.max(0, Math.min(MAX, Math.ceil((v - min) / (max - min) * MAX)));
+        while (q < MAX && decode(q, min, max) < v) {
+            q++;
+        }
+        return (char) q;
+    }
+
+    /**
+     * Decode a quantized value, the bounds are decoded exactly.
+     */
+    static double decode(int q, double min, double max) {
+        if (q == MAX) {
+            return max;
+        }
+        return min + (max - min) * q / MAX;
+    }
+
+    private static double distance(double x, double y, double minX, double minY, double maxX, double maxY) {
+        double dx = (x < minX) ? minX - x : ((x > maxX) ? x - maxX : 0D);
+        double dy = (y < minY) ? minY - y : ((y > maxY) ? y - maxY : 0D);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Returns the end of entries of a node.
+     */
+    private int end(int node) {
+        int i = 0;
+        while (levelBounds[i] <= node) {
+            i++;
+        }
+        return Math.min(node + nodeSize, levelBounds[i]);
+    }
+}
@@ -0,0 +1,25 @@
+package com.icomputational.geometry.rtree;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Shape;
+
+/**
+ * A {@link DistanceMetric} measures distances from a query target for nearest neighbour search.
+ * @see RTree#nearest(DistanceMetric, int, double)
+ */
+public interface DistanceMetric {
+    /**
+     * Returns the lower bound of distances to any shape inside specified bounding box.
+     * @param bb a bounding box.
+     * @return a distance, 0 if the query target is inside the bounding box.
+     */
+    double distance(BoundingBox bb);
+
+    /**
+     * Returns the distance to specified shape.
+     * The distance should not be less than the distance to bounding box of the shape.
+     * @param shape a shape.
+     * @return a distance.
+     */
+    double distance(Shape shape);
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import com.icomputational.geometry.BoundingBox;
 import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polygon;
 import com.icomputational.geometry.Shape;
 
 class LeafNode extends Node {
@@ -28,11 +29,11 @@ class LeafNode extends Node {
     }
 
     @Override
-    public void search(Point point, List<Shape> result) {
+    public void search(Point point, double tolerance, List<Shape> result) {
         for (Entry entry : entries) {
             if (entry.getBoundingBox().contains(point)) {
                 Shape shape = ((LeafEntry) entry).shape;
-                if (shape.contains(point)) {
+                if (shape.contains(point.x(), point.y(), tolerance)) {
                     result.add(shape);
                 }
             }
@@ -40,9 +41,22 @@ class LeafNode extends Node {
     }
 
     @Override
-    public void search(BoundingBox bb, List<Shape> result) {
+    public void search(BoundingBox bb, double tolerance, List<Shape> result) {
         for (Entry entry : entries) {
             if (entry.getBoundingBox().overlaps(bb)) {
+                Shape shape = ((LeafEntry) entry).shape;
+                if (shape.overlaps(bb, tolerance)) {
+                    result.add(shape);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void search(Polygon polygon, List<Shape> result) {
+        BoundingBox bb = polygon.boundingBox();
+        for (Entry entry : entries) {
+            if (polygon.overlaps(entry.getBoundingBox())) {
                 Shape shape = ((LeafEntry) entry).shape;
                 if (shape.overlaps(bb)) {
                     result.add(shape);
@@ -51,6 +65,15 @@ class LeafNode extends Node {
         }
     }
 
+    @Override
+    public void search(Point p1, Point p2, List<Shape> result) {
+        for (Entry entry : entries) {
+            if (intersects(entry.getBoundingBox(), p1, p2)) {
+                result.add(((LeafEntry) entry).shape);
+            }
+        }
+    }
+
     @Override
     public LeafNode findLeaf(LeafEntry leafEntry) {
         if (entries.indexOf(leafEntry) != -1) {
@@ -7,6 +7,7 @@ import java.util.List;
 
 import com.icomputational.geometry.BoundingBox;
 import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polygon;
 import com.icomputational.geometry.Shape;
 import com.icomputational.geometry.util.BoundingBoxBuilder;
 
@@ -87,9 +88,13 @@ abstract class Node {
      */
     public abstract boolean add(Entry entry);
 
-    public abstract void search(Point point, List<Shape> result);
+    public abstract void search(Point point, double tolerance, List<Shape> result);
 
-    public abstract void search(BoundingBox bb, List<Shape> result);
+    public abstract void search(BoundingBox bb, double tolerance, List<Shape> result);
+
+    public abstract void search(Polygon polygon, List<Shape> result);
+
+    public abstract void search(Point p1, Point p2, List<Shape> result);
 
     /**
      * Find a leaf node contains specified entry.
@@ -118,6 +123,19 @@ abstract class Node {
         return entries.remove(entry);
     }
 
+    /**
+     * Check if a bounding box intersects with specified line segment, or contains the whole segment.
+     */
+    static boolean intersects(BoundingBox bb, Point p1, Point p2) {
+        if (bb.contains(p1)) {
+            return true;
+        } else if (p1.equals(p2)) {
+            return false;
+        }
+        return BoundingBox.segmentIntersects(p1.x(), p1.y(), p2.x(), p2.y(), bb.minX(), bb.minY(), bb.maxX(),
+            bb.maxY());
+    }
+
     /**
      * Get all entries of this node plus the new entry.
      * @return a list of entries.
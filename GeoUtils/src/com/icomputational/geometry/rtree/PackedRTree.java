@@ -0,0 +1,464 @@
+package com.icomputational.geometry.rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.ReadOnlySpatialIndex;
+import com.icomputational.geometry.Shape;
+import com.icomputational.geometry.util.HilbertCurve;
+
+/**
+ * The {@link PackedRTree} is an immutable R-tree packed by Hilbert sort, for datasets which never change
+ * after loading.
+ * <p>
+ * Shapes are sorted by Hilbert values of their centres, and grouped by {@code nodeSize} into nodes, level by
+ * level up to the root. All entries are stored implicitly in one {@code double[]} of bounding boxes and one
+ * {@code int[]} of indices, where the index of an item is its position in the input, and the index of a node
+ * is the position of its first child. No object is allocated per node, so an entry costs about 40 bytes,
+ * and queries are loops over arrays without recursion.
+ * <p>
+ * This index is thread-safe and read-only.
+ * @see RTree#freeze()
+ * @see <a href="https://github.com/mourner/flatbush">flatbush</a>
+ */
+public class PackedRTree implements ReadOnlySpatialIndex {
+    private static final int DEFAULT_NODE_SIZE = 16;
+
+    static final int NODE = 0;
+    static final int ITEM = 1;
+    static final int SHAPE = 2;
+
+    final int nodeSize;
+    final Shape[] shapes;
+    // minX, minY, maxX, maxY of items followed by nodes, level by level
+    final double[] boxes;
+    final int[] indices;
+    // the end position of entries of each level, the last level is the root
+    final int[] levelBounds;
+
+    /**
+     * Construct from shapes with default node size.
+     */
+    public PackedRTree(Collection<? extends Shape> shapes) {
+        this(shapes, DEFAULT_NODE_SIZE);
+    }
+
+    /**
+     * Construct from shapes.
+     * @param shapes the shapes to be indexed.
+     * @param nodeSize the maximum number of entries of a node, should be greater than 1.
+     */
+    public PackedRTree(Collection<? extends Shape> shapes, int nodeSize) {
+        if (nodeSize <= 1) {
+            throw new IllegalArgumentException("node size must greater than 1");
+        }
+        this.nodeSize = nodeSize;
+        this.shapes = shapes.toArray(new Shape[shapes.size()]);
+
+        int n = this.shapes.length;
+        int numNodes = n;
+        List<Integer> bounds = new ArrayList<Integer>();
+        bounds.add(n);
+        if (n > 0) {
+            // there is always a root node, even for a single item
+            do {
+                n = (n + nodeSize - 1) / nodeSize;
+                numNodes += n;
+                bounds.add(numNodes);
+            } while (n > 1);
+        }
+        levelBounds = new int[bounds.size()];
+        for (int i = 0; i < levelBounds.length; i++) {
+            levelBounds[i] = bounds.get(i);
+        }
+
+        boxes = new double[numNodes * 4];
+        indices = new int[numNodes];
+        build();
+    }
+
+    @Override
+    public int size() {
+        return shapes.length;
+    }
+
+    @Override
+    public BoundingBox boundingBox() {
+        int root = root();
+        if (root < 0) {
+            return null;
+        }
+        return new BoundingBox(boxes[4 * root], boxes[4 * root + 1], boxes[4 * root + 2], boxes[4 * root + 3]);
+    }
+
+    /**
+     * Returns the number of levels of this tree, including the level of items.
+     */
+    public int height() {
+        return levelBounds.length;
+    }
+
+    @Override
+    public List<Shape> search(Point point) {
+        List<Shape> result = new ArrayList<Shape>();
+        double x = point.x();
+        double y = point.y();
+        int[] stack = new int[16];
+        int top = 0;
+        int numItems = shapes.length;
+        int node = root();
+        while (node >= 0) {
+            int end = end(node);
+            for (int i = node; i < end; i++) {
+                if (boxes[4 * i] > x || boxes[4 * i + 1] > y || boxes[4 * i + 2] < x || boxes[4 * i + 3] < y) {
+                    continue;
+                }
+
+                if (i < numItems) {
+                    Shape shape = shapes[indices[i]];
+                    if (shape.contains(point)) {
+                        result.add(shape);
+                    }
+                } else {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = indices[i];
+                }
+            }
+            node = (top > 0) ? stack[--top] : -1;
+        }
+        return result;
+    }
+
+    @Override
+    public List<Shape> search(BoundingBox bb) {
+        List<Shape> result = new ArrayList<Shape>();
+        double minX = bb.minX();
+        double minY = bb.minY();
+        double maxX = bb.maxX();
+        double maxY = bb.maxY();
+        int[] stack = new int[16];
+        int top = 0;
+        int numItems = shapes.length;
+        int node = root();
+        while (node >= 0) {
+            int end = end(node);
+            for (int i = node; i < end; i++) {
+                // the same test as BoundingBox.overlaps
+                if (boxes[4 * i] >= maxX || boxes[4 * i + 1] >= maxY || boxes[4 * i + 2] <= minX
+                    || boxes[4 * i + 3] <= minY) {
+                    continue;
+                }
+
+                if (i < numItems) {
+                    Shape shape = shapes[indices[i]];
+                    if (shape.overlaps(bb)) {
+                        result.add(shape);
+                    }
+                } else {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = indices[i];
+                }
+            }
+            node = (top > 0) ? stack[--top] : -1;
+        }
+        return result;
+    }
+
+    /**
+     * Search for the nearest shapes of specified point by euclidean distance.
+     * @param point the point to be tested.
+     * @param k the maximum number of shapes to return.
+     * @return a list of shapes, sorted by distance in increasing order.
+     * @see Shape#distance(double, double)
+     */
+    @Override
+    public List<Shape> nearest(Point point, int k) {
+        return nearest(point, k, Double.MAX_VALUE);
+    }
+
+    /**
+     * Search for the nearest shapes of specified point within a distance.
+     * Entries are visited in the order of distances of their bounding boxes, a shape is measured only if
+     * the distance to its bounding box is less than distances of all pending candidates.
+     * @param point the point to be tested.
+     * @param k the maximum number of shapes to return.
+     * @param maxDistance the maximum distance of shapes to return.
+     * @return a list of shapes, sorted by distance in increasing order.
+     */
+    public List<Shape> nearest(Point point, int k, double maxDistance) {
+        List<Shape> result = new ArrayList<Shape>();
+        if (k <= 0 || shapes.length == 0) {
+            return result;
+        }
+
+        double x = point.x();
+        double y = point.y();
+        int numItems = shapes.length;
+        FlatQueue queue = new FlatQueue();
+        int node = root();
+        while (node >= 0) {
+            int end = end(node);
+            for (int i = node; i < end; i++) {
+                double distance = boxDistance(i, x, y);
+                if (distance <= maxDistance) {
+                    queue.push(indices[i], (i < numItems) ? ITEM : NODE, distance);
+                }
+            }
+
+            node = -1;
+            while (node < 0 && queue.size() > 0) {
+                int kind = queue.peekKind();
+                int index = queue.peekIndex();
+                if (queue.pop() > maxDistance) {
+                    return result;
+                }
+
+                if (kind == NODE) {
+                    node = index;
+                } else if (kind == ITEM) {
+                    double distance = shapes[index].distance(x, y);
+                    if (distance <= maxDistance) {
+                        queue.push(index, SHAPE, distance);
+                    }
+                } else {
+                    result.add(shapes[index]);
+                    if (result.size() >= k) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create a compressed copy of this tree, which stores bounding boxes of entries in 16-bit values.
+     * @see CompressedRTree
+     */
+    public CompressedRTree compress() {
+        return new CompressedRTree(this);
+    }
+
+    /**
+     * Returns the first entry of the root node, -1 if this tree is empty.
+     */
+    int root() {
+        return (shapes.length == 0) ? -1 : levelBounds[levelBounds.length - 2];
+    }
+
+    /**
+     * Returns the end of entries of a node.
+     */
+    int end(int node) {
+        return Math.min(node + nodeSize, upperBound(node));
+    }
+
+    /**
+     * Returns the end of the level which contains specified entry.
+     */
+    private int upperBound(int entry) {
+        int i = 0;
+        while (levelBounds[i] <= entry) {
+            i++;
+        }
+        return levelBounds[i];
+    }
+
+    private double boxDistance(int i, double x, double y) {
+        double dx = (x < boxes[4 * i]) ? boxes[4 * i] - x : ((x > boxes[4 * i + 2]) ? x - boxes[4 * i + 2] : 0D);
+        double dy = (y < boxes[4 * i + 1]) ? boxes[4 * i + 1] - y
+            : ((y > boxes[4 * i + 3]) ? y - boxes[4 * i + 3] : 0D);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Sort items by Hilbert values, and build nodes level by level.
+     */
+    private void build() {
+        int numItems = shapes.length;
+        if (numItems == 0) {
+            return;
+        }
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numItems; i++) {
+            BoundingBox bb = shapes[i].boundingBox();
+            boxes[4 * i] = bb.minX();
+            boxes[4 * i + 1] = bb.minY();
+            boxes[4 * i + 2] = bb.maxX();
+            boxes[4 * i + 3] = bb.maxY();
+            indices[i] = i;
+            minX = Math.min(minX, bb.minX());
+            minY = Math.min(minY, bb.minY());
+            maxX = Math.max(maxX, bb.maxX());
+            maxY = Math.max(maxY, bb.maxY());
+        }
+
+        if (numItems > nodeSize) {
+            long[] values = new long[numItems];
+            for (int i = 0; i < numItems; i++) {
+                double x = (boxes[4 * i] + boxes[4 * i + 2]) / 2;
+                double y = (boxes[4 * i + 1] + boxes[4 * i + 3]) / 2;
+                values[i] = HilbertCurve.index(x, y, minX, minY, maxX, maxY);
+            }
+            sort(values, 0, numItems - 1);
+        }
+
+        int pos = numItems;
+        for (int level = 0; level < levelBounds.length - 1; level++) {
+            int end = levelBounds[level];
+            int i = (level == 0) ? 0 : levelBounds[level - 1];
+            while (i < end) {
+                int first = i;
+                double nodeMinX = boxes[4 * i];
+                double nodeMinY = boxes[4 * i + 1];
+                double nodeMaxX = boxes[4 * i + 2];
+                double nodeMaxY = boxes[4 * i + 3];
+                for (i++; i < end && i < first + nodeSize; i++) {
+                    nodeMinX = Math.min(nodeMinX, boxes[4 * i]);
+                    nodeMinY = Math.min(nodeMinY, boxes[4 * i + 1]);
+                    nodeMaxX = Math.max(nodeMaxX, boxes[4 * i + 2]);
+                    nodeMaxY = Math.max(nodeMaxY, boxes[4 * i + 3]);
+                }
+
+                indices[pos] = first;
+                boxes[4 * pos] = nodeMinX;
+                boxes[4 * pos + 1] = nodeMinY;
+                boxes[4 * pos + 2] = nodeMaxX;
+                boxes[4 * pos + 3] = nodeMaxY;
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * Sort items by Hilbert values, items in the same node are not sorted.
+     */
+    private void sort(long[] values, int left, int right) {
+        while (left / nodeSize < right / nodeSize) {
+            long pivot = values[(left + right) >>> 1];
+            int i = left - 1;
+            int j = right + 1;
+            while (true) {
+                do {
+                    i++;
+                } while (values[i] < pivot);
+                do {
+                    j--;
+                } while (values[j] > pivot);
+                if (i >= j) {
+                    break;
+                }
+                swap(values, i, j);
+            }
+
+            // recurse into the smaller part to bound the depth of stack
+            if (j - left < right - j) {
+                sort(values, left, j);
+                left = j + 1;
+            } else {
+                sort(values, j + 1, right);
+                right = j;
+            }
+        }
+    }
+
+    private void swap(long[] values, int i, int j) {
+        long v = values[i];
+        values[i] = values[j];
+        values[j] = v;
+
+        int index = indices[i];
+        indices[i] = indices[j];
+        indices[j] = index;
+
+        for (int k = 0; k < 4; k++) {
+            double d = boxes[4 * i + k];
+            boxes[4 * i + k] = boxes[4 * j + k];
+            boxes[4 * j + k] = d;
+        }
+    }
+
+    /**
+     * A {@link FlatQueue} is a binary min-heap of entries keyed by distance, stored in primitive arrays.
+     */
+    static class FlatQueue {
+        private long[] ids = new long[64];
+        private double[] values = new double[64];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void push(int index, int kind, double value) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            long id = ((long) index << 2) | kind;
+            int pos = size++;
+            while (pos > 0) {
+                int parent = (pos - 1) >> 1;
+                if (values[parent] <= value) {
+                    break;
+                }
+                ids[pos] = ids[parent];
+                values[pos] = values[parent];
+                pos = parent;
+            }
+            ids[pos] = id;
+            values[pos] = value;
+        }
+
+        int peekIndex() {
+            return (int) (ids[0] >>> 2);
+        }
+
+        int peekKind() {
+            return (int) (ids[0] & 3);
+        }
+
+        /**
+         * Remove the top entry.
+         * @return the value of the removed entry.
+         */
+        double pop() {
+            double top = values[0];
+            size--;
+            if (size > 0) {
+                long id = ids[size];
+                double value = values[size];
+                int pos = 0;
+                int half = size >> 1;
+                while (pos < half) {
+                    int child = 2 * pos + 1;
+                    if (child + 1 < size && values[child + 1] < values[child]) {
+                        child++;
+                    }
+                    if (values[child] >= value) {
+                        break;
+                    }
+                    ids[pos] = ids[child];
+                    values[pos] = values[child];
+                    pos = child;
+                }
+                ids[pos] = id;
+                values[pos] = value;
+            }
+            return top;
+        }
+    }
+}
@@ -1,19 +1,66 @@
 package com.icomputational.geometry.rtree;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
 
 import com.icomputational.geometry.BoundingBox;
 import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polygon;
 import com.icomputational.geometry.Shape;
+import com.icomputational.geometry.SpatialIndex;
 import com.icomputational.geometry.util.BoundingBoxBuilder;
 
 /**
  * The {@link RTree} is an implementation of R-tree.
  * @see <a href="http://www-db.deis.unibo.it/courses/SI-LS/papers/Gut84.pdf">R-Tree</a>
  */
-public class RTree {
+public class RTree implements SpatialIndex {
+    /**
+     * A candidate of nearest neighbour search, which could be a node, a leaf entry or a shape.
+     */
+    static class Candidate implements Comparable<Candidate> {
+        final Object item;
+        final double distance;
+
+        Candidate(Object item, double distance) {
+            this.item = item;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate o) {
+            return Double.compare(distance, o.distance);
+        }
+    }
+
+    /**
+     * A {@link DistanceMetric} of euclidean distance to a point.
+     */
+    static class PointDistance implements DistanceMetric {
+        private final double x;
+        private final double y;
+
+        PointDistance(Point point) {
+            this.x = point.x();
+            this.y = point.y();
+        }
+
+        @Override
+        public double distance(BoundingBox bb) {
+            return bb.distance(x, y);
+        }
+
+        @Override
+        public double distance(Shape shape) {
+            return shape.distance(x, y);
+        }
+    }
+
     protected Node rootNode;
     protected final int maxEntries;
     protected final int minEntries;
@@ -58,6 +105,7 @@ public class RTree {
      * Insert a shape to this tree.
      * @param shape a shape instance.
      */
+    @Override
     public void insert(Shape shape) {
         LeafEntry entry = new LeafEntry(shape);
         insert(entry, 0);
@@ -89,8 +137,8 @@ public class RTree {
             return node;
         }
 
-        List<BranchEntry> entries = ((BranchNode) node).sortByAreaEnlargement(bb);
-        return chooseSubTree(entries.get(0).child, bb, level);
+        BranchEntry entry = ((BranchNode) node).chooseByAreaEnlargement(bb);
+        return chooseSubTree(entry.child, bb, level);
     }
 
     /**
@@ -98,6 +146,7 @@ public class RTree {
      * @param shape the shape to be deleted.
      * @return true if the shape has been deleted successfully.
      */
+    @Override
     public boolean delete(Shape shape) {
         LeafEntry entry = new LeafEntry(shape);
         LeafNode leaf = rootNode.findLeaf(entry);
@@ -116,6 +165,114 @@ public class RTree {
         return true;
     }
 
+    /**
+     * Delete all shapes that overlaps specified bounding box.
+     * @param bb a bounding box to be tested.
+     * @return the number of deleted shapes.
+     * @see #deleteIf(BoundingBox, Predicate)
+     */
+    public int deleteAll(BoundingBox bb) {
+        return deleteIf(bb, null);
+    }
+
+    /**
+     * Delete shapes that overlaps specified bounding box and match specified predicate.
+     * Matching shapes are removed in one traversal, the underfull nodes found on the way are eliminated,
+     * then their entries are re-inserted in one pass at the end, from the highest level to the lowest.
+     * @param bb a bounding box to be tested.
+     * @param predicate a predicate of shapes to be deleted, null to delete all shapes overlaps the bounding box.
+     * @return the number of deleted shapes.
+     */
+    public int deleteIf(BoundingBox bb, Predicate<? super Shape> predicate) {
+        List<Node> eliminated = new ArrayList<Node>();
+        int deleted = delete(rootNode, bb, predicate, eliminated);
+        if (deleted == 0) {
+            return 0;
+        }
+
+        if (rootNode.entries.isEmpty()) {
+            rootNode = createLeafNode();
+        }
+        shortenTree();
+
+        // re-insert subtrees first, so that lower entries are inserted to a tree with final height
+        Collections.sort(eliminated, new Comparator<Node>() {
+            @Override
+            public int compare(Node n0, Node n1) {
+                return n1.level() - n0.level();
+            }
+        });
+        for (Node node : eliminated) {
+            for (Entry entry : node.entries) {
+                reinsert(entry, node.level());
+            }
+        }
+        shortenTree();
+        return deleted;
+    }
+
+    /**
+     * Remove matching shapes from a subtree, and eliminate its underfull children.
+     * @return the number of deleted shapes.
+     */
+    private int delete(Node node, BoundingBox bb, Predicate<? super Shape> predicate, List<Node> eliminated) {
+        int deleted = 0;
+        Iterator<Entry> itr = node.entries.iterator();
+        while (itr.hasNext()) {
+            Entry entry = itr.next();
+            if (!entry.getBoundingBox().overlaps(bb)) {
+                continue;
+            }
+
+            if (node.isLeaf()) {
+                Shape shape = ((LeafEntry) entry).shape;
+                if (shape.overlaps(bb) && (predicate == null || predicate.test(shape))) {
+                    itr.remove();
+                    deleted++;
+                }
+            } else {
+                BranchEntry be = (BranchEntry) entry;
+                int n = delete(be.child, bb, predicate, eliminated);
+                if (n > 0) {
+                    deleted += n;
+                    if (be.child.entries.size() < minEntries) {
+                        itr.remove();
+                        if (!be.child.entries.isEmpty()) {
+                            eliminated.add(be.child);
+                        }
+                    } else {
+                        be.adjust();
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Re-insert an entry of an eliminated node to specified level. An entry of a subtree which is too tall
+     * for the current tree is broken into entries of its child node.
+     */
+    private void reinsert(Entry entry, int level) {
+        if (level > rootNode.level()) {
+            for (Entry e : ((BranchEntry) entry).child.entries) {
+                reinsert(e, level - 1);
+            }
+        } else {
+            insert(entry, level);
+        }
+    }
+
+    /**
+     * Remove root nodes which have only one child.
+     */
+    private void shortenTree() {
+        while (rootNode.entries.size() < 2 && rootNode instanceof BranchNode) {
+            rootNode = ((BranchNode) rootNode).getFirstChild();
+            rootNode.setParent(null);
+        }
+    }
+
     /**
      * Calculate height of this tree.
      */
@@ -127,10 +284,43 @@ public class RTree {
      * Calculate total size of this tree.
      * @return total number of leaves
      */
+    @Override
     public int size() {
         return rootNode.size();
     }
 
+    /**
+     * Get a bounding box that covers all shapes of this tree.
+     * @return a bounding box, null if this tree is empty.
+     */
+    @Override
+    public BoundingBox boundingBox() {
+        return rootNode.getBoundingBox();
+    }
+
+    /**
+     * Create an immutable packed copy of this tree, which is smaller and faster for queries.
+     * @return a packed tree of all shapes of this tree, whose node size is the maximum entries of this tree.
+     */
+    public PackedRTree freeze() {
+        List<Shape> shapes = new ArrayList<Shape>(size());
+        collect(rootNode, shapes);
+        return new PackedRTree(shapes, maxEntries);
+    }
+
+    /**
+     * Collect all shapes of a subtree.
+     */
+    static void collect(Node node, List<Shape> result) {
+        for (Entry entry : node.entries) {
+            if (node.isLeaf()) {
+                result.add(((LeafEntry) entry).shape);
+            } else {
+                collect(((BranchEntry) entry).child, result);
+            }
+        }
+    }
+
     protected void condenseTree(Node node) {
         List<Node> eliminated = new ArrayList<Node>();
         BranchNode parent = node.getParent();
@@ -139,6 +329,9 @@ public class RTree {
                 boolean removed = parent.eliminate(node);
                 assert (removed);
                 eliminated.add(node);
+            } else {
+                // shrink the bounding box of the remaining node
+                parent.adjustEntry(node);
             }
 
             node = parent;
@@ -158,9 +351,22 @@ public class RTree {
      * @param point a point to be tested
      * @return a list of shapes contains specified point.
      */
+    @Override
     public List<Shape> search(Point point) {
+        return search(point, 0);
+    }
+
+    /**
+     * Search for shapes that contains specified point, shapes may be tested by their simplified versions.
+     * @param point a point to be tested
+     * @param tolerance the tolerance of boundaries of shapes, for coarse queries.
+     * @return a list of shapes contains specified point, the answer may be wrong for shapes whose boundaries
+     *         are within the tolerance of the point.
+     * @see Shape#contains(double, double, double)
+     */
+    public List<Shape> search(Point point, double tolerance) {
         List<Shape> result = new ArrayList<Shape>();
-        rootNode.search(point, result);
+        rootNode.search(point, tolerance, result);
         return result;
     }
 
@@ -169,9 +375,112 @@ public class RTree {
      * @param bb a bounding box to be tested.
      * @return a list of shapes overlaps specified bounding box.
      */
+    @Override
     public List<Shape> search(BoundingBox bb) {
+        return search(bb, 0);
+    }
+
+    /**
+     * Search for shapes that overlaps specified bounding box, shapes may be tested by their simplified
+     * versions.
+     * @param bb a bounding box to be tested.
+     * @param tolerance the tolerance of boundaries of shapes, for coarse queries.
+     * @return a list of shapes overlaps specified bounding box, the answer may be wrong for shapes whose
+     *         boundaries are within the tolerance of the bounding box.
+     * @see Shape#overlaps(BoundingBox, double)
+     */
+    public List<Shape> search(BoundingBox bb, double tolerance) {
+        List<Shape> result = new ArrayList<Shape>();
+        rootNode.search(bb, tolerance, result);
+        return result;
+    }
+
+    /**
+     * Search for shapes that overlaps specified polygon.
+     * A branch is pruned if its bounding box is outside of the polygon, or inside one of its holes.
+     * A shape is returned if its bounding box overlaps the polygon and the shape overlaps the
+     * bounding box of the polygon, so callers may need an exact test for shapes not aligned to their
+     * bounding boxes.
+     * @param polygon a polygon to be tested.
+     * @return a list of shapes overlaps specified polygon.
+     */
+    public List<Shape> search(Polygon polygon) {
+        List<Shape> result = new ArrayList<Shape>();
+        rootNode.search(polygon, result);
+        return result;
+    }
+
+    /**
+     * Search for shapes that intersects specified line segment.
+     * A shape is returned if its bounding box intersects the segment, so callers may need an exact
+     * test for shapes not aligned to their bounding boxes.
+     * @param p1 an end of line segment.
+     * @param p2 another end of line segment.
+     * @return a list of shapes whose bounding boxes intersect the line segment.
+     */
+    public List<Shape> search(Point p1, Point p2) {
         List<Shape> result = new ArrayList<Shape>();
-        rootNode.search(bb, result);
+        rootNode.search(p1, p2, result);
+        return result;
+    }
+
+    /**
+     * Search for the nearest shapes of specified point by euclidean distance.
+     * @param point the point to be tested.
+     * @param k the maximum number of shapes to return.
+     * @return a list of shapes, sorted by distance in increasing order.
+     * @see Shape#distance(double, double)
+     */
+    @Override
+    public List<Shape> nearest(Point point, int k) {
+        return nearest(new PointDistance(point), k, Double.MAX_VALUE);
+    }
+
+    /**
+     * Search for nearest shapes with specified distance metric.
+     * Nodes are visited in the order of their distances to the query target, a shape is measured only
+     * if the lower bound distance to its bounding box is less than distances of all pending candidates.
+     * @param metric the distance metric.
+     * @param k the maximum number of shapes to return.
+     * @param maxDistance the maximum distance of shapes to return.
+     * @return a list of shapes, sorted by distance in increasing order.
+     */
+    public List<Shape> nearest(DistanceMetric metric, int k, double maxDistance) {
+        List<Shape> result = new ArrayList<Shape>();
+        if (k <= 0 || rootNode.entries.isEmpty()) {
+            return result;
+        }
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<Candidate>();
+        queue.add(new Candidate(rootNode, 0D));
+        while (!queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            if (candidate.distance > maxDistance) {
+                break;
+            }
+
+            if (candidate.item instanceof Shape) {
+                result.add((Shape) candidate.item);
+                if (result.size() >= k) {
+                    break;
+                }
+            } else if (candidate.item instanceof LeafEntry) {
+                Shape shape = ((LeafEntry) candidate.item).shape;
+                double distance = metric.distance(shape);
+                if (distance <= maxDistance) {
+                    queue.add(new Candidate(shape, distance));
+                }
+            } else {
+                Node node = (Node) candidate.item;
+                for (Entry entry : node.entries) {
+                    double distance = metric.distance(entry.getBoundingBox());
+                    if (distance <= maxDistance) {
+                        Object item = node.isLeaf() ? entry : ((BranchEntry) entry).child;
+                        queue.add(new Candidate(item, distance));
+                    }
+                }
+            }
+        }
         return result;
     }
 
@@ -263,9 +572,8 @@ public class RTree {
         Iterator<Entry> itr = entries.iterator();
 
         Entry first = itr.next();
-        Entry lowX = first;
+        // the entries with the highest low side
         Entry highX = first;
-        Entry lowY = first;
         Entry highY = first;
 
         BoundingBoxBuilder builder = new BoundingBoxBuilder(first.getBoundingBox());
@@ -273,20 +581,29 @@ public class RTree {
         while (itr.hasNext()) {
             Entry entry = itr.next();
             BoundingBox bb = entry.getBoundingBox();
-            if (lowX.getBoundingBox().maxX() < bb.maxX()) {
-                lowX = entry;
-            } else if (highX.getBoundingBox().minX() > bb.minX()) {
+            if (highX.getBoundingBox().minX() < bb.minX()) {
                 highX = entry;
             }
-            if (lowY.getBoundingBox().maxY() < bb.maxY()) {
-                lowY = entry;
-            } else if (highY.getBoundingBox().minY() > bb.minY()) {
+            if (highY.getBoundingBox().minY() < bb.minY()) {
                 highY = entry;
             }
 
             builder.add(bb);
         }
 
+        // the entries with the lowest high side, must be different from the entries with the highest low side
+        Entry lowX = null;
+        Entry lowY = null;
+        for (Entry entry : entries) {
+            BoundingBox bb = entry.getBoundingBox();
+            if (entry != highX && (lowX == null || lowX.getBoundingBox().maxX() > bb.maxX())) {
+                lowX = entry;
+            }
+            if (entry != highY && (lowY == null || lowY.getBoundingBox().maxY() > bb.maxY())) {
+                lowY = entry;
+            }
+        }
+
         assert (lowX != highX);
         assert (lowY != highY);
 
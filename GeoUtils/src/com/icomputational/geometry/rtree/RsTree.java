@@ -26,14 +26,14 @@ public class RsTree extends RTree {
             return node;
         }
 
-        List<BranchEntry> entries;
+        BranchEntry entry;
         if (node.level() == 1) {
             // the child pointers in N point to leaves
-            entries = ((BranchNode) node).sortByOverlapEnlargement(bb);
+            entry = ((BranchNode) node).chooseByOverlapEnlargement(bb);
         } else {
-            entries = ((BranchNode) node).sortByAreaEnlargement(bb);
+            entry = ((BranchNode) node).chooseByAreaEnlargement(bb);
         }
-        return chooseSubTree(entries.get(0).child, bb, level);
+        return chooseSubTree(entry.child, bb, level);
     }
 
     @Override
@@ -126,7 +126,8 @@ public class RsTree extends RTree {
             if (addNewEntry) {
             	node.add(entry);
             }
-            parentEntry.adjust();
+            // entries are removed from this subtree, adjust all ancestors before re-insertion
+            adjustTree(node);
 
             for (Entry e : entries) {
                 insert(e, node.level(), false);
@@ -0,0 +1,228 @@
+package com.icomputational.geometry.rtree;
+
+import com.icomputational.geometry.BoundingBox;
+
+/**
+ * A {@link SelectivityEstimator} estimates the number of shapes returned by {@link RTree#search(BoundingBox)}
+ * and the number of nodes visited by the search, from a summary of the upper levels of a tree.
+ * <p>
+ * The nodes at a cut level of the tree become cells of a spatial histogram. For each cell, the number and
+ * the average extent of its shapes and of its nodes at every lower level are recorded. A query box is
+ * compared with the cells only, assuming the centres of shapes and nodes are uniformly distributed within
+ * their cell, so an estimation never touches the leaves.
+ * <p>
+ * The estimator is a snapshot of the tree when it is created, it should be created again after significant
+ * updates of the tree.
+ */
+public class SelectivityEstimator {
+    // number of statistics for each level: count, average width and average height
+    private static final int STATS = 3;
+
+    private final int cutLevel;
+    // bounding boxes of nodes above the cut level, as minX, minY, maxX, maxY
+    private final double[] upperBoxes;
+    private final int upperCount;
+    // bounding boxes of cells
+    private final double[] cellBoxes;
+    private final int cellCount;
+    // statistics of each cell, shapes first and then nodes from level 0 to cutLevel - 1
+    private final double[] cellStats;
+
+    /**
+     * Construct an estimator for a tree.
+     * @param tree an R-tree
+     * @param depth number of levels below the root to be summarised by cells, larger depth gives more cells
+     *        and more accurate estimations.
+     */
+    public SelectivityEstimator(RTree tree, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("depth " + depth + " should not be negative");
+        }
+
+        Node root = tree.rootNode;
+        cutLevel = Math.max(0, root.level() - depth);
+        upperCount = root.entries.isEmpty() ? 0 : countNodes(root);
+        upperBoxes = new double[upperCount * 4];
+        cellCount = root.entries.isEmpty() ? 0 : countCells(root);
+        cellBoxes = new double[cellCount * 4];
+        cellStats = new double[cellCount * (cutLevel + 1) * STATS];
+        if (!root.entries.isEmpty()) {
+            summariseNodes(root, 0);
+            summariseCells(root, 0);
+        }
+    }
+
+    /**
+     * Count nodes whose level is not less than the cut level.
+     */
+    private int countNodes(Node node) {
+        int count = 1;
+        if (node.level() > cutLevel) {
+            for (Entry entry : node.entries) {
+                count += countNodes(((BranchEntry) entry).child);
+            }
+        }
+        return count;
+    }
+
+    private int countCells(Node node) {
+        if (node.level() == cutLevel) {
+            return 1;
+        }
+
+        int count = 0;
+        for (Entry entry : node.entries) {
+            count += countCells(((BranchEntry) entry).child);
+        }
+        return count;
+    }
+
+    /**
+     * Record bounding boxes of a subtree down to the cut level, in depth-first order.
+     * @param index the index of the first box to be recorded.
+     * @return the index after the last recorded box.
+     */
+    private int summariseNodes(Node node, int index) {
+        put(upperBoxes, index++, node.getBoundingBox());
+        if (node.level() > cutLevel) {
+            for (Entry entry : node.entries) {
+                index = summariseNodes(((BranchEntry) entry).child, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Record cells of a subtree, in depth-first order.
+     * @param cell the index of the first cell to be recorded.
+     * @return the index after the last recorded cell.
+     */
+    private int summariseCells(Node node, int cell) {
+        if (node.level() > cutLevel) {
+            for (Entry entry : node.entries) {
+                cell = summariseCells(((BranchEntry) entry).child, cell);
+            }
+            return cell;
+        }
+
+        put(cellBoxes, cell, node.getBoundingBox());
+        int offset = cell * (cutLevel + 1) * STATS;
+        collect(node, offset);
+        for (int i = 0; i <= cutLevel; i++) {
+            int index = offset + i * STATS;
+            double count = cellStats[index];
+            if (count > 0) {
+                cellStats[index + 1] /= count;
+                cellStats[index + 2] /= count;
+            }
+        }
+        return cell + 1;
+    }
+
+    /**
+     * Accumulate count, width and height of shapes and nodes below the cut level.
+     */
+    private void collect(Node node, int offset) {
+        for (Entry entry : node.entries) {
+            int level = node.isLeaf() ? 0 : ((BranchEntry) entry).child.level() + 1;
+            BoundingBox bb = entry.getBoundingBox();
+            int index = offset + level * STATS;
+            cellStats[index]++;
+            cellStats[index + 1] += bb.width();
+            cellStats[index + 2] += bb.height();
+            if (!node.isLeaf()) {
+                collect(((BranchEntry) entry).child, offset);
+            }
+        }
+    }
+
+    private static void put(double[] boxes, int index, BoundingBox bb) {
+        boxes[index * 4] = bb.minX();
+        boxes[index * 4 + 1] = bb.minY();
+        boxes[index * 4 + 2] = bb.maxX();
+        boxes[index * 4 + 3] = bb.maxY();
+    }
+
+    /**
+     * Estimate the number of shapes overlaps specified bounding box.
+     * @param bb a query box.
+     * @return estimated number of shapes returned by {@link RTree#search(BoundingBox)}.
+     */
+    public double estimateCount(BoundingBox bb) {
+        return estimate(bb, 0, 1);
+    }
+
+    /**
+     * Estimate the number of nodes visited by a search of specified bounding box, including the root.
+     * @param bb a query box.
+     * @return estimated number of visited nodes.
+     */
+    public double estimateVisits(BoundingBox bb) {
+        double visits = Math.min(upperCount, 1);
+        // the root is always visited, other nodes are visited when their bounding boxes overlap the query
+        for (int i = 1; i < upperCount; i++) {
+            if (overlaps(upperBoxes, i, bb)) {
+                visits++;
+            }
+        }
+        return visits + estimate(bb, 1, cutLevel + 1);
+    }
+
+    /**
+     * Sum up the estimated number of items of specified levels overlapping the query box, where level 0 is
+     * shapes and level i is nodes of level i - 1.
+     */
+    private double estimate(BoundingBox bb, int fromLevel, int toLevel) {
+        double total = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (!overlaps(cellBoxes, cell, bb)) {
+                continue;
+            }
+
+            int base = cell * 4;
+            int offset = cell * (cutLevel + 1) * STATS;
+            for (int level = fromLevel; level < toLevel; level++) {
+                int index = offset + level * STATS;
+                double count = cellStats[index];
+                if (count == 0) {
+                    continue;
+                }
+
+                double halfWidth = cellStats[index + 1] / 2;
+                double halfHeight = cellStats[index + 2] / 2;
+                double px = fraction(cellBoxes[base] + halfWidth, cellBoxes[base + 2] - halfWidth,
+                    bb.minX() - halfWidth, bb.maxX() + halfWidth);
+                double py = fraction(cellBoxes[base + 1] + halfHeight, cellBoxes[base + 3] - halfHeight,
+                    bb.minY() - halfHeight, bb.maxY() + halfHeight);
+                total += count * px * py;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Fraction of a range of centres [min, max] which falls in the range [low, high].
+     */
+    private static double fraction(double min, double max, double low, double high) {
+        if (!(min < max)) {
+            // the items almost fill the cell, their centres are around the middle
+            double centre = (min + max) / 2;
+            return centre > low && centre < high ? 1 : 0;
+        }
+
+        double overlap = Math.min(max, high) - Math.max(min, low);
+        return overlap <= 0 ? 0 : overlap / (max - min);
+    }
+
+    private static boolean overlaps(double[] boxes, int index, BoundingBox bb) {
+        return boxes[index * 4] < bb.maxX() && boxes[index * 4 + 2] > bb.minX()
+            && boxes[index * 4 + 1] < bb.maxY() && boxes[index * 4 + 3] > bb.minY();
+    }
+
+    /**
+     * Get number of cells of this estimator.
+     */
+    public int cells() {
+        return cellCount;
+    }
+}
@@ -0,0 +1,569 @@
+package com.icomputational.geometry.rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Shape;
+import com.icomputational.geometry.SpatialIndex;
+import com.icomputational.geometry.util.HilbertCurve;
+
+/**
+ * The {@link ShardedRTree} partitions space into ranges of Hilbert keys of shape centres, and indexes each
+ * range with an independent {@link RsTree} shard.
+ * <p>
+ * Each shard has its own writer thread, so writes to different shards run on different cores. Insertions
+ * are applied asynchronously in the order they are submitted, and {@link #flush()} waits until all of
+ * them are visible to queries. Deletions wait for pending insertions of their shard.
+ * Queries go only to shards whose extents match the query, and run in parallel on an executor.
+ * <p>
+ * The ranges are computed from a sample, or from all shapes when one shard grows much larger than the
+ * average, in which case shapes are redistributed while writes and queries are blocked.
+ * <p>
+ * This index is thread-safe, and should be {@link #shutdown()} after use.
+ */
+public class ShardedRTree implements SpatialIndex {
+    /**
+     * A shard is rebalanced if it's larger than the average size by this factor.
+     */
+    private static final double REBALANCE_FACTOR = 2;
+
+    /**
+     * The minimum size of a shard to be rebalanced.
+     */
+    private static final int REBALANCE_MIN_SIZE = 1024;
+
+    /**
+     * A {@link Shard} is a tree guarded by a read/write lock, written by one thread only.
+     */
+    private static class Shard {
+        final RTree tree;
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // the number of shapes including pending insertions
+        final AtomicInteger size = new AtomicInteger();
+        // the bounding box of applied shapes, null if none
+        volatile BoundingBox extent;
+
+        Shard(RTree tree) {
+            this.tree = tree;
+        }
+    }
+
+    /**
+     * A {@link Topology} maps Hilbert keys of shapes to shards.
+     */
+    private static class Topology {
+        final double minX;
+        final double minY;
+        final double maxX;
+        final double maxY;
+        // shard i holds keys in [splits[i - 1], splits[i])
+        final long[] splits;
+        final Shard[] shards;
+
+        Topology(double minX, double minY, double maxX, double maxY, long[] splits, Shard[] shards) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.splits = splits;
+            this.shards = shards;
+        }
+
+        int shardOf(Shape shape) {
+            BoundingBox bb = shape.boundingBox();
+            long key = HilbertCurve.index((bb.minX() + bb.maxX()) / 2, (bb.minY() + bb.maxY()) / 2, minX, minY,
+                maxX, maxY);
+            int i = Arrays.binarySearch(splits, key);
+            return (i >= 0) ? i + 1 : -i - 1;
+        }
+    }
+
+    /**
+     * A query to run on a shard.
+     */
+    private static abstract class ShardQuery {
+        abstract List<Shape> query(RTree tree);
+    }
+
+    private final int maxEntries;
+    private final int minEntries;
+    private final ExecutorService[] writers;
+    private final ExecutorService executor;
+    private final boolean ownExecutor;
+
+    private final ReadWriteLock topologyLock = new ReentrantReadWriteLock();
+    private volatile Topology topology;
+    private final AtomicInteger size = new AtomicInteger();
+    // the minimum total size to check the balance, so a rebalancing doesn't repeat on inseparable shapes
+    private volatile int rebalanceSize;
+
+    /**
+     * Construct an empty index, all shapes go to the first shard until it's rebalanced.
+     * @param shards the number of shards.
+     * @param M the maximum number of entries of a node of shards.
+     * @param m the minimum number of entries of a node of shards.
+     */
+    public ShardedRTree(int shards, int M, int m) {
+        this(shards, M, m, Collections.<Shape> emptyList());
+    }
+
+    /**
+     * Construct an empty index, the key ranges of shards are computed from a sample of shapes.
+     * @param shards the number of shards.
+     * @param M the maximum number of entries of a node of shards.
+     * @param m the minimum number of entries of a node of shards.
+     * @param sample a sample of shapes to be inserted, which are not inserted by this constructor.
+     */
+    public ShardedRTree(int shards, int M, int m, Collection<? extends Shape> sample) {
+        this(shards, M, m, sample, null);
+    }
+
+    /**
+     * Construct an empty index, the key ranges of shards are computed from a sample of shapes.
+     * @param shards the number of shards.
+     * @param M the maximum number of entries of a node of shards.
+     * @param m the minimum number of entries of a node of shards.
+     * @param sample a sample of shapes to be inserted, which are not inserted by this constructor.
+     * @param executor the executor to run queries, which is not shut down by this index. A fixed thread pool
+     *        owned by this index is created if null.
+     */
+    public ShardedRTree(int shards, int M, int m, Collection<? extends Shape> sample, ExecutorService executor) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("number of shards must greater than 0");
+        }
+        this.maxEntries = M;
+        this.minEntries = m;
+        this.writers = new ExecutorService[shards];
+        for (int i = 0; i < shards; i++) {
+            writers[i] = Executors.newSingleThreadExecutor(daemonThreadFactory("ShardedRTree-writer-" + i));
+        }
+        this.ownExecutor = (executor == null);
+        this.executor = ownExecutor ? Executors.newFixedThreadPool(shards, daemonThreadFactory("ShardedRTree-query"))
+            : executor;
+        this.topology = partition(sample);
+    }
+
+    @Override
+    public void insert(final Shape shape) {
+        int count;
+        int total;
+        Lock lock = topologyLock.readLock();
+        lock.lock();
+        try {
+            Topology t = topology;
+            int index = t.shardOf(shape);
+            final Shard shard = t.shards[index];
+            count = shard.size.incrementAndGet();
+            total = size.incrementAndGet();
+            writers[index].execute(new Runnable() {
+                @Override
+                public void run() {
+                    shard.lock.writeLock().lock();
+                    try {
+                        shard.tree.insert(shape);
+                        shard.extent = shard.tree.boundingBox();
+                    } finally {
+                        shard.lock.writeLock().unlock();
+                    }
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+
+        if (isSkewed(count, total)) {
+            rebalance();
+        }
+    }
+
+    @Override
+    public boolean delete(final Shape shape) {
+        Lock lock = topologyLock.readLock();
+        lock.lock();
+        try {
+            Topology t = topology;
+            int index = t.shardOf(shape);
+            final Shard shard = t.shards[index];
+            boolean deleted = await(writers[index].submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    shard.lock.writeLock().lock();
+                    try {
+                        boolean deleted = shard.tree.delete(shape);
+                        if (deleted) {
+                            shard.extent = shard.tree.boundingBox();
+                        }
+                        return deleted;
+                    } finally {
+                        shard.lock.writeLock().unlock();
+                    }
+                }
+            }));
+
+            if (deleted) {
+                shard.size.decrementAndGet();
+                size.decrementAndGet();
+            }
+            return deleted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until all submitted insertions are visible to queries.
+     */
+    public void flush() {
+        Lock lock = topologyLock.readLock();
+        lock.lock();
+        try {
+            drain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Shape> search(final BoundingBox bb) {
+        Lock lock = topologyLock.readLock();
+        lock.lock();
+        try {
+            List<Shard> targets = new ArrayList<Shard>();
+            for (Shard shard : topology.shards) {
+                BoundingBox extent = shard.extent;
+                if (extent != null && extent.overlaps(bb)) {
+                    targets.add(shard);
+                }
+            }
+
+            return fanOut(targets, new ShardQuery() {
+                @Override
+                List<Shape> query(RTree tree) {
+                    return tree.search(bb);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Shape> search(final Point point) {
+        Lock lock = topologyLock.readLock();
+        lock.lock();
+        try {
+            List<Shard> targets = new ArrayList<Shard>();
+            for (Shard shard : topology.shards) {
+                BoundingBox extent = shard.extent;
+                if (extent != null && extent.contains(point)) {
+                    targets.add(shard);
+                }
+            }
+
+            return fanOut(targets, new ShardQuery() {
+                @Override
+                List<Shape> query(RTree tree) {
+                    return tree.search(point);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Shape> nearest(final Point point, final int k) {
+        List<Shape> shapes;
+        Lock lock = topologyLock.readLock();
+        lock.lock();
+        try {
+            List<Shard> targets = new ArrayList<Shard>();
+            for (Shard shard : topology.shards) {
+                if (shard.extent != null) {
+                    targets.add(shard);
+                }
+            }
+
+            // the k nearest shapes of all shards contain the k nearest shapes of the index
+            shapes = fanOut(targets, new ShardQuery() {
+                @Override
+                List<Shape> query(RTree tree) {
+                    return tree.nearest(point, k);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+
+        List<RTree.Candidate> candidates = new ArrayList<RTree.Candidate>(shapes.size());
+        for (Shape shape : shapes) {
+            candidates.add(new RTree.Candidate(shape, shape.distance(point.x(), point.y())));
+        }
+        Collections.sort(candidates);
+
+        List<Shape> result = new ArrayList<Shape>(Math.min(k, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < k; i++) {
+            result.add((Shape) candidates.get(i).item);
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Get a bounding box that covers all shapes visible to queries, pending insertions are not covered.
+     * @return a bounding box, null if no shape is visible.
+     */
+    @Override
+    public BoundingBox boundingBox() {
+        Lock lock = topologyLock.readLock();
+        lock.lock();
+        try {
+            BoundingBox result = null;
+            for (Shard shard : topology.shards) {
+                BoundingBox extent = shard.extent;
+                if (extent != null) {
+                    result = (result == null) ? extent : result.join(extent);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of shapes of each shard, including pending insertions.
+     */
+    public int[] shardSizes() {
+        Shard[] shards = topology.shards;
+        int[] sizes = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            sizes[i] = shards[i].size.get();
+        }
+        return sizes;
+    }
+
+    /**
+     * Stop writer threads and the query executor owned by this index, pending insertions are applied.
+     */
+    public void shutdown() {
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+        if (ownExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Run a query on shards, in parallel if there are multiple shards.
+     */
+    private List<Shape> fanOut(List<Shard> targets, final ShardQuery query) {
+        if (targets.isEmpty()) {
+            return new ArrayList<Shape>();
+        } else if (targets.size() == 1) {
+            return query(targets.get(0), query);
+        }
+
+        List<Future<List<Shape>>> futures = new ArrayList<Future<List<Shape>>>(targets.size());
+        for (final Shard shard : targets) {
+            futures.add(executor.submit(new Callable<List<Shape>>() {
+                @Override
+                public List<Shape> call() {
+                    return query(shard, query);
+                }
+            }));
+        }
+
+        List<Shape> result = new ArrayList<Shape>();
+        for (Future<List<Shape>> future : futures) {
+            result.addAll(await(future));
+        }
+        return result;
+    }
+
+    private static List<Shape> query(Shard shard, ShardQuery query) {
+        shard.lock.readLock().lock();
+        try {
+            return query.query(shard.tree);
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    private boolean isSkewed(int count, int total) {
+        return count > REBALANCE_MIN_SIZE && count > REBALANCE_FACTOR * total / writers.length
+            && total >= rebalanceSize;
+    }
+
+    /**
+     * Recompute key ranges from all shapes and redistribute shapes to new shards.
+     */
+    private void rebalance() {
+        Lock lock = topologyLock.writeLock();
+        lock.lock();
+        try {
+            Topology old = topology;
+            int total = size.get();
+            boolean skewed = false;
+            for (Shard shard : old.shards) {
+                skewed |= isSkewed(shard.size.get(), total);
+            }
+            if (!skewed) {
+                // rebalanced by another thread
+                return;
+            }
+
+            // no more writes could be submitted while holding the lock
+            drain();
+            List<Shape> shapes = new ArrayList<Shape>(total);
+            for (Shard shard : old.shards) {
+                RTree.collect(shard.tree.rootNode, shapes);
+            }
+
+            Topology t = partition(shapes);
+            final List<List<Shape>> groups = new ArrayList<List<Shape>>(t.shards.length);
+            for (int i = 0; i < t.shards.length; i++) {
+                groups.add(new ArrayList<Shape>());
+            }
+            for (Shape shape : shapes) {
+                groups.get(t.shardOf(shape)).add(shape);
+            }
+
+            List<Future<?>> futures = new ArrayList<Future<?>>(t.shards.length);
+            for (int i = 0; i < t.shards.length; i++) {
+                final Shard shard = t.shards[i];
+                final List<Shape> group = groups.get(i);
+                shard.size.set(group.size());
+                futures.add(writers[i].submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (Shape shape : group) {
+                            shard.tree.insert(shape);
+                        }
+                        shard.extent = shard.tree.boundingBox();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+
+            topology = t;
+            rebalanceSize = total + total / 4;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until all submitted writes are applied.
+     */
+    private void drain() {
+        List<Future<?>> futures = new ArrayList<Future<?>>(writers.length);
+        for (ExecutorService writer : writers) {
+            futures.add(writer.submit(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            await(future);
+        }
+    }
+
+    /**
+     * Create a topology of empty shards, key ranges are quantiles of keys of specified shapes.
+     */
+    private Topology partition(Collection<? extends Shape> shapes) {
+        int n = writers.length;
+        Shard[] shards = new Shard[n];
+        for (int i = 0; i < n; i++) {
+            shards[i] = new Shard(new RsTree(maxEntries, minEntries));
+        }
+
+        long[] splits = new long[n - 1];
+        if (shapes.isEmpty()) {
+            // all keys go to the first shard
+            Arrays.fill(splits, Long.MAX_VALUE);
+            return new Topology(0, 0, 0, 0, splits, shards);
+        }
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Shape shape : shapes) {
+            BoundingBox bb = shape.boundingBox();
+            double x = (bb.minX() + bb.maxX()) / 2;
+            double y = (bb.minY() + bb.maxY()) / 2;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+
+        long[] keys = new long[shapes.size()];
+        int i = 0;
+        for (Shape shape : shapes) {
+            BoundingBox bb = shape.boundingBox();
+            keys[i++] = HilbertCurve.index((bb.minX() + bb.maxX()) / 2, (bb.minY() + bb.maxY()) / 2, minX, minY,
+                maxX, maxY);
+        }
+        Arrays.sort(keys);
+        for (i = 0; i < splits.length; i++) {
+            splits[i] = keys[(int) ((long) (i + 1) * keys.length / n)];
+        }
+        return new Topology(minX, minY, maxX, maxY, splits, shards);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for a shard", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String name) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.icomputational.geometry.util;
+
+/**
+ * The {@link HilbertCurve} maps 2-dimension coordinates to positions on a Hilbert curve of order 16,
+ * so that points close on the curve are close in space.
+ * @see <a href="https://en.wikipedia.org/wiki/Hilbert_curve">Hilbert curve</a>
+ */
+public final class HilbertCurve {
+    /**
+     * The maximum grid coordinate of the curve.
+     */
+    public static final int MAX_COORDINATE = 0xFFFF;
+
+    private HilbertCurve() {
+    }
+
+    /**
+     * Calculate the position of a coordinate in specified extent, the coordinate is scaled to the grid of
+     * the curve and clamped into the extent.
+     * @return the position on the curve, between 0 and 2^32 - 1.
+     */
+    public static long index(double x, double y, double minX, double minY, double maxX, double maxY) {
+        return index(scale(x, minX, maxX), scale(y, minY, maxY));
+    }
+
+    /**
+     * Calculate the position of a grid coordinate on the curve.
+     * @param x the X coordinate, between 0 and {@link #MAX_COORDINATE}.
+     * @param y the Y coordinate, between 0 and {@link #MAX_COORDINATE}.
+     * @return the position on the curve, between 0 and 2^32 - 1.
+     * @see <a href="http://threadlocalmutex.com/?p=126">Fast Hilbert curve</a>
+     */
+    public static long index(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int A = a | (b >> 1);
+        int B = (a >> 1) ^ a;
+        int C = ((c >> 1) ^ (b & (d >> 1))) ^ c;
+        int D = ((a & (c >> 1)) ^ (d >> 1)) ^ d;
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        A = (a & (a >> 2)) ^ (b & (b >> 2));
+        B = (a & (b >> 2)) ^ (b & ((a ^ b) >> 2));
+        C ^= (a & (c >> 2)) ^ (b & (d >> 2));
+        D ^= (b & (c >> 2)) ^ ((a ^ b) & (d >> 2));
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        A = (a & (a >> 4)) ^ (b & (b >> 4));
+        B = (a & (b >> 4)) ^ (b & ((a ^ b) >> 4));
+        C ^= (a & (c >> 4)) ^ (b & (d >> 4));
+        D ^= (b & (c >> 4)) ^ ((a ^ b) & (d >> 4));
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        C ^= (a & (c >> 8)) ^ (b & (d >> 8));
+        D ^= (b & (c >> 8)) ^ ((a ^ b) & (d >> 8));
+
+        a = C ^ (C >> 1);
+        b = D ^ (D >> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+
+        return ((long) interleave(i1) << 1 | interleave(i0)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Spread the lower 16 bits of a value to even bits.
+     */
+    private static int interleave(int v) {
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    private static int scale(double v, double min, double max) {
+        if (!(max > min)) {
+            return 0;
+        }
+        double scaled = Math.floor(MAX_COORDINATE * (v - min) / (max - min));
+        return (int) Math.max(0, Math.min(MAX_COORDINATE, scaled));
+    }
+}
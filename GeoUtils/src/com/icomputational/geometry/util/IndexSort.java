@@ -0,0 +1,98 @@
+package com.icomputational.geometry.util;
+
+/**
+ * The {@link IndexSort} sorts indices of coordinates or other items by primitive keys, without boxing indices
+ * or calling a comparator, by quick sort with insertion sort for short ranges.
+ * <p>
+ * Indices are ordered by the primary keys, then the secondary keys if there are, and then the indices
+ * themselves, so the order is deterministic as stable sorting.
+ */
+public final class IndexSort {
+    /**
+     * Ranges not longer than this are sorted by insertion sort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private IndexSort() {
+    }
+
+    /**
+     * Sort a range of indices by keys.
+     * @param order the indices to be sorted.
+     * @param fromIndex the first index of the range, inclusive.
+     * @param toIndex the last index of the range, exclusive.
+     * @param keys the primary keys of items, by indices.
+     * @param ties the secondary keys of items by indices, or null if there is no secondary key.
+     */
+    public static void sort(int[] order, int fromIndex, int toIndex, double[] keys, double[] ties) {
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > order.length) {
+            throw new IllegalArgumentException("invalid range [" + fromIndex + ", " + toIndex + ") of length "
+                + order.length);
+        }
+        sort(order, keys, ties, fromIndex, toIndex - 1);
+    }
+
+    private static void sort(int[] order, double[] keys, double[] ties, int left, int right) {
+        while (right - left > INSERTION_SORT_THRESHOLD) {
+            int pivot = order[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (compare(keys, ties, order[i], pivot) < 0) {
+                    i++;
+                }
+                while (compare(keys, ties, order[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int t = order[i];
+                    order[i++] = order[j];
+                    order[j--] = t;
+                }
+            }
+            // recurse into the shorter range
+            if (j - left < right - i) {
+                sort(order, keys, ties, left, j);
+                left = i;
+            } else {
+                sort(order, keys, ties, i, right);
+                right = j;
+            }
+        }
+
+        for (int i = left + 1; i <= right; i++) {
+            int t = order[i];
+            int j = i;
+            for (; j > left && compare(keys, ties, order[j - 1], t) > 0; j--) {
+                order[j] = order[j - 1];
+            }
+            order[j] = t;
+        }
+    }
+
+    private static int compare(double[] keys, double[] ties, int a, int b) {
+        int result = compare(keys[a], keys[b]);
+        if (result == 0 && ties != null) {
+            result = compare(ties[a], ties[b]);
+        }
+        if (result == 0) {
+            result = (a < b) ? -1 : ((a == b) ? 0 : 1);
+        }
+        return result;
+    }
+
+    /**
+     * Compare two values, where negative zero equals zero as in arithmetic, and NaN is greater than any other
+     * value so the order is total.
+     */
+    private static int compare(double a, double b) {
+        if (a < b) {
+            return -1;
+        } else if (a > b) {
+            return 1;
+        } else if (a == b) {
+            return 0;
+        }
+        return Double.compare(a, b);
+    }
+}
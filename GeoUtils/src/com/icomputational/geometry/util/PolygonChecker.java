@@ -1,12 +1,6 @@
 package com.icomputational.geometry.util;
 
-import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 import com.icomputational.geometry.Point;
 
@@ -14,51 +8,6 @@ import com.icomputational.geometry.Point;
  * A utility for polygon to check if a polygon is a simple polygon.
  */
 public class PolygonChecker {
-    static class PointComparator implements Comparator<Point>, Serializable {
-        private static final long serialVersionUID = 1L;
-
-        @Override
-        public int compare(Point p1, Point p2) {
-            if (p1.x() < p2.x()) {
-                return -1;
-            } else if (p1.x() > p2.x()) {
-                return 1;
-            }
-
-            if (p1.y() < p2.y()) {
-                return -1;
-            } else if (p1.y() > p2.y()) {
-                return 1;
-            }
-
-            return 0;
-        }
-    }
-
-    static class SegComparator implements Comparator<Segment>, Serializable {
-        private static final long serialVersionUID = 1L;
-
-        private final double x;
-
-        SegComparator(double x) {
-            this.x = x;
-        }
-
-        @Override
-        public int compare(Segment s1, Segment s2) {
-            return Double.compare(getY(s1, x), getY(s2, x));
-        }
-
-        private double getY(Segment s, double x) {
-            double y = s.getY(x);
-            if (Double.isNaN(y) || Double.isInfinite(y)) {
-                return s.left().y();
-            }
-
-            return y;
-        }
-    }
-
     /**
      * Check if the specified vertices represents a simple polygon in computational geometry.
      * A polygon with any two edges interacts, or non-neighbor edges joined are treated as complex polygon.
@@ -73,112 +22,128 @@ public class PolygonChecker {
             return false;
         }
 
-        List<Segment> segments = new ArrayList<Segment>(vertices.size());
-        Point last = vertices.get(vertices.size() - 1);
-        for (int i = 0; i < vertices.size(); i++) {
-            Point current = vertices.get(i);
-            if (current.equals(last)) {
-                return false;
-            }
-            segments.add(new Segment(last, current));
-            last = current;
+        double[] xs = new double[vertices.size()];
+        double[] ys = new double[vertices.size()];
+        int i = 0;
+        for (Point p : vertices) {
+            xs[i] = p.x();
+            ys[i] = p.y();
+            i++;
         }
+        return isSimple(xs, ys);
+    }
 
-        Segment prev = segments.get(0);
-        Map<Point, Segment[]> endPoints = new TreeMap<Point, Segment[]>(new PointComparator());
-        for (int i = vertices.size() - 1; i >= 0; i--) {
-            Segment next = segments.get(i);
-            Segment[] edges = new Segment[] { prev, next };
-            Segment[] existing = endPoints.put(vertices.get(i), edges);
-            // duplicated point found
-            if (existing != null) {
-                return false;
-            }
-            prev = next;
+    /**
+     * Check if the specified coordinates of vertices represents a simple polygon, in O(n log n) time.
+     *
+     * @param xs the X coordinates of vertices.
+     * @param ys the Y coordinates of vertices, should have the same length as X coordinates.
+     * @return true if the polygon is a simple polygon in computational geometry.
+     * @see #isSimple(List)
+     */
+    public boolean isSimple(double[] xs, double[] ys) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("length of X " + xs.length + " differs from length of Y " + ys.length);
+        }
+        int n = xs.length;
+        if (n < 3) {
+            return false;
         }
 
-        List<Segment> checkingList = new ArrayList<Segment>();
-        for (Map.Entry<Point, Segment[]> endPoint : endPoints.entrySet()) {
-            Point vertex = endPoint.getKey();
-            Segment[] edges = endPoint.getValue();
-            if (!check(vertex, edges[0], checkingList)) {
-                return false;
-            }
-            if (!check(vertex, edges[1], checkingList)) {
+        // vertices ordered by X and then Y are the event points, any duplicated vertex breaks the simplicity
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        IndexSort.sort(order, 0, n, xs, ys);
+        for (int i = 1; i < n; i++) {
+            if (compare(xs, ys, order[i - 1], order[i]) == 0) {
                 return false;
             }
         }
 
-        return true;
-    }
+        // the edge i joins the vertex i and the vertex i + 1
+        double[] x1 = new double[n];
+        double[] y1 = new double[n];
+        double[] x2 = new double[n];
+        double[] y2 = new double[n];
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            int left = compare(xs, ys, i, j) < 0 ? i : j;
+            int right = i + j - left;
+            x1[i] = xs[left];
+            y1[i] = ys[left];
+            x2[i] = xs[right];
+            y2[i] = ys[right];
+        }
 
-    /**
-     * Check if an end point against the specified checking list.
-     * @return true if the end point won't break the simplicity.
-     */
-    private boolean check(Point vertex, Segment segment, List<Segment> checkingList) {
-        if (vertex.equals(segment.left())) {
-            int index = insert(checkingList, segment);
-            assert (index >= 0);
-            Segment sa = above(checkingList, index);
-            Segment sb = below(checkingList, index);
-            if (intersect(sa, segment)) {
+        SweepStatus status = new SweepStatus(x1, y1, x2, y2);
+        SweepStatus.Node[] handles = new SweepStatus.Node[n];
+        for (int k = 0; k < n; k++) {
+            int vertex = order[k];
+            int previous = (vertex + n - 1) % n;
+            // edges ending at the vertex were inserted at their left end points
+            boolean endsPrevious = handles[previous] != null;
+            boolean endsNext = handles[vertex] != null;
+            if (endsPrevious && !remove(status, handles, previous, n)) {
                 return false;
-            } else if (intersect(sb, segment)) {
+            }
+            if (endsNext && !remove(status, handles, vertex, n)) {
                 return false;
             }
-        } else {
-            int index = checkingList.indexOf(segment);
-            if (index < 0) {
-                throw new IllegalStateException("missing segment " + segment + " for " + vertex);
+            if (!endsPrevious && !insert(status, handles, previous, n, xs[vertex], ys[vertex])) {
+                return false;
             }
-            Segment sa = above(checkingList, index);
-            Segment sb = below(checkingList, index);
-            if (intersect(sa, sb)) {
+            if (!endsNext && !insert(status, handles, vertex, n, xs[vertex], ys[vertex])) {
                 return false;
             }
-            checkingList.remove(index);
         }
+
         return true;
     }
 
-    private int insert(List<Segment> segments, Segment segment) {
-        int index = Collections.binarySearch(segments, segment, new SegComparator(segment.left().x()));
-        if (index < 0) {
-            index = -1 - index;
-        }
-        segments.add(index, segment);
-        return index;
+    /**
+     * Insert an edge at its left end point.
+     * @return true if the edge won't break the simplicity.
+     */
+    private static boolean insert(SweepStatus status, SweepStatus.Node[] handles, int edge, int n, double x,
+            double y) {
+        SweepStatus.Node node = status.insert(edge, x, y);
+        handles[edge] = node;
+        return !intersect(status, n, node, SweepStatus.above(node))
+            && !intersect(status, n, SweepStatus.below(node), node);
     }
 
-    private Segment above(List<Segment> segments, int index) {
-        index++;
-        if (index >= segments.size()) {
-            return null;
-        }
-
-        return segments.get(index);
+    /**
+     * Remove an edge at its right end point, its neighbors become neighbors of each other.
+     * @return true if the neighbors won't break the simplicity.
+     */
+    private static boolean remove(SweepStatus status, SweepStatus.Node[] handles, int edge, int n) {
+        SweepStatus.Node node = handles[edge];
+        SweepStatus.Node below = SweepStatus.below(node);
+        SweepStatus.Node above = SweepStatus.above(node);
+        status.delete(node);
+        handles[edge] = null;
+        return !intersect(status, n, below, above);
     }
 
-    private Segment below(List<Segment> segments, int index) {
-        index--;
-        if (index < 0) {
-            return null;
+    private static int compare(double[] xs, double[] ys, int i, int j) {
+        if (xs[i] != xs[j]) {
+            return xs[i] < xs[j] ? -1 : 1;
         }
-
-        return segments.get(index);
+        return Double.compare(ys[i], ys[j]);
     }
 
-    private boolean intersect(Segment s1, Segment s2) {
-        if (s1 == null || s2 == null) {
-            return false;
-        }
-
-        if (s1.left() == s2.left() || s1.left() == s2.right() || s1.right() == s2.left() || s1.right() == s2.right()) {
+    /**
+     * Check if two edges intersect, where neighbor edges intersect only if they overlap.
+     */
+    private static boolean intersect(SweepStatus status, int n, SweepStatus.Node a, SweepStatus.Node b) {
+        if (a == null || b == null) {
             return false;
         }
 
-        Point p = s1.intersect(s2);
-        return (p != null);
+        int s = a.segment;
+        int t = b.segment;
+        return status.intersects(s, t, (s + 1) % n == t || (t + 1) % n == s);
     }
 }
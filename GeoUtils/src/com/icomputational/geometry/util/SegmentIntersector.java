@@ -0,0 +1,477 @@
+package com.icomputational.geometry.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.icomputational.geometry.LinearRing;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polyline;
+
+/**
+ * A {@link SegmentIntersector} reports all intersections among line segments, such as junctions and overlaps
+ * of roads, by the sweep line algorithm presented by Bentley and Ottmann in O((n + k) log n) time.
+ * <p>
+ * Segments are added one by one, or as chains of polylines and linear rings, where the segment i of a chain
+ * joins the point i and the point i + 1. Neighbour segments of a chain always meet at their common point,
+ * which is not reported, unless they overlap. Segments of zero length are ignored.
+ * <p>
+ * Each pair of intersecting segments is reported once, several segments passing a common point are reported
+ * pair by pair. Collinear segments which overlap are reported with both ends of the overlap.
+ * @see <a href="http://en.wikipedia.org/wiki/Bentley%E2%80%93Ottmann_algorithm">Bentley-Ottmann algorithm</a>
+ */
+public class SegmentIntersector {
+    /**
+     * An {@link Intersection} is an intersection of two segments.
+     */
+    public static final class Intersection {
+        private final int first;
+        private final int second;
+        private final Point point;
+        private final Point end;
+
+        Intersection(int first, int second, Point point, Point end) {
+            this.first = first;
+            this.second = second;
+            this.point = point;
+            this.end = end;
+        }
+
+        /**
+         * Returns the index of the first segment, which is less than the index of the second segment.
+         */
+        public int first() {
+            return first;
+        }
+
+        /**
+         * Returns the index of the second segment.
+         */
+        public int second() {
+            return second;
+        }
+
+        /**
+         * Returns the intersection point, or the start of the overlap if the segments overlap.
+         */
+        public Point point() {
+            return point;
+        }
+
+        /**
+         * Returns the end of the overlap, null if the segments don't overlap.
+         */
+        public Point end() {
+            return end;
+        }
+
+        /**
+         * Check if the segments are collinear and overlap.
+         */
+        public boolean isOverlap() {
+            return end != null;
+        }
+
+        @Override
+        public String toString() {
+            return "Intersection[" + first + ", " + second + ", " + point + (end == null ? "" : " - " + end) + "]";
+        }
+    }
+
+    // left and right end points of segments, the left one is less by X and then Y
+    private double[] x1 = new double[16];
+    private double[] y1 = new double[16];
+    private double[] x2 = new double[16];
+    private double[] y2 = new double[16];
+    // the next segment of a chain, -1 for the last one
+    private int[] next = new int[16];
+    private int size;
+
+    /**
+     * Add a segment.
+     * @return the index of the segment.
+     */
+    public int add(Point p1, Point p2) {
+        return add(p1.x(), p1.y(), p2.x(), p2.y());
+    }
+
+    /**
+     * Add a segment by coordinates of its end points.
+     * @return the index of the segment.
+     */
+    public int add(double x1, double y1, double x2, double y2) {
+        return append(x1, y1, x2, y2);
+    }
+
+    /**
+     * Add the segments of a polyline.
+     * @return the index of the first segment.
+     */
+    public int add(Polyline polyline) {
+        int first = size;
+        for (int i = 1; i < polyline.numberOfPoints(); i++) {
+            append(polyline.x(i - 1), polyline.y(i - 1), polyline.x(i), polyline.y(i));
+        }
+        link(first, size, false);
+        return first;
+    }
+
+    /**
+     * Add the segments of a linear ring, the last segment joins the last vertex and the first one.
+     * @return the index of the first segment.
+     */
+    public int add(LinearRing ring) {
+        int first = size;
+        int n = ring.numberOfSides();
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            append(ring.x(i), ring.y(i), ring.x(j), ring.y(j));
+        }
+        link(first, size, true);
+        return first;
+    }
+
+    /**
+     * Returns the number of segments.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int append(double ax, double ay, double bx, double by) {
+        if (size == next.length) {
+            x1 = Arrays.copyOf(x1, size * 2);
+            y1 = Arrays.copyOf(y1, size * 2);
+            x2 = Arrays.copyOf(x2, size * 2);
+            y2 = Arrays.copyOf(y2, size * 2);
+            next = Arrays.copyOf(next, size * 2);
+        }
+        if (compare(ax, ay, bx, by) <= 0) {
+            x1[size] = ax;
+            y1[size] = ay;
+            x2[size] = bx;
+            y2[size] = by;
+        } else {
+            x1[size] = bx;
+            y1[size] = by;
+            x2[size] = ax;
+            y2[size] = ay;
+        }
+        next[size] = -1;
+        return size++;
+    }
+
+    /**
+     * Link segments of a chain, skipping segments of zero length.
+     */
+    private void link(int from, int to, boolean closed) {
+        int first = -1;
+        int last = -1;
+        for (int s = from; s < to; s++) {
+            if (isEmpty(s)) {
+                continue;
+            }
+            if (last >= 0) {
+                next[last] = s;
+            } else {
+                first = s;
+            }
+            last = s;
+        }
+        if (closed && last != first) {
+            next[last] = first;
+        }
+    }
+
+    private boolean isEmpty(int s) {
+        return x1[s] == x2[s] && y1[s] == y2[s];
+    }
+
+    private static int compare(double x0, double y0, double x1, double y1) {
+        if (x0 != x1) {
+            return x0 < x1 ? -1 : 1;
+        }
+        return Double.compare(y0, y1);
+    }
+
+    /**
+     * Compute all intersections among segments added so far.
+     * @return the intersections ordered by the sweep, that is roughly by X and then Y.
+     */
+    public List<Intersection> intersections() {
+        List<Intersection> result = new ArrayList<Intersection>();
+        new Sweep(result).run();
+        return result;
+    }
+
+    private static final int CROSSING = 0;
+    private static final int START = 1;
+    private static final int END = 2;
+
+    /**
+     * An {@link Event} is an end point of a segment, or a crossing of two segments to be swapped in the sweep
+     * status. Crossings come before end points at the same point, so a crossing near the right end point of a
+     * segment is never missed.
+     */
+    private static final class Event {
+        final double x;
+        final double y;
+        final int kind;
+        final int first;
+        final int second;
+        // the computed crossing point, which may be before the event point by rounding
+        final double px;
+        final double py;
+
+        Event(double x, double y, int kind, int first, int second, double px, double py) {
+            this.x = x;
+            this.y = y;
+            this.kind = kind;
+            this.first = first;
+            this.second = second;
+            this.px = px;
+            this.py = py;
+        }
+    }
+
+    private static final Comparator<Event> EVENT_COMPARATOR = new Comparator<Event>() {
+        @Override
+        public int compare(Event e1, Event e2) {
+            int result = SegmentIntersector.compare(e1.x, e1.y, e2.x, e2.y);
+            if (result == 0) {
+                result = (e1.kind == CROSSING ? 0 : 1) - (e2.kind == CROSSING ? 0 : 1);
+            }
+            return result;
+        }
+    };
+
+    /**
+     * A {@link Sweep} is the state of a sweep over the segments.
+     */
+    private final class Sweep {
+        private final List<Intersection> result;
+        private final SweepStatus status = new SweepStatus(x1, y1, x2, y2);
+        private final SweepStatus.Node[] handles = new SweepStatus.Node[size];
+        private final PriorityQueue<Event> queue = new PriorityQueue<Event>(Math.max(1, size * 2), EVENT_COMPARATOR);
+        // pairs of segments reported
+        private final Set<Long> reported = new HashSet<Long>();
+        // segments passing the current event point, and marks of them
+        private int[] passing = new int[16];
+        private int count;
+        private final boolean[] marked = new boolean[size];
+        // the current event point
+        private double cx;
+        private double cy;
+
+        Sweep(List<Intersection> result) {
+            this.result = result;
+        }
+
+        void run() {
+            for (int s = 0; s < size; s++) {
+                if (!isEmpty(s)) {
+                    queue.add(new Event(x1[s], y1[s], START, s, -1, x1[s], y1[s]));
+                    queue.add(new Event(x2[s], y2[s], END, s, -1, x2[s], y2[s]));
+                }
+            }
+
+            while (!queue.isEmpty()) {
+                Event event = queue.poll();
+                cx = event.x;
+                cy = event.y;
+                if (event.kind == CROSSING) {
+                    cross(event);
+                } else {
+                    count = 0;
+                    collect(event);
+                    while (!queue.isEmpty() && queue.peek().kind != CROSSING
+                        && compare(queue.peek().x, queue.peek().y, cx, cy) == 0) {
+                        collect(queue.poll());
+                    }
+                    visit();
+                }
+            }
+        }
+
+        /**
+         * Collect the segment of an end point event, whose handle is null for a start.
+         */
+        private void collect(Event event) {
+            if (!marked[event.first]) {
+                mark(event.first);
+            }
+        }
+
+        private void mark(int s) {
+            if (count == passing.length) {
+                passing = Arrays.copyOf(passing, count * 2);
+            }
+            passing[count++] = s;
+            marked[s] = true;
+        }
+
+        /**
+         * Visit the current event point, where some segments start or end, report pairs of segments passing the
+         * point, and reorder them in the sweep status by their directions.
+         */
+        private void visit() {
+            // segments in the sweep status passing the point are neighbours
+            SweepStatus.Node node = status.ceiling(cx, cy);
+            while (node != null && status.side(node.segment, cx, cy) == 0) {
+                if (!marked[node.segment]) {
+                    mark(node.segment);
+                }
+                node = SweepStatus.above(node);
+            }
+
+            for (int i = 0; i < count; i++) {
+                for (int j = i + 1; j < count; j++) {
+                    report(passing[i], passing[j], cx, cy);
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                int s = passing[i];
+                if (handles[s] != null) {
+                    status.delete(handles[s]);
+                    handles[s] = null;
+                }
+            }
+
+            // insert segments going on to the right, which are still marked
+            int inserted = 0;
+            for (int i = 0; i < count; i++) {
+                int s = passing[i];
+                if (x2[s] == cx && y2[s] == cy) {
+                    marked[s] = false;
+                } else {
+                    handles[s] = status.insert(s, cx, cy);
+                    inserted++;
+                }
+            }
+
+            if (inserted == 0) {
+                check(status.floor(cx, cy), status.ceiling(cx, cy));
+            } else {
+                for (int i = 0; i < count; i++) {
+                    int s = passing[i];
+                    if (!marked[s]) {
+                        continue;
+                    }
+                    SweepStatus.Node below = SweepStatus.below(handles[s]);
+                    if (below == null || !marked[below.segment]) {
+                        check(below, handles[s]);
+                    }
+                    SweepStatus.Node above = SweepStatus.above(handles[s]);
+                    if (above == null || !marked[above.segment]) {
+                        check(handles[s], above);
+                    }
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                marked[passing[i]] = false;
+            }
+        }
+
+        /**
+         * Swap two crossing segments, unless they aren't neighbours any more.
+         */
+        private void cross(Event event) {
+            SweepStatus.Node lower = handles[event.first];
+            SweepStatus.Node upper = handles[event.second];
+            if (lower == null || upper == null || SweepStatus.above(lower) != upper) {
+                return;
+            }
+
+            report(event.first, event.second, event.px, event.py);
+            SweepStatus.swap(lower, upper);
+            handles[event.first] = upper;
+            handles[event.second] = lower;
+            check(SweepStatus.below(lower), lower);
+            check(upper, SweepStatus.above(upper));
+        }
+
+        /**
+         * Check neighbour segments, schedule a crossing if the lower one crosses the upper one on the right.
+         * Segments which touch each other are found at end points.
+         */
+        private void check(SweepStatus.Node lower, SweepStatus.Node upper) {
+            if (lower == null || upper == null) {
+                return;
+            }
+
+            int s = lower.segment;
+            int t = upper.segment;
+            if (status.turn(s, t) <= 0 || status.side(s, x1[t], y1[t]) * status.side(s, x2[t], y2[t]) >= 0
+                || status.side(t, x1[s], y1[s]) * status.side(t, x2[s], y2[s]) >= 0) {
+                return;
+            }
+
+            double dxs = x2[s] - x1[s];
+            double dys = y2[s] - y1[s];
+            double dxt = x2[t] - x1[t];
+            double dyt = y2[t] - y1[t];
+            double u = ((x1[t] - x1[s]) * dyt - (y1[t] - y1[s]) * dxt) / (dxs * dyt - dys * dxt);
+            double px = x1[s] + u * dxs;
+            double py = y1[s] + u * dys;
+
+            // keep the event between the current point and the right end points despite of rounding
+            double x = px;
+            double y = py;
+            if (compare(x, y, cx, cy) < 0) {
+                x = cx;
+                y = cy;
+            }
+            if (compare(x, y, x2[s], y2[s]) > 0) {
+                x = x2[s];
+                y = y2[s];
+            }
+            if (compare(x, y, x2[t], y2[t]) > 0) {
+                x = x2[t];
+                y = y2[t];
+            }
+            queue.add(new Event(x, y, CROSSING, s, t, px, py));
+        }
+
+        /**
+         * Report a pair of intersecting segments once, skip neighbours of a chain unless they overlap.
+         */
+        private void report(int s, int t, double x, double y) {
+            Point end = null;
+            if (status.turn(s, t) == 0 && status.side(s, x1[t], y1[t]) == 0) {
+                // the overlap is from the greater left end point to the less right end point
+                double sx = x1[s];
+                double sy = y1[s];
+                if (compare(x1[t], y1[t], sx, sy) > 0) {
+                    sx = x1[t];
+                    sy = y1[t];
+                }
+                double ex = x2[s];
+                double ey = y2[s];
+                if (compare(x2[t], y2[t], ex, ey) < 0) {
+                    ex = x2[t];
+                    ey = y2[t];
+                }
+                if (compare(sx, sy, ex, ey) < 0) {
+                    x = sx;
+                    y = sy;
+                    end = new Point(ex, ey);
+                }
+            }
+            if (end == null && (next[s] == t || next[t] == s)) {
+                return;
+            }
+
+            int first = Math.min(s, t);
+            int second = Math.max(s, t);
+            if (reported.add(((long) first << 32) | second)) {
+                result.add(new Intersection(first, second, new Point(x, y), end));
+            }
+        }
+    }
+}
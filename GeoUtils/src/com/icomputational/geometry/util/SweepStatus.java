@@ -0,0 +1,283 @@
+package com.icomputational.geometry.util;
+
+import java.util.Random;
+
+/**
+ * A {@link SweepStatus} keeps segments crossing the sweep line ordered from bottom to top, in a treap with
+ * parent links, so a segment is inserted, deleted and its neighbours are found in O(log n) time, and the nodes
+ * returned by {@link #insert} are handles to locate segments in O(1) time.
+ * <p>
+ * Segments are identified by indexes to arrays of coordinates, where the left end point of a segment is
+ * less than its right end point by X and then Y. Segments are compared only when they are inserted, at the
+ * current event point of the sweep, the order of segments crossing each other is maintained by
+ * {@link #swap}.
+ */
+class SweepStatus {
+    /**
+     * A {@link Node} is a handle of a segment in the sweep status.
+     */
+    static final class Node {
+        int segment;
+        final int priority;
+        Node left;
+        Node right;
+        Node parent;
+
+        Node(int segment, int priority) {
+            this.segment = segment;
+            this.priority = priority;
+        }
+    }
+
+    private final double[] x1;
+    private final double[] y1;
+    private final double[] x2;
+    private final double[] y2;
+    private final Random random = new Random(0);
+    private Node root;
+
+    /**
+     * Construct an empty sweep status over segments.
+     * @param x1 the X coordinates of left end points.
+     * @param y1 the Y coordinates of left end points.
+     * @param x2 the X coordinates of right end points.
+     * @param y2 the Y coordinates of right end points.
+     */
+    SweepStatus(double[] x1, double[] y1, double[] x2, double[] y2) {
+        this.x1 = x1;
+        this.y1 = y1;
+        this.x2 = x2;
+        this.y2 = y2;
+    }
+
+    /**
+     * Returns the side of a point to a segment, positive if the point is above the segment, negative if it's
+     * below, or zero if it's on the line of the segment.
+     */
+    int side(int segment, double x, double y) {
+        double d = (x2[segment] - x1[segment]) * (y - y1[segment]) - (y2[segment] - y1[segment]) * (x - x1[segment]);
+        return d > 0 ? 1 : (d < 0 ? -1 : 0);
+    }
+
+    /**
+     * Compare directions of two segments, positive if the first segment turns counter clockwise from the
+     * second one, that is the first one is above the other on the right of a common point.
+     */
+    int turn(int s, int t) {
+        double d = (x2[t] - x1[t]) * (y2[s] - y1[s]) - (y2[t] - y1[t]) * (x2[s] - x1[s]);
+        return d > 0 ? 1 : (d < 0 ? -1 : 0);
+    }
+
+    /**
+     * Check if two closed segments intersect. Neighbour segments of a chain, which have a common end point,
+     * intersect only if they overlap.
+     */
+    boolean intersects(int s, int t, boolean neighbours) {
+        int d1 = side(s, x1[t], y1[t]);
+        int d2 = side(s, x2[t], y2[t]);
+        if (d1 == 0 && d2 == 0) {
+            // collinear segments intersect if the greater left end point isn't after the less right end point
+            boolean leftOfS = compare(x1[s], y1[s], x1[t], y1[t]) < 0;
+            boolean rightOfS = compare(x2[s], y2[s], x2[t], y2[t]) < 0;
+            int result = compare(leftOfS ? x1[t] : x1[s], leftOfS ? y1[t] : y1[s], rightOfS ? x2[s] : x2[t],
+                rightOfS ? y2[s] : y2[t]);
+            return neighbours ? result < 0 : result <= 0;
+        }
+        if (neighbours) {
+            return false;
+        }
+        return d1 * d2 <= 0 && side(t, x1[s], y1[s]) * side(t, x2[s], y2[s]) <= 0;
+    }
+
+    private static int compare(double x0, double y0, double x1, double y1) {
+        if (x0 != x1) {
+            return x0 < x1 ? -1 : 1;
+        }
+        return Double.compare(y0, y1);
+    }
+
+    /**
+     * Compare a segment passing the current event point with another segment in the sweep status, by the
+     * side of the event point, then directions, then indexes.
+     */
+    private int compare(int s, int t, double x, double y) {
+        int result = side(t, x, y);
+        if (result == 0) {
+            result = turn(s, t);
+        }
+        if (result == 0) {
+            result = s < t ? -1 : (s > t ? 1 : 0);
+        }
+        return result;
+    }
+
+    /**
+     * Insert a segment passing the current event point.
+     * @return the handle of the segment.
+     */
+    Node insert(int segment, double x, double y) {
+        Node node = new Node(segment, random.nextInt());
+        if (root == null) {
+            root = node;
+            return node;
+        }
+
+        Node current = root;
+        while (true) {
+            if (compare(segment, current.segment, x, y) < 0) {
+                if (current.left == null) {
+                    current.left = node;
+                    break;
+                }
+                current = current.left;
+            } else {
+                if (current.right == null) {
+                    current.right = node;
+                    break;
+                }
+                current = current.right;
+            }
+        }
+        node.parent = current;
+        while (node.parent != null && node.parent.priority < node.priority) {
+            rotateUp(node);
+        }
+        return node;
+    }
+
+    /**
+     * Delete a segment by its handle.
+     */
+    void delete(Node node) {
+        while (node.left != null || node.right != null) {
+            if (node.right == null || (node.left != null && node.left.priority > node.right.priority)) {
+                rotateUp(node.left);
+            } else {
+                rotateUp(node.right);
+            }
+        }
+
+        Node parent = node.parent;
+        if (parent == null) {
+            root = null;
+        } else if (parent.left == node) {
+            parent.left = null;
+        } else {
+            parent.right = null;
+        }
+        node.parent = null;
+    }
+
+    /**
+     * Exchange segments of two nodes, the handles of segments should be exchanged by the caller.
+     */
+    static void swap(Node a, Node b) {
+        int segment = a.segment;
+        a.segment = b.segment;
+        b.segment = segment;
+    }
+
+    /**
+     * Rotate a node above its parent.
+     */
+    private void rotateUp(Node node) {
+        Node parent = node.parent;
+        Node grandparent = parent.parent;
+        if (parent.left == node) {
+            parent.left = node.right;
+            if (node.right != null) {
+                node.right.parent = parent;
+            }
+            node.right = parent;
+        } else {
+            parent.right = node.left;
+            if (node.left != null) {
+                node.left.parent = parent;
+            }
+            node.left = parent;
+        }
+        parent.parent = node;
+        node.parent = grandparent;
+        if (grandparent == null) {
+            root = node;
+        } else if (grandparent.left == parent) {
+            grandparent.left = node;
+        } else {
+            grandparent.right = node;
+        }
+    }
+
+    /**
+     * Returns the lowest segment which is not below a point, null if all segments are below the point.
+     */
+    Node ceiling(double x, double y) {
+        Node result = null;
+        Node current = root;
+        while (current != null) {
+            if (side(current.segment, x, y) <= 0) {
+                result = current;
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the highest segment which is below a point, null if no segment is below the point.
+     */
+    Node floor(double x, double y) {
+        Node result = null;
+        Node current = root;
+        while (current != null) {
+            if (side(current.segment, x, y) > 0) {
+                result = current;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the segment above a segment, null if it's the highest one.
+     */
+    static Node above(Node node) {
+        if (node.right != null) {
+            node = node.right;
+            while (node.left != null) {
+                node = node.left;
+            }
+            return node;
+        }
+
+        Node parent = node.parent;
+        while (parent != null && node == parent.right) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    /**
+     * Returns the segment below a segment, null if it's the lowest one.
+     */
+    static Node below(Node node) {
+        if (node.left != null) {
+            node = node.left;
+            while (node.right != null) {
+                node = node.right;
+            }
+            return node;
+        }
+
+        Node parent = node.parent;
+        while (parent != null && node == parent.left) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+}
@@ -0,0 +1,137 @@
+package com.icomputational.geoelements;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.rtree.RsTree;
+
+public class GeoRTreeTest {
+    /**
+     * A rectangle shape in geographic coordinates.
+     */
+    static class GeoRectangle extends GeoShape {
+        private final GeoBoundingBox bb;
+
+        GeoRectangle(double west, double south, double east, double north) {
+            bb = new GeoBoundingBox(west, south, east, north);
+        }
+
+        @Override
+        public GeoBoundingBox boundingBox() {
+            return bb;
+        }
+
+        @Override
+        public boolean contains(Coordinate coord) {
+            return bb.contains(coord);
+        }
+
+        @Override
+        public boolean overlaps(GeoBoundingBox other) {
+            return bb.overlaps(other);
+        }
+    }
+
+    @Test
+    public void testBoundingBox() {
+        GeoBoundingBox bb = new GeoBoundingBox(170, -10, -170, 10);
+        assertTrue(bb.crossesAntimeridian());
+        assertEquals(2, bb.split().length);
+        assertTrue(bb.contains(new Coordinate(180, 0)));
+        assertTrue(bb.contains(new Coordinate(-175, 0)));
+        assertFalse(bb.contains(new Coordinate(0, 0)));
+        assertTrue(bb.overlaps(new GeoBoundingBox(-171, 0, -160, 20)));
+        assertFalse(bb.overlaps(new GeoBoundingBox(-169, 0, 169, 20)));
+        assertTrue(bb.overlaps(new GeoBoundingBox(160, 0, -160, 20)));
+    }
+
+    @Test
+    public void testDistance() {
+        Sphere sphere = Sphere.EARTH;
+        GeoBoundingBox bb = new GeoBoundingBox(10, 10, 20, 20);
+        assertEquals(0, sphere.getDistance(new Coordinate(15, 15), bb), 0);
+        assertEquals(sphere.getDistance(new Coordinate(15, 0), new Coordinate(15, 10)),
+            sphere.getDistance(new Coordinate(15, 0), bb), 1E-6);
+        // the closest point of a meridian is not at the corner
+        double distance = sphere.getDistance(new Coordinate(30, 15), bb);
+        assertTrue(distance < sphere.getDistance(new Coordinate(30, 15), new Coordinate(20, 15)));
+        assertTrue(distance > 0);
+
+        // across the antimeridian
+        GeoBoundingBox wrapped = new GeoBoundingBox(179, -1, -179, 1);
+        assertEquals(0, sphere.getDistance(new Coordinate(-180, 0), wrapped), 0);
+        assertEquals(sphere.getDistance(new Coordinate(-178, 0), new Coordinate(-179, 0)),
+            sphere.getDistance(new Coordinate(-178, 0), wrapped), 1E-6);
+    }
+
+    @Test
+    public void testSearch() {
+        GeoRTree index = new GeoRTree(new RsTree(8, 2));
+        GeoRectangle wrapped = new GeoRectangle(175, -5, -175, 5);
+        GeoRectangle east = new GeoRectangle(170, 10, 172, 12);
+        GeoRectangle west = new GeoRectangle(-172, 10, -170, 12);
+        index.insert(wrapped);
+        index.insert(east);
+        index.insert(west);
+        for (int i = 0; i < 100; i++) {
+            index.insert(new GeoRectangle(i, i % 80, i + 0.5, i % 80 + 0.5));
+        }
+        assertEquals(103, index.size());
+
+        List<GeoShape> shapes = index.search(new Coordinate(178, 0));
+        assertEquals(1, shapes.size());
+        assertSame(wrapped, shapes.get(0));
+        assertSame(wrapped, index.search(new Coordinate(-178, 0)).get(0));
+
+        shapes = index.search(new GeoBoundingBox(160, -20, -160, 20));
+        assertEquals(3, shapes.size());
+        assertTrue(shapes.contains(wrapped));
+        assertTrue(shapes.contains(east));
+        assertTrue(shapes.contains(west));
+
+        // the wrapped shape, and rectangles at longitude 0 and 80
+        assertEquals(3, index.search(new GeoBoundingBox(-180, -1, 180, 1)).size());
+
+        assertTrue(index.delete(wrapped));
+        assertFalse(index.delete(wrapped));
+        assertEquals(102, index.size());
+        assertTrue(index.search(new Coordinate(178, 0)).isEmpty());
+        assertTrue(index.search(new Coordinate(-178, 0)).isEmpty());
+    }
+
+    @Test
+    public void testNearest() {
+        GeoRTree index = new GeoRTree(new RsTree(8, 2));
+        GeoRectangle wrapped = new GeoRectangle(179, -1, -179, 1);
+        GeoRectangle near = new GeoRectangle(-175, 0, -174, 1);
+        GeoRectangle far = new GeoRectangle(170, 0, 171, 1);
+        index.insert(far);
+        index.insert(wrapped);
+        index.insert(near);
+        for (int i = 0; i < 100; i++) {
+            index.insert(new GeoRectangle(i, 0, i + 0.5, 0.5));
+        }
+
+        List<GeoShape> shapes = index.nearest(new Coordinate(-177, 0), 3);
+        assertEquals(3, shapes.size());
+        assertSame(wrapped, shapes.get(0));
+        assertSame(near, shapes.get(1));
+        assertSame(far, shapes.get(2));
+
+        // nearest across the antimeridian
+        shapes = index.nearest(new Coordinate(175, 0.5), 1);
+        assertSame(wrapped, shapes.get(0));
+
+        double radius = Sphere.EARTH.getDistance(new Coordinate(-177, 0), new Coordinate(-174, 0));
+        shapes = index.search(new Coordinate(-177, 0), radius);
+        assertEquals(2, shapes.size());
+        assertSame(wrapped, shapes.get(0));
+        assertSame(near, shapes.get(1));
+    }
+}
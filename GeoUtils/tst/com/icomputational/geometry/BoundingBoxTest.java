@@ -6,6 +6,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 public class BoundingBoxTest {
@@ -138,5 +140,46 @@ public class BoundingBoxTest {
         p2 = new Point(2, 1);
         assertFalse(bb.intersects(p1, p2));
     }
-    
+
+    @Test
+    public void testKernels() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            BoundingBox bb1 = randomBox(random);
+            BoundingBox bb2 = randomBox(random);
+            assertEquals(bb1.overlaps(bb2), BoundingBox.overlaps(bb1.minX(), bb1.minY(), bb1.maxX(), bb1.maxY(),
+                bb2.minX(), bb2.minY(), bb2.maxX(), bb2.maxY()));
+            assertEquals(bb1.join(bb2).area(), BoundingBox.unionArea(bb1.minX(), bb1.minY(), bb1.maxX(),
+                bb1.maxY(), bb2.minX(), bb2.minY(), bb2.maxX(), bb2.maxY()), 1E-9);
+            assertEquals(bb1.getOverlap(bb2), BoundingBox.overlapArea(bb1.minX(), bb1.minY(), bb1.maxX(),
+                bb1.maxY(), bb2.minX(), bb2.minY(), bb2.maxX(), bb2.maxY()), 0);
+        }
+
+        assertFalse(BoundingBox.overlaps(0, 0, 1, 1, 1, 0, 2, 1));
+        assertEquals(0, BoundingBox.overlapArea(0, 0, 1, 1, 1, 0, 2, 1), 0);
+        assertEquals(4, BoundingBox.unionArea(0, 0, 1, 1, 1, 1, 2, 2), 0);
+    }
+
+    @Test
+    public void testSegmentIntersects() {
+        assertTrue(BoundingBox.segmentIntersects(0.5, -1, 0.5, 2, 0, 0, 1, 1));
+        assertTrue(BoundingBox.segmentIntersects(-1, 0.5, 2, 0.5, 0, 0, 1, 1));
+        assertFalse(BoundingBox.segmentIntersects(-1, 0.1, 1, 2, 0, 0, 1, 1));
+        // a segment inside of the bounding box crosses no side
+        assertFalse(BoundingBox.segmentIntersects(0.2, 0.2, 0.8, 0.8, 0, 0, 1, 1));
+        assertFalse(BoundingBox.segmentIntersects(0.5, 0.5, 0.5, 0.5, 0, 0, 1, 1));
+    }
+
+    @Test
+    public void testCentre() {
+        BoundingBox bb = new BoundingBox(0, 2, 4, 6);
+        assertEquals(new Point(2, 4), bb.centre());
+        assertTrue(bb.centre() == bb.centre());
+    }
+
+    private static BoundingBox randomBox(Random random) {
+        double x = random.nextDouble() * 10;
+        double y = random.nextDouble() * 10;
+        return new BoundingBox(x, y, x + random.nextDouble() * 5 + 0.01, y + random.nextDouble() * 5 + 0.01);
+    }
 }
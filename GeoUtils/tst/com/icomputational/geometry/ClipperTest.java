@@ -0,0 +1,137 @@
+package com.icomputational.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ClipperTest {
+
+    private static double area(LinearRing ring) {
+        double sum = 0;
+        int n = ring.ax.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            sum += ring.ax[j] * ring.ay[i] - ring.ax[i] * ring.ay[j];
+        }
+        return Math.abs(sum) / 2;
+    }
+
+    private static double area(Polygon polygon) {
+        double result = area(polygon.outerRing());
+        if (polygon.innerRings() != null) {
+            for (LinearRing ring : polygon.innerRings()) {
+                result -= area(ring);
+            }
+        }
+        return result;
+    }
+
+    private static double length(Polyline polyline) {
+        double result = 0;
+        for (int i = 1; i < polyline.ax.length; i++) {
+            result += Math.hypot(polyline.ax[i] - polyline.ax[i - 1], polyline.ay[i] - polyline.ay[i - 1]);
+        }
+        return result;
+    }
+
+    private static LinearRing rectangle(double minX, double minY, double maxX, double maxY) {
+        return new LinearRing(Arrays.asList(new Point(minX, minY), new Point(maxX, minY), new Point(maxX, maxY),
+            new Point(minX, maxY)));
+    }
+
+    @Test
+    public void testClipRing() {
+        Clipper clipper = new Clipper();
+        LinearRing ring = rectangle(0, 0, 10, 10);
+        LinearRing clipped = clipper.clip(ring, new BoundingBox(5, 5, 15, 15));
+        assertEquals(25, area(clipped), 1E-9);
+        assertEquals(new BoundingBox(5, 5, 10, 10), clipped.boundingBox());
+
+        // the tile is inside of the ring
+        clipped = clipper.clip(ring, new BoundingBox(2, 3, 4, 5));
+        assertEquals(4, area(clipped), 1E-9);
+        assertEquals(new BoundingBox(2, 3, 4, 5), clipped.boundingBox());
+
+        assertNull(clipper.clip(ring, new BoundingBox(20, 20, 30, 30)));
+        assertEquals(ring, clipper.clip(ring, new BoundingBox(-1, -1, 11, 11)));
+    }
+
+    @Test
+    public void testClipPolygonToGrid() {
+        Random random = new Random(3);
+        Clipper clipper = new Clipper();
+        for (int t = 0; t < 10; t++) {
+            Polygon polygon = new Polygon(GeometryFixtures.star(random, 0, 0, 100, 500));
+            polygon.addInnerRing(GeometryFixtures.star(random, 10, 10, 30, 100));
+            BoundingBox grid = new BoundingBox(-100, -100, 100, 100);
+            Polygon[] tiles = clipper.clip(polygon, grid, 8, 5);
+            assertEquals(40, tiles.length);
+
+            double sum = 0;
+            for (Polygon tile : tiles) {
+                if (tile != null) {
+                    sum += area(tile);
+                }
+            }
+            assertEquals(area(polygon), sum, 1E-6);
+
+            for (int i = 0; i < 10000; i++) {
+                double x = random.nextDouble() * 200 - 100;
+                double y = random.nextDouble() * 200 - 100;
+                int column = (int) ((x + 100) / 25);
+                int row = (int) ((y + 100) / 40);
+                Polygon tile = tiles[row * 8 + column];
+                assertEquals(polygon.contains(x, y), tile != null && tile.contains(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testClipPolyline() {
+        Clipper clipper = new Clipper();
+        Polyline polyline = new Polyline(Arrays.asList(new Point(-5, 5), new Point(5, 5), new Point(5, 15),
+            new Point(8, 15), new Point(8, 5), new Point(15, 5)));
+        List<Polyline> parts = clipper.clip(polyline, new BoundingBox(0, 0, 10, 10));
+        assertEquals(2, parts.size());
+        assertArrayEquals(new double[] {0, 5, 5}, parts.get(0).ax, 0);
+        assertArrayEquals(new double[] {5, 5, 10}, parts.get(0).ay, 0);
+        assertArrayEquals(new double[] {8, 8, 10}, parts.get(1).ax, 0);
+        assertArrayEquals(new double[] {10, 5, 5}, parts.get(1).ay, 0);
+
+        assertTrue(clipper.clip(polyline, new BoundingBox(20, 20, 30, 30)).isEmpty());
+    }
+
+    @Test
+    public void testClipPolylineToGrid() {
+        Random random = new Random(5);
+        List<Point> points = new ArrayList<Point>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(new Point(random.nextDouble() * 100, random.nextDouble() * 100));
+        }
+        Polyline polyline = new Polyline(points);
+
+        Clipper clipper = new Clipper();
+        BoundingBox grid = new BoundingBox(0, 0, 100, 100);
+        List<List<Polyline>> tiles = clipper.clip(polyline, grid, 7, 9);
+        double sum = 0;
+        for (int i = 0; i < tiles.size(); i++) {
+            int column = i % 7;
+            int row = i / 7;
+            BoundingBox tile = new BoundingBox(column * 100.0 / 7, row * 100.0 / 9, (column + 1) * 100.0 / 7,
+                (row + 1) * 100.0 / 9);
+            for (Polyline part : tiles.get(i)) {
+                for (int k = 0; k < part.ax.length; k++) {
+                    assertTrue(tile.distance(part.ax[k], part.ay[k]) < 1E-9);
+                }
+                sum += length(part);
+            }
+            // the same as clipping to the tile alone
+            assertEquals(tiles.get(i).size(), clipper.clip(polyline, tile).size());
+        }
+        assertEquals(length(polyline), sum, 1E-6);
+    }
+}
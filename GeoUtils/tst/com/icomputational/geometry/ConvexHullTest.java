@@ -0,0 +1,86 @@
+package com.icomputational.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ConvexHullTest {
+
+    private static double cross(LinearRing ring, int i, double x, double y) {
+        int j = (i + 1) % ring.ax.length;
+        return (ring.ax[j] - ring.ax[i]) * (y - ring.ay[i]) - (ring.ay[j] - ring.ay[i]) * (x - ring.ax[i]);
+    }
+
+    /**
+     * Check the hull is convex in counter clockwise order, and covers all points.
+     */
+    private static void assertHull(LinearRing hull, double[] xs, double[] ys) {
+        int h = hull.ax.length;
+        for (int i = 0; i < h; i++) {
+            assertTrue(cross(hull, i, hull.ax[(i + 2) % h], hull.ay[(i + 2) % h]) > 0);
+        }
+        for (int k = 0; k < xs.length; k++) {
+            for (int i = 0; i < h; i++) {
+                assertTrue(cross(hull, i, xs[k], ys[k]) >= -1E-9);
+            }
+        }
+    }
+
+    @Test
+    public void testSimple() {
+        LinearRing hull = ConvexHull.compute(Arrays.asList(new Point(0.5, 0.5), new Point(1, 1), new Point(0, 0),
+            new Point(0.5, 0), new Point(1, 0), new Point(0, 1), new Point(0.2, 0.8), new Point(0, 1)));
+        assertEquals(new LinearRing(Arrays.asList(new Point(0, 0), new Point(1, 0), new Point(1, 1),
+            new Point(0, 1))), hull);
+        assertEquals(LinearRing.COUNTER_CLOCKWISE, hull.clockwise());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCollinear() {
+        ConvexHull.compute(new double[] {0, 1, 2, 3}, new double[] {0, 1, 2, 3});
+    }
+
+    @Test
+    public void testLargeInParallel() {
+        Random random = new Random(3);
+        int n = 500000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double r = Math.sqrt(random.nextDouble()) * 100;
+            xs[i] = r * Math.cos(angle);
+            ys[i] = r * Math.sin(angle);
+        }
+
+        LinearRing hull = ConvexHull.compute(xs, ys);
+        assertHull(hull, xs, ys);
+        // the same as computed sequentially, and by small chunks
+        assertEquals(ConvexHull.compute(xs, ys, n), hull);
+        assertEquals(ConvexHull.compute(xs, ys, 1000), hull);
+    }
+
+    @Test
+    public void testStreaming() {
+        Random random = new Random(5);
+        int n = 100000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        ConvexHull stream = new ConvexHull();
+        assertNull(stream.hull());
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextGaussian() * 100;
+            ys[i] = random.nextGaussian() * 50;
+            stream.add(xs[i], ys[i]);
+            if (i == 1000) {
+                assertEquals(ConvexHull.compute(Arrays.copyOf(xs, i + 1), Arrays.copyOf(ys, i + 1)), stream.hull());
+            }
+        }
+        LinearRing hull = stream.hull();
+        assertHull(hull, xs, ys);
+        assertEquals(ConvexHull.compute(xs, ys), hull);
+    }
+}
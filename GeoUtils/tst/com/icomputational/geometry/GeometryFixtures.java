@@ -0,0 +1,49 @@
+package com.icomputational.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shapes and brute-force checks shared by tests.
+ */
+public final class GeometryFixtures {
+    private GeometryFixtures() {
+    }
+
+    /**
+     * Create a star-shaped ring around a centre with random radii.
+     */
+    public static LinearRing star(Random random, double cx, double cy, double radius, int n) {
+        List<Point> vertices = new ArrayList<Point>(n);
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double r = radius * (0.5 + random.nextDouble() * 0.5);
+            vertices.add(new Point(cx + r * Math.cos(angle), cy + r * Math.sin(angle)));
+        }
+        return new LinearRing(vertices);
+    }
+
+    /**
+     * Check if two closed segments intersect, by signs of cross products.
+     * @param e the coordinates x0, y0, x1, y1 of a segment.
+     * @param f the coordinates x0, y0, x1, y1 of another segment.
+     */
+    public static boolean intersects(double[] e, double[] f) {
+        double d1 = cross(f[0], f[1], f[2], f[3], e[0], e[1]);
+        double d2 = cross(f[0], f[1], f[2], f[3], e[2], e[3]);
+        double d3 = cross(e[0], e[1], e[2], e[3], f[0], f[1]);
+        double d4 = cross(e[0], e[1], e[2], e[3], f[2], f[3]);
+        return Math.signum(d1) * Math.signum(d2) <= 0 && Math.signum(d3) * Math.signum(d4) <= 0
+            && Math.max(e[0], e[2]) >= Math.min(f[0], f[2]) && Math.max(f[0], f[2]) >= Math.min(e[0], e[2])
+            && Math.max(e[1], e[3]) >= Math.min(f[1], f[3]) && Math.max(f[1], f[3]) >= Math.min(e[1], e[3]);
+    }
+
+    /**
+     * Returns the cross product of a segment and the vector from its first end to a point, positive if the point
+     * is on the left side of the segment.
+     */
+    public static double cross(double x0, double y0, double x1, double y1, double x, double y) {
+        return (x1 - x0) * (y - y0) - (x - x0) * (y1 - y0);
+    }
+}
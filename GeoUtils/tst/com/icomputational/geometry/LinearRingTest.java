@@ -8,6 +8,7 @@ import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 
@@ -107,4 +108,31 @@ public class LinearRingTest {
         assertFalse(ring.contains(new BoundingBox(-2, -2, 2, 2)));
         assertFalse(ring.contains(new BoundingBox(2, 2, 3, 3)));
     }
+
+    @Test
+    public void testContainsAll() {
+        List<Point> vertices = Arrays.asList(new Point(1, 1), new Point(1, -1), new Point(-1, -1), new Point(0, 0),
+            new Point(-1, 1));
+
+        LinearRing ring = new LinearRing(vertices);
+        BitSet result = new BitSet();
+        ring.containsAll(new double[] {0.5, -0.5, 2, 1}, new double[] {-0.5, 0, 0, 0.5}, result);
+        assertTrue(result.get(0));
+        assertFalse(result.get(1));
+        assertFalse(result.get(2));
+        assertEquals(new Polygon(ring).contains(1, 0.5), result.get(3));
+    }
+
+    @Test
+    public void testIntersectRayOfVerticalEdges() {
+        List<Point> vertices = Arrays
+            .asList(new Point(0.1, -0.9), new Point(0.9, -0.9), new Point(0.9, -0.1), new Point(0.1, -0.1));
+
+        // the intersection with a vertical edge should never be out of the edge by rounding errors
+        LinearRing ring = new LinearRing(vertices);
+        for (double y = -0.85; y < -0.1; y += 0.05) {
+            assertEquals(2, ring.intersectRay(-1, y));
+            assertEquals(1, ring.intersectRay(0.5, y));
+        }
+    }
 }
\ No newline at end of file
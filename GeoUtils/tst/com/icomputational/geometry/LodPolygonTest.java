@@ -0,0 +1,98 @@
+package com.icomputational.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LodPolygonTest {
+
+    /**
+     * Create a ring around a centre with a smooth random radius.
+     */
+    private static LinearRing blob(Random random, double cx, double cy, double radius, int n) {
+        List<Point> vertices = new ArrayList<Point>(n);
+        double phase = random.nextDouble() * Math.PI;
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double r = radius * (0.8 + 0.1 * Math.sin(angle * 7 + phase) + 0.01 * random.nextDouble());
+            vertices.add(new Point(cx + r * Math.cos(angle), cy + r * Math.sin(angle)));
+        }
+        return new LinearRing(vertices);
+    }
+
+    private static double distanceToBoundary(Polygon polygon, double x, double y) {
+        List<LinearRing> rings = new ArrayList<LinearRing>();
+        rings.add(polygon.outerRing());
+        rings.addAll(polygon.innerRings());
+        double min = Double.MAX_VALUE;
+        for (LinearRing ring : rings) {
+            int m = ring.ax.length;
+            for (int i = 0, j = m - 1; i < m; j = i++) {
+                double dx = ring.ax[i] - ring.ax[j];
+                double dy = ring.ay[i] - ring.ay[j];
+                double t = ((x - ring.ax[j]) * dx + (y - ring.ay[j]) * dy) / (dx * dx + dy * dy);
+                t = Math.max(0, Math.min(1, t));
+                min = Math.min(min, Math.hypot(ring.ax[j] + t * dx - x, ring.ay[j] + t * dy - y));
+            }
+        }
+        return min;
+    }
+
+    private static Polygon polygon(Random random) {
+        Polygon polygon = new Polygon(blob(random, 0, 0, 100, 20000));
+        polygon.addInnerRing(blob(random, 10, 10, 20, 2000));
+        return polygon;
+    }
+
+    @Test
+    public void testLevels() {
+        Polygon polygon = polygon(new Random(3));
+        LodPolygon lod = new LodPolygon(polygon);
+        assertTrue(lod.numberOfLevels() > 3);
+        assertSame(polygon, lod.polygon(0));
+        assertSame(polygon, lod.polygon());
+
+        Polygon coarsest = lod.polygon(Double.MAX_VALUE);
+        assertTrue(coarsest.outerRing().numberOfSides() < 100);
+        assertEquals(1, coarsest.innerRings().size());
+    }
+
+    @Test
+    public void testExactQueries() {
+        Random random = new Random(5);
+        Polygon polygon = polygon(random);
+        LodPolygon lod = new LodPolygon(polygon);
+        for (int i = 0; i < 20000; i++) {
+            double x = random.nextDouble() * 240 - 120;
+            double y = random.nextDouble() * 240 - 120;
+            assertEquals(polygon.contains(x, y), lod.contains(x, y, 0));
+
+            double size = random.nextDouble() * 20 + 0.01;
+            BoundingBox bb = new BoundingBox(x, y, x + size, y + size);
+            assertEquals(polygon.overlaps(bb), lod.overlaps(bb, 0));
+        }
+    }
+
+    @Test
+    public void testCoarseQueries() {
+        Random random = new Random(7);
+        Polygon polygon = polygon(random);
+        LodPolygon lod = new LodPolygon(polygon);
+        double tolerance = 1;
+        int wrong = 0;
+        for (int i = 0; i < 2000; i++) {
+            double x = random.nextDouble() * 240 - 120;
+            double y = random.nextDouble() * 240 - 120;
+            if (polygon.contains(x, y) != lod.contains(x, y, tolerance)) {
+                // only coordinates near the boundary are answered differently
+                assertTrue(distanceToBoundary(polygon, x, y) <= tolerance * 2);
+                wrong++;
+            }
+        }
+        assertTrue(wrong < 100);
+    }
+}
@@ -1,11 +1,15 @@
 package com.icomputational.geometry;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -69,4 +73,56 @@ public class PolygonTest {
 
         assertFalse(polygon.overlaps(new BoundingBox(2, 2, 3, 3)));
     }
+
+    /**
+     * Split each edge of a ring into pieces.
+     */
+    private static List<Point> densify(List<Point> vertices, int pieces) {
+        List<Point> result = new ArrayList<Point>();
+        for (int i = 0; i < vertices.size(); i++) {
+            Point from = vertices.get(i);
+            Point to = vertices.get((i + 1) % vertices.size());
+            for (int j = 0; j < pieces; j++) {
+                result.add(from.interpolate(to, (double) j / pieces));
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testContainsAll() {
+        List<Point> outer = Arrays.asList(new Point(1, 1), new Point(1, -1), new Point(-1, -1), new Point(0, 0),
+            new Point(-1, 1));
+        List<Point> inner = Arrays
+            .asList(new Point(0.1, -0.9), new Point(0.9, -0.9), new Point(0.9, -0.1), new Point(0.1, -0.1));
+
+        // points on a grid through vertices, and random points
+        Random random = new Random(31);
+        int n = 61 * 61 + 5000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            if (i < 61 * 61) {
+                xs[i] = -1.5 + (i % 61) * 0.05;
+                ys[i] = -1.5 + (i / 61) * 0.05;
+            } else {
+                xs[i] = random.nextDouble() * 3 - 1.5;
+                ys[i] = random.nextDouble() * 3 - 1.5;
+            }
+        }
+
+        // small polygons are checked point by point, and large ones are checked by batches
+        for (int pieces : new int[] {1, 20}) {
+            Polygon polygon = new Polygon(new LinearRing(densify(outer, pieces)));
+            polygon.addInnerRing(new LinearRing(densify(inner, pieces)));
+
+            BitSet result = new BitSet();
+            result.set(n + 10);
+            polygon.containsAll(xs, ys, result);
+            for (int i = 0; i < n; i++) {
+                assertEquals(polygon.contains(xs[i], ys[i]), result.get(i));
+            }
+            assertTrue(result.get(n + 10));
+        }
+    }
 }
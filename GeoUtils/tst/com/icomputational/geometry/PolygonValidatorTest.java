@@ -0,0 +1,108 @@
+package com.icomputational.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class PolygonValidatorTest {
+
+    private static LinearRing ring(double... coordinates) {
+        List<Point> vertices = new ArrayList<Point>();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            vertices.add(new Point(coordinates[i], coordinates[i + 1]));
+        }
+        return new LinearRing(vertices);
+    }
+
+    private static LinearRing square(double x, double y, double size) {
+        // clockwise for inner rings
+        return ring(x, y, x, y + size, x + size, y + size, x + size, y);
+    }
+
+    @Test
+    public void testValid() {
+        Polygon polygon = new Polygon(ring(0, 0, 10, 0, 10, 10, 0, 10));
+        polygon.addInnerRing(square(1, 1, 2));
+        polygon.addInnerRing(square(5, 5, 2));
+        PolygonValidator validator = new PolygonValidator();
+        assertTrue(validator.validate(polygon).isValid());
+
+        polygon = new Polygon(ring(0, 0, 0, 10, 10, 10, 10, 0));
+        PolygonValidator.Report report = validator.validate(polygon);
+        assertFalse(report.isValid());
+        assertTrue(report.has(PolygonValidator.WRONG_ORIENTATION));
+        assertTrue(new PolygonValidator(false).validate(polygon).isValid());
+    }
+
+    @Test
+    public void testRings() {
+        PolygonValidator validator = new PolygonValidator(false);
+        // a bow tie, whose area is zero
+        PolygonValidator.Report report = validator.validate(new Polygon(ring(0, 0, 2, 2, 2, 0, 0, 2)));
+        assertTrue(report.has(PolygonValidator.DEGENERATE_RING));
+
+        report = validator.validate(new Polygon(ring(0, 0, 4, 4, 4, 0, 0, 2)));
+        assertEquals(1, report.issues().size());
+        assertEquals(PolygonValidator.SELF_INTERSECTION, report.issues().get(0).type());
+
+        // an inner ring crosses the outer ring
+        Polygon polygon = new Polygon(ring(0, 0, 10, 0, 10, 10, 0, 10));
+        polygon.addInnerRing(square(8, 4, 4));
+        report = validator.validate(polygon);
+        assertEquals(PolygonValidator.HOLE_OUTSIDE_SHELL, report.issues().get(0).type());
+
+        polygon = new Polygon(ring(0, 0, 10, 0, 10, 10, 0, 10));
+        polygon.addInnerRing(square(8, 4, 2));
+        report = validator.validate(polygon);
+        assertEquals(1, report.issues().size());
+        PolygonValidator.Issue issue = report.issues().get(0);
+        assertEquals(PolygonValidator.RINGS_INTERSECT, issue.type());
+        assertEquals(0, issue.ring());
+        assertEquals(1, issue.other());
+        assertEquals(10, issue.point().x(), 0);
+    }
+
+    @Test
+    public void testHoles() {
+        PolygonValidator validator = new PolygonValidator();
+        // an inner ring in the notch of a U shape is within the bounding box but outside of the outer ring
+        Polygon polygon = new Polygon(ring(0, 0, 10, 0, 10, 10, 7, 10, 7, 3, 3, 3, 3, 10, 0, 10));
+        polygon.addInnerRing(square(4, 5, 2));
+        polygon.addInnerRing(square(1, 1, 1));
+        PolygonValidator.Report report = validator.validate(polygon);
+        assertEquals(1, report.issues().size());
+        assertEquals(PolygonValidator.HOLE_OUTSIDE_SHELL, report.issues().get(0).type());
+        assertEquals(1, report.issues().get(0).ring());
+
+        polygon = new Polygon(ring(0, 0, 10, 0, 10, 10, 0, 10));
+        polygon.addInnerRing(square(1, 1, 6));
+        polygon.addInnerRing(square(8, 8, 1));
+        polygon.addInnerRing(square(2, 2, 2));
+        report = validator.validate(polygon);
+        assertEquals(1, report.issues().size());
+        PolygonValidator.Issue issue = report.issues().get(0);
+        assertEquals(PolygonValidator.NESTED_HOLES, issue.type());
+        assertEquals(3, issue.ring());
+        assertEquals(1, issue.other());
+    }
+
+    @Test
+    public void testValidateInParallel() {
+        List<Polygon> polygons = new ArrayList<Polygon>();
+        for (int i = 0; i < 100; i++) {
+            Polygon polygon = new Polygon(ring(0, 0, 10, 0, 10, 10, 0, 10));
+            polygon.addInnerRing(square(1, 1, i % 2 == 0 ? 2 : 20));
+            polygons.add(polygon);
+        }
+        List<PolygonValidator.Report> reports = new PolygonValidator().validate(polygons);
+        assertEquals(polygons.size(), reports.size());
+        for (int i = 0; i < polygons.size(); i++) {
+            assertEquals(i % 2 == 0, reports.get(i).isValid());
+        }
+        assertTrue(new PolygonValidator().validate(Arrays.<Polygon>asList()).isEmpty());
+    }
+}
@@ -137,6 +137,38 @@ public class PolylineTest {
         assertNear(new Point(-1, 0), polyline.interpolate(0.5, -1));
     }
 
+    @Test
+    public void testInterpolateAll() {
+        Polyline polyline = new Polyline(toPoints(culverBlvd, stereographic));
+        double[] proportions = new double[101];
+        for (int i = 0; i < proportions.length; i++) {
+            proportions[i] = i / 100.0;
+        }
+        double[] xs = new double[proportions.length];
+        double[] ys = new double[proportions.length];
+        polyline.interpolateAll(proportions, 0.0001, xs, ys);
+        for (int i = 0; i < proportions.length; i++) {
+            assertEquals(polyline.interpolate(proportions[i], 0.0001), new Point(xs[i], ys[i]));
+        }
+
+        // unsorted proportions are located one by one
+        double[] unsorted = {0.7, 0.2, 1, 0, 0.5};
+        xs = new double[unsorted.length];
+        ys = new double[unsorted.length];
+        polyline.interpolateAll(unsorted, 0, xs, ys);
+        for (int i = 0; i < unsorted.length; i++) {
+            assertEquals(polyline.interpolate(unsorted[i]), new Point(xs[i], ys[i]));
+        }
+        assertEquals(polyline.interpolate(1), new Point(polyline.x(polyline.numberOfPoints() - 1),
+            polyline.y(polyline.numberOfPoints() - 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInterpolateAllLength() {
+        Polyline polyline = new Polyline(new Point[] { new Point(0, 0), new Point(1, 1) });
+        polyline.interpolateAll(new double[2], 0, new double[2], new double[1]);
+    }
+
     private void assertNear(Point p1, Point p2) {
         assertTrue(p1 + "<>" + p2, p1.distance(p2) < 1E-15);
     }
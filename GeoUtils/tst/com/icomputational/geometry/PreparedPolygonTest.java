@@ -0,0 +1,79 @@
+package com.icomputational.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class PreparedPolygonTest {
+
+    @Test
+    public void testSameAsPolygon() {
+        Random random = new Random(17);
+        Polygon polygon = new Polygon(GeometryFixtures.star(random, 0, 0, 100, 5000));
+        polygon.addInnerRing(GeometryFixtures.star(random, 10, 10, 30, 1000));
+        PreparedPolygon prepared = new PreparedPolygon(polygon);
+        assertEquals(polygon.boundingBox(), prepared.boundingBox());
+
+        int inside = 0;
+        for (int i = 0; i < 20000; i++) {
+            double x = random.nextDouble() * 240 - 120;
+            double y = random.nextDouble() * 240 - 120;
+            assertEquals(polygon.contains(x, y), prepared.contains(x, y));
+            if (prepared.contains(x, y)) {
+                inside++;
+            }
+
+            double size = random.nextDouble() * 20 + 0.01;
+            BoundingBox bb = new BoundingBox(x, y, x + size, y + size);
+            assertEquals(polygon.overlaps(bb), prepared.overlaps(bb));
+        }
+        assertTrue(inside > 0);
+
+        // the box is inside of the hole
+        assertFalse(prepared.overlaps(new BoundingBox(9, 9, 11, 11)));
+        assertFalse(prepared.contains(10, 10));
+        assertTrue(prepared.overlaps(new BoundingBox(-200, -200, 200, 200)));
+    }
+
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        Random random = new Random(23);
+        final Polygon polygon = new Polygon(GeometryFixtures.star(random, 0, 0, 100, 10000));
+        final PreparedPolygon prepared = new PreparedPolygon(polygon);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 8; t++) {
+                final long seed = t;
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        Random random = new Random(seed);
+                        for (int i = 0; i < 1000; i++) {
+                            double x = random.nextDouble() * 240 - 120;
+                            double y = random.nextDouble() * 240 - 120;
+                            if (polygon.contains(x, y) != prepared.contains(x, y)) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
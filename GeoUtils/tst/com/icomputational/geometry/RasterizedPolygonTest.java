@@ -0,0 +1,70 @@
+package com.icomputational.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RasterizedPolygonTest {
+
+    @Test
+    public void testSameAsPolygon() {
+        Random random = new Random(29);
+        List<Point> vertices = new ArrayList<Point>();
+        for (int i = 0; i < 3000; i++) {
+            double angle = 2 * Math.PI * i / 3000;
+            double r = 100 + random.nextDouble();
+            vertices.add(new Point(r * Math.cos(angle), 0.5 * r * Math.sin(angle)));
+        }
+        Polygon polygon = new Polygon(new LinearRing(vertices));
+        polygon.addInnerRing(new LinearRing(Arrays.asList(new Point(-20, -10), new Point(20, -10), new Point(20, 10),
+            new Point(-20, 10))));
+
+        RasterizedPolygon rasterized = new RasterizedPolygon(polygon);
+        assertTrue(rasterized.boundaryRatio() < 0.5);
+        for (int i = 0; i < 100000; i++) {
+            double x = random.nextDouble() * 220 - 110;
+            double y = random.nextDouble() * 120 - 60;
+            assertEquals(polygon.contains(x, y), rasterized.contains(x, y));
+        }
+
+        assertFalse(rasterized.contains(0, 0));
+        assertTrue(rasterized.contains(40, 0));
+        assertTrue(rasterized.overlaps(new BoundingBox(-25, -15, -15, -5)));
+        assertFalse(rasterized.overlaps(new BoundingBox(-5, -5, 5, 5)));
+    }
+
+    @Test
+    public void testHoleInsideCell() {
+        List<Point> vertices = new ArrayList<Point>();
+        for (int i = 0; i < 3000; i++) {
+            double angle = 2 * Math.PI * i / 3000;
+            vertices.add(new Point(100 * Math.cos(angle), 100 * Math.sin(angle)));
+        }
+        Polygon polygon = new Polygon(new LinearRing(vertices));
+        // a diamond hole whose edges don't cross any side of the cell around it
+        polygon.addInnerRing(new LinearRing(Arrays.asList(new Point(0.2, 0.05), new Point(0.35, 0.2),
+            new Point(0.2, 0.35), new Point(0.05, 0.2))));
+
+        RasterizedPolygon rasterized = new RasterizedPolygon(polygon);
+        assertFalse(polygon.contains(0.2, 0.2));
+        assertFalse(rasterized.contains(0.2, 0.2));
+        assertTrue(rasterized.contains(0.06, 0.06));
+    }
+
+    @Test
+    public void testCoarseGrid() {
+        Polygon polygon = new Polygon(new LinearRing(Arrays.asList(new Point(0, 0), new Point(10, 0),
+            new Point(10, 10), new Point(5, 1), new Point(0, 10))));
+        RasterizedPolygon rasterized = new RasterizedPolygon(polygon, 1);
+        for (double x = 0; x <= 10; x += 0.25) {
+            for (double y = 0; y <= 10; y += 0.25) {
+                assertEquals(polygon.contains(x, y), rasterized.contains(x, y));
+            }
+        }
+    }
+}
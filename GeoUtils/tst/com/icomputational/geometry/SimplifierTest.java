@@ -0,0 +1,188 @@
+package com.icomputational.geometry;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SimplifierTest {
+
+    private static double distance(double x, double y, double x0, double y0, double x1, double y1) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double t = Math.max(0, Math.min(1, ((x - x0) * dx + (y - y0) * dy) / (dx * dx + dy * dy)));
+        return Math.hypot(x0 + t * dx - x, y0 + t * dy - y);
+    }
+
+    @Test
+    public void testDouglasPeuckerPolyline() {
+        Random random = new Random(3);
+        List<Point> points = new ArrayList<Point>();
+        for (int i = 0; i < 1000; i++) {
+            points.add(new Point(i, Math.sin(i / 50.0) * 100 + random.nextDouble()));
+        }
+        Polyline polyline = new Polyline(points);
+        Polyline simplified = new DouglasPeuckerSimplifier(2).simplify(polyline);
+        assertTrue(simplified.ax.length < 100);
+        assertEquals(0, simplified.ax[0], 0);
+        assertEquals(999, simplified.ax[simplified.ax.length - 1], 0);
+
+        // each removed point is within the tolerance of the segment replacing it
+        int j = 0;
+        for (int i = 0; i < polyline.ax.length; i++) {
+            while (simplified.ax[j + 1] < polyline.ax[i]) {
+                j++;
+            }
+            assertTrue(distance(polyline.ax[i], polyline.ay[i], simplified.ax[j], simplified.ay[j],
+                simplified.ax[j + 1], simplified.ay[j + 1]) <= 2);
+        }
+    }
+
+    @Test
+    public void testRemoveColinearVertices() {
+        LinearRing ring = new LinearRing(Arrays.asList(new Point(0, 0), new Point(1, 0), new Point(2, 0),
+            new Point(2, 1), new Point(2, 2), new Point(1, 2), new Point(0, 2), new Point(0, 1)));
+        LinearRing square = new LinearRing(Arrays.asList(new Point(0, 0), new Point(2, 0), new Point(2, 2),
+            new Point(0, 2)));
+        assertEquals(square, new DouglasPeuckerSimplifier(0).simplify(ring));
+        assertEquals(square, new VisvalingamWhyattSimplifier(1E-9).simplify(ring));
+    }
+
+    @Test
+    public void testMinimumVertices() {
+        Random random = new Random(5);
+        LinearRing ring = GeometryFixtures.star(random, 0, 0, 100, 1000);
+        assertEquals(3, new DouglasPeuckerSimplifier(1000).simplify(ring).numberOfSides());
+        assertEquals(3, new VisvalingamWhyattSimplifier(1E9).simplify(ring).numberOfSides());
+
+        Polyline polyline = new Polyline(Arrays.asList(new Point(0, 0), new Point(1, 1), new Point(2, 0)));
+        assertEquals(2, new VisvalingamWhyattSimplifier(10).simplify(polyline).ax.length);
+    }
+
+    @Test
+    public void testVisvalingamWhyatt() {
+        Random random = new Random(7);
+        LinearRing ring = GeometryFixtures.star(random, 0, 0, 100, 5000);
+        LinearRing simplified = new VisvalingamWhyattSimplifier(10).simplify(ring);
+        assertTrue(simplified.numberOfSides() < ring.numberOfSides());
+        assertTrue(simplified.numberOfSides() > 3);
+
+        // a larger area removes more vertices
+        assertTrue(new VisvalingamWhyattSimplifier(100).simplify(ring).numberOfSides() < simplified.numberOfSides());
+    }
+
+    @Test
+    public void testMillionVertices() {
+        int n = 1000000;
+        List<Point> vertices = new ArrayList<Point>(n);
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            // a ring spirals slowly inside, where the farthest vertex is near the end of each range
+            double r = 1000 - i * 1E-4;
+            vertices.add(new Point(r * Math.cos(angle), r * Math.sin(angle)));
+        }
+        LinearRing ring = new LinearRing(vertices);
+        assertTrue(new DouglasPeuckerSimplifier(0.01).simplify(ring).numberOfSides() < n / 10);
+        assertTrue(new VisvalingamWhyattSimplifier(0.01).simplify(ring).numberOfSides() < n / 10);
+    }
+
+    @Test
+    public void testKeepInnerRingInside() {
+        // the inner ring is inside of a small bump of the outer ring
+        Polygon polygon = new Polygon(new LinearRing(Arrays.asList(new Point(0, 0), new Point(10, 0),
+            new Point(10, 10), new Point(6, 10), new Point(5, 10.5), new Point(4, 10), new Point(0, 10))));
+        polygon.addInnerRing(new LinearRing(Arrays.asList(new Point(4.8, 10.1), new Point(5.2, 10.1),
+            new Point(5, 10.3))));
+
+        Polygon simplified = new DouglasPeuckerSimplifier(1).simplify(polygon);
+        assertEquals(0, simplified.outerRing().intersectRay(4.8, 10.1) % 2);
+
+        simplified = new DouglasPeuckerSimplifier(1, true).simplify(polygon);
+        assertEquals(1, simplified.outerRing().intersectRay(4.8, 10.1) % 2);
+        assertEquals(3, simplified.innerRings().get(0).numberOfSides());
+    }
+
+    @Test
+    public void testPreserveTopology() {
+        Random random = new Random(11);
+        for (int t = 0; t < 20; t++) {
+            Polygon polygon = new Polygon(GeometryFixtures.star(random, 0, 0, 100, 300));
+            polygon.addInnerRing(GeometryFixtures.star(random, 25, 0, 24, 50));
+            polygon.addInnerRing(GeometryFixtures.star(random, -25, 10, 24, 50));
+
+            Simplifier[] simplifiers = {new DouglasPeuckerSimplifier(25, true),
+                new VisvalingamWhyattSimplifier(1000, true)};
+            for (Simplifier simplifier : simplifiers) {
+                Polygon simplified = simplifier.simplify(polygon);
+                List<LinearRing> rings = new ArrayList<LinearRing>();
+                rings.add(simplified.outerRing());
+                rings.addAll(simplified.innerRings());
+                assertTrue(simplified.outerRing().numberOfSides() < 300);
+                assertFalse(crosses(rings));
+                for (LinearRing ring : simplified.innerRings()) {
+                    assertEquals(1, simplified.outerRing().intersectRay(ring.ax[0], ring.ay[0]) % 2);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSimplifyInParallel() {
+        Random random = new Random(13);
+        List<Polygon> polygons = new ArrayList<Polygon>();
+        List<Polyline> polylines = new ArrayList<Polyline>();
+        for (int i = 0; i < 100; i++) {
+            LinearRing ring = GeometryFixtures.star(random, i * 300, 0, 100, 1000);
+            polygons.add(new Polygon(ring));
+            List<Point> points = new ArrayList<Point>();
+            for (int j = 0; j < ring.ax.length; j++) {
+                points.add(new Point(ring.ax[j], ring.ay[j]));
+            }
+            polylines.add(new Polyline(points));
+        }
+
+        Simplifier simplifier = new DouglasPeuckerSimplifier(5, true);
+        List<Polygon> simplifiedPolygons = simplifier.simplifyPolygons(polygons);
+        List<Polyline> simplifiedPolylines = simplifier.simplifyPolylines(polylines);
+        assertEquals(polygons.size(), simplifiedPolygons.size());
+        assertEquals(polylines.size(), simplifiedPolylines.size());
+        for (int i = 0; i < polygons.size(); i++) {
+            assertEquals(simplifier.simplify(polygons.get(i)).outerRing(), simplifiedPolygons.get(i).outerRing());
+            assertArrayEquals(simplifier.simplify(polylines.get(i)).ax, simplifiedPolylines.get(i).ax, 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTolerance() {
+        new DouglasPeuckerSimplifier(-1);
+    }
+
+    /**
+     * Check if any two non-adjacent edges of rings intersect, by brute force.
+     */
+    private static boolean crosses(List<LinearRing> rings) {
+        List<double[]> edges = new ArrayList<double[]>();
+        for (LinearRing ring : rings) {
+            int m = ring.ax.length;
+            for (int i = 0, j = m - 1; i < m; j = i++) {
+                edges.add(new double[] {ring.ax[j], ring.ay[j], ring.ax[i], ring.ay[i]});
+            }
+        }
+
+        for (int i = 0; i < edges.size(); i++) {
+            for (int j = i + 1; j < edges.size(); j++) {
+                double[] e = edges.get(i);
+                double[] f = edges.get(j);
+                boolean adjacent = (e[2] == f[0] && e[3] == f[1]) || (e[0] == f[2] && e[1] == f[3]);
+                if (!adjacent && GeometryFixtures.intersects(e, f)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
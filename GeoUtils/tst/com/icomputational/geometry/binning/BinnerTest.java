@@ -0,0 +1,124 @@
+package com.icomputational.geometry.binning;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Projection;
+
+public class BinnerTest {
+
+    @Test
+    public void testSquareBinning() {
+        SquareBinning binning = new SquareBinning(10, 5, 5);
+        long cell = binning.cell(-1, 16);
+        assertEquals(-1, SquareBinning.column(cell));
+        assertEquals(1, SquareBinning.row(cell));
+        assertEquals(0, binning.centre(cell).x(), 1E-9);
+        assertEquals(20, binning.centre(cell).y(), 1E-9);
+        assertEquals(cell, binning.cell(0, 20));
+    }
+
+    @Test
+    public void testHexBinning() {
+        Random random = new Random(3);
+        HexBinning binning = new HexBinning(2);
+        int[][] directions = {{1, 0}, {1, -1}, {0, -1}, {-1, 0}, {-1, 1}, {0, 1}};
+        for (int i = 0; i < 10000; i++) {
+            double x = random.nextDouble() * 200 - 100;
+            double y = random.nextDouble() * 200 - 100;
+            long cell = binning.cell(x, y);
+            double distance = binning.centre(cell).distance(x, y);
+            assertTrue(distance <= 2 + 1E-9);
+
+            // the centre of the cell is nearer than centres of all neighbour cells
+            for (int[] d : directions) {
+                long neighbour = SquareBinning.pack(HexBinning.q(cell) + d[0], HexBinning.r(cell) + d[1]);
+                assertTrue(distance <= binning.centre(neighbour).distance(x, y) + 1E-9);
+            }
+        }
+        assertEquals(0L, binning.cell(0, 0));
+    }
+
+    @Test
+    public void testBin() {
+        Random random = new Random(9);
+        int n = 300000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextGaussian() * 100;
+            ys[i] = random.nextGaussian() * 100;
+            weights[i] = i % 3;
+        }
+
+        SquareBinning binning = new SquareBinning(7.5);
+        BinTable table = new Binner(binning).bin(xs, ys, weights);
+        BinTable expected = new BinTable();
+        for (int i = 0; i < n; i++) {
+            expected.add(binning.cell(xs[i], ys[i]), weights[i]);
+        }
+
+        assertEquals(expected.size(), table.size());
+        long[] cells = table.cells();
+        long[] expectedCells = expected.cells();
+        Arrays.sort(cells);
+        Arrays.sort(expectedCells);
+        assertArrayEquals(expectedCells, cells);
+        long total = 0;
+        for (long cell : cells) {
+            assertEquals(expected.count(cell), table.count(cell));
+            assertEquals(expected.sum(cell), table.sum(cell), 1E-6);
+            total += table.count(cell);
+        }
+        assertEquals(n, total);
+        assertEquals(0, table.count(SquareBinning.pack(1000, 1000)));
+    }
+
+    @Test
+    public void testProjection() {
+        Projection<double[]> projection = new Projection<double[]>() {
+            @Override
+            public Point toPoint(double[] coordinate) {
+                return new Point(coordinate[0] * 2, coordinate[1] * 2);
+            }
+
+            @Override
+            public double[] toCoordinate(Point p) {
+                return new double[] {p.x() / 2, p.y() / 2};
+            }
+        };
+
+        BinTable table = new Binner(new SquareBinning(1)).bin(
+            Arrays.asList(new double[] {0.1, 0.1}, new double[] {0.2, 0.2}, new double[] {0.6, 0.6}), projection);
+        assertEquals(2, table.size());
+        assertEquals(2, table.count(SquareBinning.pack(0, 0)));
+        assertEquals(1, table.count(SquareBinning.pack(1, 1)));
+
+        // chunks of many coordinates are accumulated in parallel
+        Random random = new Random(9);
+        int n = 300000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        List<double[]> coordinates = new ArrayList<double[]>(n);
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextGaussian() * 10;
+            ys[i] = random.nextGaussian() * 10;
+            coordinates.add(new double[] {xs[i] / 2, ys[i] / 2});
+        }
+        Binner binner = new Binner(new HexBinning(3));
+        BinTable expected = binner.bin(xs, ys);
+        table = binner.bin(coordinates, projection);
+        assertEquals(expected.size(), table.size());
+        for (long cell : expected.cells()) {
+            assertEquals(expected.count(cell), table.count(cell));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.icomputational.geometry.cluster;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DbscanTest {
+
+    private static boolean[] naiveCores(double[] xs, double[] ys, double eps, int minPoints) {
+        boolean[] cores = new boolean[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            int count = 0;
+            for (int j = 0; j < xs.length; j++) {
+                if (distance(xs, ys, i, j) <= eps * eps) {
+                    count++;
+                }
+            }
+            cores[i] = count >= minPoints;
+        }
+        return cores;
+    }
+
+    /**
+     * Returns the square distance of two points.
+     */
+    private static double distance(double[] xs, double[] ys, int i, int j) {
+        double dx = xs[i] - xs[j];
+        double dy = ys[i] - ys[j];
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Verify labels against the definition of DBSCAN by brute force.
+     */
+    private static void verify(double[] xs, double[] ys, double eps, int minPoints, int[] labels) {
+        boolean[] cores = naiveCores(xs, ys, eps, minPoints);
+        int n = xs.length;
+        for (int i = 0; i < n; i++) {
+            boolean nearCore = false;
+            boolean sameCluster = false;
+            for (int j = 0; j < n; j++) {
+                if (!cores[j] || distance(xs, ys, i, j) > eps * eps) {
+                    continue;
+                }
+
+                nearCore = true;
+                sameCluster |= labels[i] == labels[j];
+                if (cores[i]) {
+                    // core neighbours are always in the same cluster
+                    assertEquals(labels[i], labels[j]);
+                }
+            }
+            if (nearCore) {
+                assertTrue(labels[i] >= 0);
+                assertTrue(sameCluster);
+            } else {
+                assertEquals(Dbscan.NOISE, labels[i]);
+            }
+        }
+    }
+
+    /**
+     * Label points by the definition of DBSCAN by brute force, with clusters numbered in order of their first
+     * points and border points assigned to the nearest-indexed core point.
+     */
+    private static int[] naiveLabels(double[] xs, double[] ys, double eps, int minPoints) {
+        boolean[] cores = naiveCores(xs, ys, eps, minPoints);
+        int n = xs.length;
+        int[] components = new int[n];
+        Arrays.fill(components, Dbscan.NOISE);
+        int[] stack = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (!cores[i] || components[i] != Dbscan.NOISE) {
+                continue;
+            }
+
+            int size = 0;
+            components[i] = i;
+            stack[size++] = i;
+            while (size > 0) {
+                int p = stack[--size];
+                for (int q = 0; q < n; q++) {
+                    if (cores[q] && components[q] == Dbscan.NOISE && distance(xs, ys, p, q) <= eps * eps) {
+                        components[q] = i;
+                        stack[size++] = q;
+                    }
+                }
+            }
+        }
+
+        int[] labels = new int[n];
+        int[] clusters = new int[n];
+        Arrays.fill(clusters, Dbscan.NOISE);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int core = cores[i] ? i : Dbscan.NOISE;
+            for (int j = 0; core == Dbscan.NOISE && j < n; j++) {
+                if (cores[j] && distance(xs, ys, i, j) <= eps * eps) {
+                    core = j;
+                }
+            }
+            if (core == Dbscan.NOISE) {
+                labels[i] = Dbscan.NOISE;
+                continue;
+            }
+
+            int component = components[core];
+            if (clusters[component] == Dbscan.NOISE) {
+                clusters[component] = count++;
+            }
+            labels[i] = clusters[component];
+        }
+        return labels;
+    }
+
+    private static void generate(Random random, double[] xs, double[] ys, int clusters) {
+        double[] cx = new double[clusters];
+        double[] cy = new double[clusters];
+        for (int i = 0; i < clusters; i++) {
+            cx[i] = random.nextDouble() * 1000;
+            cy[i] = random.nextDouble() * 1000;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            if (i % 10 == 0) {
+                // noise
+                xs[i] = random.nextDouble() * 1000;
+                ys[i] = random.nextDouble() * 1000;
+            } else {
+                int c = random.nextInt(clusters);
+                xs[i] = cx[c] + random.nextGaussian() * 20;
+                ys[i] = cy[c] + random.nextGaussian() * 20;
+            }
+        }
+    }
+
+    @Test
+    public void testSimple() {
+        double[] xs = {0, 1, 2, 10, 11, 12, 50};
+        double[] ys = {0, 0, 0, 10, 10, 10, 50};
+        int[] labels = new Dbscan(1.5, 3).cluster(xs, ys);
+        assertArrayEquals(new int[] {0, 0, 0, 1, 1, 1, Dbscan.NOISE}, labels);
+
+        assertEquals(0, new Dbscan(1, 1).cluster(new double[0], new double[0]).length);
+    }
+
+    @Test
+    public void testCluster() {
+        Random random = new Random(5);
+        double[] xs = new double[10000];
+        double[] ys = new double[10000];
+        generate(random, xs, ys, 8);
+
+        int[] labels = new Dbscan(5, 8).cluster(xs, ys);
+        verify(xs, ys, 5, 8, labels);
+        int max = -1;
+        for (int label : labels) {
+            max = Math.max(max, label);
+        }
+        assertTrue(max >= 7);
+
+        assertArrayEquals(labels, new Dbscan(5, 8).cluster(xs, ys));
+    }
+
+    @Test
+    public void testDense() {
+        // hundreds of neighbours per point, with duplicated points on a coarse grid
+        Random random = new Random(7);
+        double[] xs = new double[6000];
+        double[] ys = new double[6000];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = Math.rint(random.nextGaussian() * 30);
+            ys[i] = Math.rint(random.nextGaussian() * 30);
+        }
+
+        assertArrayEquals(naiveLabels(xs, ys, 6, 40), new Dbscan(6, 40).cluster(xs, ys));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidArguments() {
+        new Dbscan(1, 2).cluster(new double[2], new double[3]);
+    }
+}
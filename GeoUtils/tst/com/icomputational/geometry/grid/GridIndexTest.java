@@ -0,0 +1,115 @@
+package com.icomputational.geometry.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Shape;
+import com.icomputational.geometry.SpatialIndex;
+import com.icomputational.geometry.rtree.Rectangle;
+import com.icomputational.geometry.rtree.RsTree;
+
+public class GridIndexTest {
+
+    @Test
+    public void testSimple() {
+        SpatialIndex index = new GridIndex(1);
+        Rectangle rect1 = new Rectangle(0, 0, 10, 10);
+        Rectangle rect2 = new Rectangle(-1, -3, 3, 8);
+        index.insert(rect1);
+        index.insert(rect2);
+        for (int i = 0; i < 100; i++) {
+            index.insert(new Rectangle(i * 5, i * 10, i * 5 + 3, i * 10 + 10));
+        }
+        assertEquals(102, index.size());
+        assertEquals(new BoundingBox(-1, -3, 498, 1000), index.boundingBox());
+        assertNull(new GridIndex(1).boundingBox());
+
+        List<Shape> shapes = index.search(new Point(1, 9));
+        assertEquals(2, shapes.size());
+        assertTrue(shapes.contains(rect1));
+
+        // shapes covering many cells are returned only once
+        shapes = index.search(new BoundingBox(-5, -5, 20, 20));
+        assertEquals(4, shapes.size());
+
+        assertTrue(index.delete(rect1));
+        assertFalse(index.delete(rect1));
+        assertEquals(101, index.size());
+        assertEquals(2, index.search(new Point(1, 7)).size());
+        assertFalse(index.search(new Point(1, 7)).contains(rect1));
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(7);
+        SpatialIndex grid = new GridIndex(2);
+        SpatialIndex tree = new RsTree(16, 4);
+        for (int i = 0; i < 2000; i++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            Rectangle rect = new Rectangle(x, y, x + random.nextDouble() * 3 + 0.01, y + random.nextDouble() + 0.01);
+            grid.insert(rect);
+            tree.insert(rect);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            double x = random.nextDouble() * 120 - 10;
+            double y = random.nextDouble() * 120 - 10;
+            BoundingBox bb = new BoundingBox(x, y, x + random.nextDouble() * 30 + 0.1, y + random.nextDouble() * 30 + 0.1);
+            List<Shape> found = grid.search(bb);
+            assertEquals(found.size(), new HashSet<Shape>(found).size());
+            assertEquals(new HashSet<Shape>(tree.search(bb)), new HashSet<Shape>(found));
+
+            Point p = new Point(x, y);
+            assertEquals(new HashSet<Shape>(tree.search(p)), new HashSet<Shape>(grid.search(p)));
+
+            List<Shape> nearest = grid.nearest(p, 5);
+            List<Shape> expected = tree.nearest(p, 5);
+            assertEquals(5, nearest.size());
+            for (int j = 0; j < 5; j++) {
+                assertEquals(expected.get(j).distance(x, y), nearest.get(j).distance(x, y), 1E-12);
+            }
+        }
+
+        // far away from all shapes
+        assertEquals(3, grid.nearest(new Point(10000, -10000), 3).size());
+    }
+
+    @Test
+    public void testConcurrentWrites() throws InterruptedException {
+        final GridIndex index = new GridIndex(1, 16);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        double x = (i % 50) + offset * 0.2;
+                        double y = i / 50;
+                        index.insert(new Rectangle(x, y, x + 0.1, y + 0.1));
+                    }
+                }
+            };
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4000, index.size());
+        assertEquals(4000, index.search(new BoundingBox(-1, -1, 51, 51)).size());
+    }
+}
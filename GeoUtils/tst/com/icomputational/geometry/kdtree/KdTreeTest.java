@@ -0,0 +1,158 @@
+package com.icomputational.geometry.kdtree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+
+public class KdTreeTest {
+
+    @Test
+    public void testSimple() {
+        List<Point> points = new ArrayList<Point>();
+        // duplicates and points on the same vertical or horizontal line
+        for (int i = 0; i < 100; i++) {
+            points.add(new Point(5, i));
+            points.add(new Point(i, 5));
+        }
+        points.add(new Point(5, 5));
+        KdTree tree = new KdTree(points, 4);
+        assertEquals(201, tree.size());
+
+        int[] ids = tree.range(5, 5, 5, 5);
+        Arrays.sort(ids);
+        assertArrayEquals(new int[] { 10, 11, 200 }, ids);
+        assertEquals(102, tree.range(5, 0, 5, 1000).length);
+        assertEquals(23, tree.range(new BoundingBox(0, 0, 10, 10)).length);
+        assertEquals(7, tree.within(new Point(5, 5), 1).length);
+
+        ids = tree.nearest(new Point(5, 2.9), 2);
+        assertArrayEquals(new int[] { 6, 4 }, ids);
+        assertEquals(201, tree.nearest(0, 0, 1000).length);
+        assertEquals(0, tree.nearest(0, 0, 0).length);
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(11);
+        // large enough to be built in parallel
+        int n = 200000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = Math.floor(random.nextDouble() * 1000);
+            ys[i] = random.nextDouble() * 1000;
+        }
+        KdTree tree = new KdTree(xs, ys);
+
+        for (int i = 0; i < 20; i++) {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            double w = random.nextDouble() * 50;
+            int[] ids = tree.range(x, y, x + w, y + w);
+            Arrays.sort(ids);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int j = 0; j < n; j++) {
+                if (xs[j] >= x && xs[j] <= x + w && ys[j] >= y && ys[j] <= y + w) {
+                    expected.add(j);
+                }
+            }
+            assertEquals(expected.size(), ids.length);
+            for (int j = 0; j < ids.length; j++) {
+                assertEquals(expected.get(j).intValue(), ids[j]);
+            }
+
+            assertEquals(count(xs, ys, x, y, w), tree.within(x, y, w).length);
+
+            ids = tree.nearest(x, y, 10);
+            assertEquals(10, ids.length);
+            double last = 0;
+            for (int id : ids) {
+                double d = Math.hypot(xs[id] - x, ys[id] - y);
+                assertTrue(d >= last);
+                last = d;
+            }
+            // no point outside of result is nearer than the farthest one in result
+            assertTrue(count(xs, ys, x, y, Math.nextDown(last)) < 10);
+        }
+    }
+
+    @Test
+    public void testDynamic() {
+        Random random = new Random(13);
+        DynamicKdTree tree = new DynamicKdTree(8, 16);
+        int n = 3000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        boolean[] deleted = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextInt(100);
+            ys[i] = random.nextInt(100);
+            assertEquals(i, tree.insert(xs[i], ys[i]));
+            if (i % 3 == 0) {
+                int id = random.nextInt(i + 1);
+                assertEquals(!deleted[id], tree.delete(id));
+                deleted[id] = true;
+            }
+        }
+        // delete most points to trigger a rebuild
+        for (int i = 0; i < n; i += 2) {
+            tree.delete(i);
+            deleted[i] = true;
+        }
+        assertFalse(tree.delete(0));
+        assertFalse(tree.delete(n));
+
+        int live = 0;
+        for (int i = 0; i < n; i++) {
+            live += deleted[i] ? 0 : 1;
+        }
+        assertEquals(live, tree.size());
+
+        for (int i = 0; i < 20; i++) {
+            double x = random.nextInt(100);
+            double y = random.nextInt(100);
+            int expected = 0;
+            for (int j = 0; j < n; j++) {
+                if (!deleted[j] && xs[j] >= x && xs[j] <= x + 10 && ys[j] == y) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, tree.range(x, y, x + 10, y).length);
+
+            int[] ids = tree.nearest(new Point(x, y), 5);
+            assertEquals(5, ids.length);
+            for (int id : ids) {
+                assertFalse(deleted[id]);
+            }
+            double farthest = Math.hypot(xs[ids[4]] - x, ys[ids[4]] - y);
+            int nearer = 0;
+            for (int j = 0; j < n; j++) {
+                if (!deleted[j] && Math.hypot(xs[j] - x, ys[j] - y) < farthest) {
+                    nearer++;
+                }
+            }
+            assertTrue(nearer < 5);
+        }
+    }
+
+    private static int count(double[] xs, double[] ys, double x, double y, double radius) {
+        int count = 0;
+        for (int i = 0; i < xs.length; i++) {
+            if (Math.hypot(xs[i] - x, ys[i] - y) <= radius) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
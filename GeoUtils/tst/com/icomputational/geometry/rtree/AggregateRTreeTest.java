@@ -0,0 +1,106 @@
+package com.icomputational.geometry.rtree;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Shape;
+
+public class AggregateRTreeTest {
+    private static final ToDoubleFunction<Shape> AREA = new ToDoubleFunction<Shape>() {
+        @Override
+        public double applyAsDouble(Shape shape) {
+            return ((Rectangle) shape).area();
+        }
+    };
+
+    private static void assertAggregate(List<Shape> shapes, BoundingBox bb, double min, double max,
+            Aggregate actual) {
+        int count = 0;
+        double sum = 0;
+        double low = Double.POSITIVE_INFINITY;
+        double high = Double.NEGATIVE_INFINITY;
+        for (Shape shape : shapes) {
+            double value = AREA.applyAsDouble(shape);
+            if ((bb == null || shape.overlaps(bb)) && value >= min && value <= max) {
+                count++;
+                sum += value;
+                low = Math.min(low, value);
+                high = Math.max(high, value);
+            }
+        }
+        assertEquals(count, actual.count());
+        assertEquals(sum, actual.sum(), 1E-6);
+        assertEquals(low, actual.min(), 0);
+        assertEquals(high, actual.max(), 0);
+    }
+
+    private static void assertQueries(AggregateRTree tree, List<Shape> shapes, Random random) {
+        assertAggregate(shapes, null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, tree.aggregate());
+        for (int i = 0; i < 50; i++) {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            double size = random.nextDouble() * 500 + 1;
+            BoundingBox bb = new BoundingBox(x, y, x + size, y + size);
+            assertAggregate(shapes, bb, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, tree.aggregate(bb));
+            assertAggregate(shapes, bb, 20, 60, tree.aggregate(bb, 20, 60));
+
+            int expected = 0;
+            for (Shape shape : shapes) {
+                double value = AREA.applyAsDouble(shape);
+                if (shape.overlaps(bb) && value >= 20 && value <= 60) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, tree.search(bb, 20, 60).size());
+        }
+    }
+
+    @Test
+    public void testAggregate() {
+        Random random = new Random(7);
+        AggregateRTree tree = new AggregateRTree(8, 3, AREA);
+        assertEquals(0, tree.aggregate().count());
+
+        List<Shape> shapes = new ArrayList<Shape>();
+        for (int i = 0; i < 2000; i++) {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            Rectangle rect = new Rectangle(x, y, x + random.nextDouble() * 10 + 0.1, y + random.nextDouble() * 10 + 0.1);
+            tree.insert(rect);
+            shapes.add(rect);
+        }
+        assertQueries(tree, shapes, random);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(tree.delete(shapes.remove(random.nextInt(shapes.size()))));
+        }
+        assertQueries(tree, shapes, random);
+
+        BoundingBox bb = new BoundingBox(100, 100, 600, 600);
+        List<Shape> remaining = new ArrayList<Shape>();
+        for (Shape shape : shapes) {
+            if (!shape.overlaps(bb)) {
+                remaining.add(shape);
+            }
+        }
+        tree.deleteAll(bb);
+        shapes = remaining;
+        assertQueries(tree, shapes, random);
+
+        for (int i = 0; i < 500; i++) {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            Rectangle rect = new Rectangle(x, y, x + random.nextDouble() * 10 + 0.1, y + random.nextDouble() * 10 + 0.1);
+            tree.insert(rect);
+            shapes.add(rect);
+        }
+        assertQueries(tree, shapes, random);
+    }
+}
@@ -0,0 +1,60 @@
+package com.icomputational.geometry.rtree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Shape;
+
+public class CompressedRTreeTest {
+
+    @Test
+    public void testQuantize() {
+        Random random = new Random(9);
+        for (int i = 0; i < 10000; i++) {
+            double min = (random.nextDouble() - 0.5) * 1E6;
+            double max = min + random.nextDouble() * 1E3;
+            double v = min + (max - min) * random.nextDouble();
+            assertTrue(CompressedRTree.decode(CompressedRTree.lower(v, min, max), min, max) <= v);
+            assertTrue(CompressedRTree.decode(CompressedRTree.upper(v, min, max), min, max) >= v);
+        }
+        assertEquals(5, CompressedRTree.decode(CompressedRTree.lower(5, 5, 5), 5, 5), 0);
+        assertEquals(5, CompressedRTree.decode(CompressedRTree.upper(5, 5, 5), 5, 5), 0);
+    }
+
+    @Test
+    public void testCompress() {
+        Random random = new Random(4);
+        RTree tree = new RTree(8, 3);
+        for (int i = 0; i < 5000; i++) {
+            // small shapes far from the origin lose most precision of 16-bit values
+            double x = 1E7 + random.nextGaussian() * 1000;
+            double y = -1E7 + random.nextDouble() * 10;
+            tree.insert(new Rectangle(x, y, x + random.nextDouble() * 1E-3 + 1E-6, y + 1E-6));
+        }
+
+        PackedRTree packed = tree.freeze();
+        CompressedRTree compressed = packed.compress();
+        assertEquals(5000, compressed.size());
+        assertEquals(packed.boundingBox(), compressed.boundingBox());
+
+        for (int i = 0; i < 200; i++) {
+            double x = 1E7 + random.nextGaussian() * 1000;
+            double y = -1E7 + random.nextDouble() * 10;
+            BoundingBox bb = new BoundingBox(x, y, x + random.nextDouble() * 20, y + random.nextDouble() * 0.1);
+            IndexAssert.assertSameResults(packed, compressed, bb, 3);
+
+            // every shape is found by its own corner
+            Shape shape = packed.nearest(new Point(x, y), 1).get(0);
+            Point corner = new Point(shape.boundingBox().minX(), shape.boundingBox().minY());
+            assertTrue(compressed.search(corner).contains(shape));
+            assertEquals(new HashSet<Shape>(packed.search(corner)), new HashSet<Shape>(compressed.search(corner)));
+        }
+    }
+}
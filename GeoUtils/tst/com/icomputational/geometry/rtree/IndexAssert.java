@@ -0,0 +1,38 @@
+package com.icomputational.geometry.rtree;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.List;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.ReadOnlySpatialIndex;
+import com.icomputational.geometry.Shape;
+
+/**
+ * Assertions comparing queries of two indexes of the same shapes.
+ */
+class IndexAssert {
+    /**
+     * Assert that both indexes find the same shapes overlapping a bounding box and containing its lower left
+     * corner, and the nearest shapes of the corner at the same distances.
+     */
+    static void assertSameResults(ReadOnlySpatialIndex expected, ReadOnlySpatialIndex actual, BoundingBox bb, int k) {
+        List<Shape> found = actual.search(bb);
+        assertEquals(expected.search(bb).size(), found.size());
+        assertEquals(new HashSet<Shape>(expected.search(bb)), new HashSet<Shape>(found));
+
+        double x = bb.minX();
+        double y = bb.minY();
+        Point point = new Point(x, y);
+        assertEquals(new HashSet<Shape>(expected.search(point)), new HashSet<Shape>(actual.search(point)));
+
+        List<Shape> nearest = expected.nearest(point, k);
+        List<Shape> actualNearest = actual.nearest(point, k);
+        assertEquals(nearest.size(), actualNearest.size());
+        for (int i = 0; i < nearest.size(); i++) {
+            assertEquals(nearest.get(i).distance(x, y), actualNearest.get(i).distance(x, y), 0);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.icomputational.geometry.rtree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Shape;
+
+public class PackedRTreeTest {
+
+    @Test
+    public void testSimple() {
+        assertTrue(new PackedRTree(Collections.<Shape> emptyList()).search(new Point(0, 0)).isEmpty());
+        assertTrue(new PackedRTree(Collections.<Shape> emptyList()).nearest(new Point(0, 0), 1).isEmpty());
+        assertNull(new PackedRTree(Collections.<Shape> emptyList()).boundingBox());
+
+        Rectangle rect = new Rectangle(0, 0, 10, 10);
+        PackedRTree tree = new PackedRTree(Collections.singletonList(rect));
+        assertEquals(1, tree.size());
+        assertEquals(2, tree.height());
+        assertEquals(rect.boundingBox(), tree.boundingBox());
+        assertSame(rect, tree.search(new Point(5, 5)).get(0));
+        assertTrue(tree.search(new BoundingBox(10, 10, 20, 20)).isEmpty());
+        assertSame(rect, tree.nearest(new Point(20, 20), 1).get(0));
+        assertTrue(tree.nearest(new Point(20, 20), 1, 1).isEmpty());
+    }
+
+    @Test
+    public void testFreeze() {
+        Random random = new Random(3);
+        RTree tree = new RsTree(16, 6);
+        List<Rectangle> rects = new ArrayList<Rectangle>();
+        for (int i = 0; i < 5000; i++) {
+            double x = Math.pow(random.nextDouble(), 3) * 1000;
+            double y = random.nextDouble() * 1000;
+            Rectangle rect = new Rectangle(x, y, x + random.nextDouble() * 5 + 0.01, y + random.nextDouble() + 0.01);
+            rects.add(rect);
+            tree.insert(rect);
+        }
+
+        PackedRTree packed = tree.freeze();
+        assertEquals(5000, packed.size());
+        // 5000 items, 313 leaf nodes, 20 branch nodes, 2 branch nodes and the root
+        assertEquals(5, packed.height());
+        assertEquals(tree.boundingBox(), packed.boundingBox());
+
+        for (int i = 0; i < 100; i++) {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            BoundingBox bb = new BoundingBox(x, y, x + random.nextDouble() * 50 + 1, y + random.nextDouble() * 50 + 1);
+            IndexAssert.assertSameResults(tree, packed, bb, 7);
+        }
+    }
+}
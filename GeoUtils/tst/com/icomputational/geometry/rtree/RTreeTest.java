@@ -2,12 +2,19 @@ package com.icomputational.geometry.rtree;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
 
 import org.junit.Test;
 
 import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.LinearRing;
+import com.icomputational.geometry.LodPolygon;
 import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polygon;
 import com.icomputational.geometry.Shape;
 
 
@@ -46,4 +53,158 @@ public class RTreeTest {
         System.out.println("Tree height: " + tree.height() + ", size: " + tree.size());
 
     }
+
+    @Test
+    public void testSearchPolygon() {
+        RTree tree = new RTree(8, 2);
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                tree.insert(new Rectangle(i, j, i + 0.5, j + 0.5));
+            }
+        }
+
+        // a thin corridor along the diagonal
+        Polygon corridor = new Polygon(new LinearRing(Arrays.asList(new Point(0, 0), new Point(0.2, 0),
+            new Point(20, 19.8), new Point(20, 20), new Point(19.8, 20), new Point(0, 0.2))));
+        List<Shape> shapes = tree.search(corridor);
+        assertEquals(20, shapes.size());
+        for (Shape shape : shapes) {
+            Rectangle rect = (Rectangle) shape;
+            assertEquals(rect.centre().x(), rect.centre().y(), 0.01);
+        }
+        assertEquals(400, tree.search(corridor.boundingBox()).size());
+
+        // shapes inside a hole are excluded
+        Polygon frame = new Polygon(new LinearRing(Arrays.asList(new Point(-1, -1), new Point(21, -1),
+            new Point(21, 21), new Point(-1, 21))));
+        frame.addInnerRing(new LinearRing(Arrays.asList(new Point(0.75, 0.75), new Point(18.75, 0.75),
+            new Point(18.75, 18.75), new Point(0.75, 18.75))));
+        assertEquals(400 - 18 * 18, tree.search(frame).size());
+    }
+
+    @Test
+    public void testSearchSegment() {
+        RTree tree = new RTree(8, 2);
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                tree.insert(new Rectangle(i, j, i + 0.5, j + 0.5));
+            }
+        }
+
+        assertEquals(20, tree.search(new Point(0.25, 0.25), new Point(19.25, 19.25)).size());
+        assertEquals(20, tree.search(new Point(3.25, -1), new Point(3.25, 30)).size());
+        assertEquals(10, tree.search(new Point(-1, 7.1), new Point(9.9, 7.1)).size());
+        assertEquals(1, tree.search(new Point(5.1, 5.1), new Point(5.2, 5.3)).size());
+        assertEquals(1, tree.search(new Point(5.1, 5.1), new Point(5.1, 5.1)).size());
+        assertEquals(0, tree.search(new Point(5.6, 5.1), new Point(5.9, 5.3)).size());
+    }
+
+    @Test
+    public void testNearest() {
+        RTree tree = new RTree(8, 2);
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                tree.insert(new Rectangle(i, j, i + 0.5, j + 0.5));
+            }
+        }
+
+        List<Shape> shapes = tree.nearest(new Point(5.25, 5.25), 5);
+        assertEquals(5, shapes.size());
+        assertEquals(new Rectangle(5, 5, 5.5, 5.5).boundingBox(), shapes.get(0).boundingBox());
+        assertEquals(0.75, shapes.get(4).distance(5.25, 5.25), 1E-12);
+
+        shapes = tree.nearest(new Point(-10, 25), 1);
+        assertEquals(new Rectangle(0, 19, 0.5, 19.5).boundingBox(), shapes.get(0).boundingBox());
+        assertEquals(400, tree.nearest(new Point(0, 0), 1000).size());
+        assertTrue(tree.nearest(new Point(0, 0), 0).isEmpty());
+    }
+
+    @Test
+    public void testSearchWithTolerance() {
+        RTree tree = new RTree(16, 4);
+        for (int i = 0; i < 20; i++) {
+            List<Point> vertices = new ArrayList<Point>();
+            for (int k = 0; k < 1000; k++) {
+                double angle = 2 * Math.PI * k / 1000;
+                vertices.add(new Point(i * 30 + 10 * Math.cos(angle), 10 * Math.sin(angle)));
+            }
+            tree.insert(new LodPolygon(new Polygon(new LinearRing(vertices))));
+        }
+
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            Point point = new Point(random.nextDouble() * 600 - 20, random.nextDouble() * 30 - 15);
+            assertEquals(tree.search(point), tree.search(point, 0));
+            BoundingBox bb = new BoundingBox(point.x(), point.y(), point.x() + 5, point.y() + 5);
+            assertEquals(tree.search(bb), tree.search(bb, 0));
+        }
+        assertEquals(1, tree.search(new Point(30, 0), 1).size());
+        assertEquals(0, tree.search(new Point(30, 12), 1).size());
+    }
+
+    @Test
+    public void testDeleteAll() {
+        for (RTree tree : Arrays.asList(new RTree(8, 3), new RsTree(8, 3))) {
+            Random random = new Random(5);
+            List<Rectangle> rects = new ArrayList<Rectangle>();
+            for (int i = 0; i < 3000; i++) {
+                double x = random.nextDouble() * 100;
+                double y = random.nextDouble() * 100;
+                Rectangle rect = new Rectangle(x, y, x + random.nextDouble() + 0.01, y + random.nextDouble() + 0.01);
+                rects.add(rect);
+                tree.insert(rect);
+            }
+
+            BoundingBox region = new BoundingBox(10, 10, 60, 60);
+            int expected = tree.search(region).size();
+            assertEquals(expected, tree.deleteAll(region));
+            assertEquals(3000 - expected, tree.size());
+            assertTrue(tree.search(region).isEmpty());
+            assertEquals(0, tree.deleteAll(region));
+
+            // delete shapes on the left half only
+            Predicate<Shape> left = new Predicate<Shape>() {
+                @Override
+                public boolean test(Shape shape) {
+                    return shape.boundingBox().maxX() < 50;
+                }
+            };
+            BoundingBox all = new BoundingBox(-1, -1, 102, 102);
+            int deleted = tree.deleteIf(all, left);
+            assertTrue(deleted > 0);
+            assertEquals(3000 - expected - deleted, tree.size());
+            for (Shape shape : tree.search(all)) {
+                assertFalse(left.test(shape));
+            }
+
+            // remaining shapes are reachable, so bounding boxes of nodes are valid
+            int remaining = 0;
+            for (Rectangle rect : rects) {
+                if (!left.test(rect) && !rect.overlaps(region)) {
+                    assertTrue(tree.search(rect.centre()).contains(rect));
+                    assertTrue(tree.delete(rect));
+                    remaining++;
+                }
+            }
+            assertEquals(3000 - expected - deleted, remaining);
+            assertEquals(0, tree.size());
+
+            // delete all but a few shapes of a tall tree
+            for (Rectangle rect : rects) {
+                tree.insert(rect);
+            }
+            assertEquals(2990, tree.deleteIf(all, new Predicate<Shape>() {
+                private int count;
+
+                @Override
+                public boolean test(Shape shape) {
+                    return ++count > 10;
+                }
+            }));
+            assertEquals(10, tree.size());
+            assertEquals(10, tree.search(all).size());
+            assertEquals(10, tree.deleteAll(all));
+            assertEquals(0, tree.size());
+        }
+    }
 }
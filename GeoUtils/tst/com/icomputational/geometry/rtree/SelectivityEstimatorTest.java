@@ -0,0 +1,62 @@
+package com.icomputational.geometry.rtree;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.BoundingBox;
+
+public class SelectivityEstimatorTest {
+
+    private static int visits(Node node, BoundingBox bb) {
+        int visits = 1;
+        if (!node.isLeaf()) {
+            for (Entry entry : node.entries) {
+                if (entry.getBoundingBox().overlaps(bb)) {
+                    visits += visits(((BranchEntry) entry).child, bb);
+                }
+            }
+        }
+        return visits;
+    }
+
+    @Test
+    public void testEstimate() {
+        Random random = new Random(11);
+        RTree tree = new RsTree(16, 6);
+        for (int i = 0; i < 20000; i++) {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            tree.insert(new Rectangle(x, y, x + random.nextDouble() * 5 + 0.1, y + random.nextDouble() * 5 + 0.1));
+        }
+
+        SelectivityEstimator estimator = new SelectivityEstimator(tree, 3);
+        assertTrue(estimator.cells() > 1);
+        assertEquals(tree.size(), estimator.estimateCount(new BoundingBox(-1, -1, 1010, 1010)), 1E-6);
+
+        for (int i = 0; i < 50; i++) {
+            double x = random.nextDouble() * 700;
+            double y = random.nextDouble() * 700;
+            double size = random.nextDouble() * 200 + 100;
+            BoundingBox bb = new BoundingBox(x, y, x + size, y + size);
+            int actual = tree.search(bb).size();
+            assertEquals(actual, estimator.estimateCount(bb), actual * 0.2);
+
+            int visits = visits(tree.rootNode, bb);
+            double estimated = estimator.estimateVisits(bb);
+            assertTrue(estimated + " vs " + visits, estimated > visits * 0.5 && estimated < visits * 2);
+        }
+
+        assertEquals(0, estimator.estimateCount(new BoundingBox(2000, 2000, 2001, 2001)), 0);
+        assertEquals(1, estimator.estimateVisits(new BoundingBox(2000, 2000, 2001, 2001)), 0);
+    }
+
+    @Test
+    public void testEmpty() {
+        SelectivityEstimator estimator = new SelectivityEstimator(new RTree(8, 3), 2);
+        assertEquals(0, estimator.cells());
+        assertEquals(0, estimator.estimateCount(new BoundingBox(0, 0, 1, 1)), 0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.icomputational.geometry.rtree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Shape;
+
+public class ShardedRTreeTest {
+
+    @Test
+    public void testSimple() {
+        List<Rectangle> rects = new ArrayList<Rectangle>();
+        for (int i = 0; i < 100; i++) {
+            rects.add(new Rectangle(i, i, i + 2, i + 2));
+        }
+        ShardedRTree index = new ShardedRTree(4, 8, 2, rects);
+        try {
+            for (Rectangle rect : rects) {
+                index.insert(rect);
+            }
+            index.flush();
+            assertEquals(100, index.size());
+            assertEquals(new BoundingBox(0, 0, 101, 101), index.boundingBox());
+            for (int size : index.shardSizes()) {
+                assertEquals(25, size);
+            }
+
+            assertEquals(2, index.search(new Point(50.5, 50.5)).size());
+            assertEquals(11, index.search(new BoundingBox(20, 20, 30, 30)).size());
+
+            List<Shape> shapes = index.nearest(new Point(-1, -1), 3);
+            assertEquals(3, shapes.size());
+            assertEquals(rects.get(0), shapes.get(0));
+            assertEquals(rects.get(1), shapes.get(1));
+            assertEquals(rects.get(2), shapes.get(2));
+
+            assertTrue(index.delete(rects.get(0)));
+            assertFalse(index.delete(rects.get(0)));
+            assertEquals(99, index.size());
+            assertEquals(rects.get(1), index.nearest(new Point(-1, -1), 1).get(0));
+        } finally {
+            index.shutdown();
+        }
+    }
+
+    @Test
+    public void testRebalance() throws InterruptedException {
+        final ShardedRTree index = new ShardedRTree(4, 16, 4);
+        final RTree tree = new RsTree(16, 4);
+        final List<Rectangle> rects = new ArrayList<Rectangle>();
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            Rectangle rect = new Rectangle(x, y, x + random.nextDouble() + 0.01, y + random.nextDouble() + 0.01);
+            rects.add(rect);
+            tree.insert(rect);
+        }
+
+        try {
+            // concurrent writers
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                final int offset = t;
+                threads[t] = new Thread() {
+                    @Override
+                    public void run() {
+                        for (int i = offset; i < rects.size(); i += 4) {
+                            index.insert(rects.get(i));
+                        }
+                    }
+                };
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            index.flush();
+            assertEquals(rects.size(), index.size());
+
+            // all shapes went to the first shard before it was rebalanced
+            int[] sizes = index.shardSizes();
+            for (int size : sizes) {
+                assertTrue(size < rects.size() / 2);
+            }
+
+            for (int i = 0; i < 50; i++) {
+                double x = random.nextDouble() * 1000;
+                double y = random.nextDouble() * 1000;
+                BoundingBox bb = new BoundingBox(x, y, x + 30, y + 30);
+                assertEquals(new HashSet<Shape>(tree.search(bb)), new HashSet<Shape>(index.search(bb)));
+                Point point = new Point(x, y);
+                assertEquals(new HashSet<Shape>(tree.search(point)), new HashSet<Shape>(index.search(point)));
+
+                List<Shape> expected = tree.nearest(point, 5);
+                List<Shape> actual = index.nearest(point, 5);
+                assertEquals(expected.size(), actual.size());
+                for (int j = 0; j < expected.size(); j++) {
+                    assertEquals(expected.get(j).distance(x, y), actual.get(j).distance(x, y), 0);
+                }
+            }
+
+            for (int i = 0; i < rects.size(); i += 2) {
+                assertTrue(index.delete(rects.get(i)));
+            }
+            assertEquals(rects.size() / 2, index.size());
+            assertTrue(index.search(rects.get(0).boundingBox()).size() < tree.search(rects.get(0).boundingBox())
+                .size());
+        } finally {
+            index.shutdown();
+        }
+    }
+}
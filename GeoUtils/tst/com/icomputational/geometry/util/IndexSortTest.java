@@ -0,0 +1,61 @@
+package com.icomputational.geometry.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexSortTest {
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    @Test
+    public void testSimple() {
+        double[] keys = {3, 1, 2, 1, -0.0, 0.0, Double.NaN};
+        int[] order = identity(keys.length);
+        IndexSort.sort(order, 0, order.length, keys, null);
+        // ties are ordered by indices, negative zero equals zero
+        assertArrayEquals(new int[] {4, 5, 1, 3, 2, 0, 6}, order);
+
+        double[] ties = {0, 5, 0, 4, 0, 0, 0};
+        order = identity(keys.length);
+        IndexSort.sort(order, 1, 4, keys, ties);
+        assertArrayEquals(new int[] {0, 3, 1, 2, 4, 5, 6}, order);
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(11);
+        for (int t = 0; t < 100; t++) {
+            int n = random.nextInt(2000);
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                // few distinct values make many ties
+                xs[i] = random.nextInt(t % 10 + 1);
+                ys[i] = random.nextInt(5);
+            }
+
+            int[] order = identity(n);
+            IndexSort.sort(order, 0, n, xs, ys);
+            for (int i = 1; i < n; i++) {
+                int a = order[i - 1];
+                int b = order[i];
+                assertTrue(xs[a] < xs[b] || (xs[a] == xs[b] && (ys[a] < ys[b] || (ys[a] == ys[b] && a < b))));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRange() {
+        IndexSort.sort(new int[3], 2, 4, new double[3], null);
+    }
+}
@@ -22,4 +22,38 @@ public class PolygonCheckerTest {
         assertTrue(checker.isSimple(points));
     }
 
+    @Test
+    public void testComplex() {
+        PolygonChecker checker = new PolygonChecker();
+        // a bow tie
+        assertFalse(checker.isSimple(new double[] {0, 2, 2, 0}, new double[] {0, 2, 0, 2}));
+        // a vertex touches a non-neighbor edge
+        assertFalse(checker.isSimple(new double[] {0, 4, 4, 2, 2, 0}, new double[] {0, 0, 4, 0, 2, 4}));
+        // a duplicated vertex
+        assertFalse(checker.isSimple(new double[] {0, 2, 1, 2, 0, 1}, new double[] {0, 0, 1, 2, 2, 1}));
+        // a spike where neighbor edges overlap
+        assertFalse(checker.isSimple(new double[] {0, 4, 2, 0}, new double[] {0, 0, 0, 4}));
+        // a vertical edge crosses another edge
+        assertFalse(checker.isSimple(new double[] {0, 2, 2, 1, 1}, new double[] {0, 0, 2, -1, 3}));
+        assertTrue(checker.isSimple(new double[] {0, 2, 2, 1, 1}, new double[] {0, 0, 2, 1, 3}));
+    }
+
+    @Test
+    public void testMillionVertices() {
+        int n = 1000000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double r = (i % 2 == 0) ? 1000 : 999;
+            xs[i] = r * Math.cos(angle);
+            ys[i] = r * Math.sin(angle);
+        }
+        PolygonChecker checker = new PolygonChecker();
+        assertTrue(checker.isSimple(xs, ys));
+
+        // move a vertex out across the other side of the ring
+        xs[n / 2] = 1500;
+        assertFalse(checker.isSimple(xs, ys));
+    }
 }
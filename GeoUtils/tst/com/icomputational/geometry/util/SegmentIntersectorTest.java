@@ -0,0 +1,133 @@
+package com.icomputational.geometry.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.icomputational.geometry.GeometryFixtures;
+import com.icomputational.geometry.LinearRing;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polyline;
+
+public class SegmentIntersectorTest {
+
+    @Test
+    public void testCrossing() {
+        SegmentIntersector intersector = new SegmentIntersector();
+        intersector.add(0, 0, 2, 2);
+        intersector.add(0, 2, 2, 0);
+        intersector.add(3, 0, 3, 2);
+        List<SegmentIntersector.Intersection> intersections = intersector.intersections();
+        assertEquals(1, intersections.size());
+        assertEquals(0, intersections.get(0).first());
+        assertEquals(1, intersections.get(0).second());
+        assertEquals(new Point(1, 1), intersections.get(0).point());
+        assertFalse(intersections.get(0).isOverlap());
+    }
+
+    @Test
+    public void testJunctionsAndOverlaps() {
+        SegmentIntersector intersector = new SegmentIntersector();
+        // three roads meet at (1, 1), where the vertex of the first road isn't reported
+        int road = intersector.add(new Polyline(Arrays.asList(new Point(0, 0), new Point(1, 1), new Point(2, 0))));
+        intersector.add(new Point(1, 1), new Point(1, 3));
+        // a road overlaps the vertical road from (1, 2) to (1, 3)
+        intersector.add(new Point(1, 2), new Point(1, 4));
+        List<SegmentIntersector.Intersection> intersections = intersector.intersections();
+
+        assertEquals(0, road);
+        assertEquals(4, intersector.size());
+        assertEquals(3, intersections.size());
+        for (SegmentIntersector.Intersection intersection : intersections) {
+            if (intersection.isOverlap()) {
+                assertEquals(2, intersection.first());
+                assertEquals(3, intersection.second());
+                assertEquals(new Point(1, 2), intersection.point());
+                assertEquals(new Point(1, 3), intersection.end());
+            } else {
+                assertEquals(2, intersection.second());
+                assertEquals(new Point(1, 1), intersection.point());
+            }
+        }
+    }
+
+    @Test
+    public void testRing() {
+        // a bow tie crosses itself at (1, 1)
+        SegmentIntersector intersector = new SegmentIntersector();
+        intersector.add(new LinearRing(Arrays.asList(new Point(0, 0), new Point(2, 2), new Point(2, 0),
+            new Point(0, 2))));
+        List<SegmentIntersector.Intersection> intersections = intersector.intersections();
+        assertEquals(1, intersections.size());
+        assertEquals(0, intersections.get(0).first());
+        assertEquals(2, intersections.get(0).second());
+
+        intersector = new SegmentIntersector();
+        intersector.add(new LinearRing(Arrays.asList(new Point(0, 0), new Point(2, 0), new Point(2, 2),
+            new Point(0, 2))));
+        assertTrue(intersector.intersections().isEmpty());
+    }
+
+    @Test
+    public void testRandomSegments() {
+        Random random = new Random(17);
+        double[][] segments = new double[500][];
+        SegmentIntersector intersector = new SegmentIntersector();
+        for (int i = 0; i < segments.length; i++) {
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            segments[i] = new double[] {x, y, x + random.nextGaussian() * 50, y + random.nextGaussian() * 50};
+            intersector.add(segments[i][0], segments[i][1], segments[i][2], segments[i][3]);
+        }
+        assertEquals(bruteForce(segments), pairs(intersector.intersections()));
+    }
+
+    @Test
+    public void testDegenerateSegments() {
+        // end points on a small grid make many shared end points, vertical and collinear segments
+        Random random = new Random(19);
+        for (int t = 0; t < 50; t++) {
+            double[][] segments = new double[60][];
+            SegmentIntersector intersector = new SegmentIntersector();
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = new double[] {random.nextInt(8), random.nextInt(8), random.nextInt(8),
+                    random.nextInt(8)};
+                intersector.add(segments[i][0], segments[i][1], segments[i][2], segments[i][3]);
+            }
+            assertEquals(bruteForce(segments), pairs(intersector.intersections()));
+        }
+    }
+
+    private static Set<Long> pairs(List<SegmentIntersector.Intersection> intersections) {
+        Set<Long> result = new HashSet<Long>();
+        for (SegmentIntersector.Intersection intersection : intersections) {
+            assertTrue(result.add(((long) intersection.first() << 32) | intersection.second()));
+        }
+        return result;
+    }
+
+    private static Set<Long> bruteForce(double[][] segments) {
+        Set<Long> result = new HashSet<Long>();
+        for (int i = 0; i < segments.length; i++) {
+            for (int j = i + 1; j < segments.length; j++) {
+                if (!isEmpty(segments[i]) && !isEmpty(segments[j])
+                    && GeometryFixtures.intersects(segments[i], segments[j])) {
+                    result.add(((long) i << 32) | j);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isEmpty(double[] e) {
+        return e[0] == e[2] && e[1] == e[3];
+    }
+}
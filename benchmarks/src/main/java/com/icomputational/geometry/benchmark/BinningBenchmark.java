@@ -0,0 +1,64 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.icomputational.geometry.binning.BinTable;
+import com.icomputational.geometry.binning.Binner;
+import com.icomputational.geometry.binning.HexBinning;
+import com.icomputational.geometry.binning.SquareBinning;
+
+/**
+ * Time to bin 10 million points into squares or hexagons, the number of cells is about
+ * (EXTENT / cellSize)^2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BinningBenchmark {
+    private static final int POINTS = 10000000;
+
+    @State(Scope.Benchmark)
+    public static class Points {
+        @Param({ "UNIFORM", "CLUSTERED", "SKEWED" })
+        public DataDistribution distribution;
+
+        @Param({ "square", "hex" })
+        public String shape;
+
+        @Param({ "1000", "10000" })
+        public double cellSize;
+
+        double[] xs;
+        double[] ys;
+        Binner binner;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            xs = new double[POINTS];
+            ys = new double[POINTS];
+            distribution.centres(new Random(TreeState.SEED), xs, ys);
+            binner = new Binner("hex".equals(shape) ? new HexBinning(cellSize) : new SquareBinning(cellSize));
+        }
+    }
+
+    @Benchmark
+    public BinTable bin(Points points) {
+        return points.binner.bin(points.xs, points.ys);
+    }
+}
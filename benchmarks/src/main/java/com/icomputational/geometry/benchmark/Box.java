@@ -0,0 +1,30 @@
+package com.icomputational.geometry.benchmark;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Shape;
+
+/**
+ * A {@link Box} is an axis-aligned rectangle shape to be indexed by benchmarks.
+ */
+public class Box extends Shape {
+    private final BoundingBox bb;
+
+    public Box(double minX, double minY, double maxX, double maxY) {
+        this.bb = new BoundingBox(minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public BoundingBox boundingBox() {
+        return bb;
+    }
+
+    @Override
+    public boolean contains(double x, double y) {
+        return bb.contains(x, y);
+    }
+
+    @Override
+    public boolean overlaps(BoundingBox other) {
+        return bb.overlaps(other);
+    }
+}
@@ -0,0 +1,79 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Clipper;
+import com.icomputational.geometry.LinearRing;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polygon;
+
+/**
+ * Time to clip a star-shaped polygon to a grid of 16 x 16 tiles, tile by tile by
+ * {@link Clipper#clip(Polygon, BoundingBox)}, or to the whole grid in one pass.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ClipperBenchmark {
+    private static final int TILES = 16;
+
+    @Param({ "256", "4096", "65536" })
+    public int vertices;
+
+    Polygon polygon;
+    BoundingBox grid;
+    Clipper clipper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(TreeState.SEED);
+        List<Point> points = new ArrayList<Point>(vertices);
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double r = 0.5 + random.nextDouble() * 0.5;
+            points.add(new Point(r * Math.cos(angle), r * Math.sin(angle)));
+        }
+        polygon = new Polygon(new LinearRing(points));
+        grid = new BoundingBox(-1, -1, 1, 1);
+        clipper = new Clipper();
+    }
+
+    @Benchmark
+    public Polygon[] clipEachTile() {
+        Polygon[] result = new Polygon[TILES * TILES];
+        double size = grid.width() / TILES;
+        for (int r = 0; r < TILES; r++) {
+            for (int c = 0; c < TILES; c++) {
+                BoundingBox tile = new BoundingBox(grid.minX() + c * size, grid.minY() + r * size,
+                    grid.minX() + (c + 1) * size, grid.minY() + (r + 1) * size);
+                result[r * TILES + c] = clipper.clip(polygon, tile);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Polygon[] clipGrid() {
+        return clipper.clip(polygon, grid, TILES, TILES);
+    }
+}
@@ -0,0 +1,92 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.Random;
+
+/**
+ * Distributions of benchmark data, all boxes are inside a square of {@link #EXTENT}.
+ */
+public enum DataDistribution {
+    /**
+     * Boxes are uniformly distributed.
+     */
+    UNIFORM {
+        @Override
+        void centres(Random random, double[] xs, double[] ys) {
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = random.nextDouble() * EXTENT;
+                ys[i] = random.nextDouble() * EXTENT;
+            }
+        }
+    },
+
+    /**
+     * Boxes are normally distributed around 100 random centres.
+     */
+    CLUSTERED {
+        @Override
+        void centres(Random random, double[] xs, double[] ys) {
+            int clusters = 100;
+            double[] cx = new double[clusters];
+            double[] cy = new double[clusters];
+            for (int i = 0; i < clusters; i++) {
+                cx[i] = random.nextDouble() * EXTENT;
+                cy[i] = random.nextDouble() * EXTENT;
+            }
+
+            double sigma = EXTENT / clusters;
+            for (int i = 0; i < xs.length; i++) {
+                int c = random.nextInt(clusters);
+                xs[i] = clamp(cx[c] + random.nextGaussian() * sigma);
+                ys[i] = clamp(cy[c] + random.nextGaussian() * sigma);
+            }
+        }
+    },
+
+    /**
+     * Boxes are dense near the origin and sparse far away, by a power law.
+     */
+    SKEWED {
+        @Override
+        void centres(Random random, double[] xs, double[] ys) {
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = Math.pow(random.nextDouble(), 4) * EXTENT;
+                ys[i] = Math.pow(random.nextDouble(), 4) * EXTENT;
+            }
+        }
+    };
+
+    /**
+     * The width and height of the data space.
+     */
+    public static final double EXTENT = 1000000;
+
+    /**
+     * Generate centres of boxes.
+     */
+    abstract void centres(Random random, double[] xs, double[] ys);
+
+    /**
+     * Generate boxes of this distribution, the average box side shrinks as the number of boxes grows,
+     * so that a box overlaps a few others regardless of the size.
+     * @param random the random generator.
+     * @param n the number of boxes.
+     */
+    public Box[] generate(Random random, int n) {
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        centres(random, xs, ys);
+
+        double side = EXTENT / Math.sqrt(n);
+        Box[] boxes = new Box[n];
+        for (int i = 0; i < n; i++) {
+            double w = (random.nextDouble() + 0.01) * side / 2;
+            double h = (random.nextDouble() + 0.01) * side / 2;
+            boxes[i] = new Box(xs[i] - w, ys[i] - h, xs[i] + w, ys[i] + h);
+        }
+        return boxes;
+    }
+
+    private static double clamp(double v) {
+        return Math.max(0, Math.min(EXTENT, v));
+    }
+}
@@ -0,0 +1,39 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deletion throughput. A deleted box is inserted back right away to keep the size of the tree, so the
+ * cost of deletion alone is roughly this score minus the cost of {@link InsertBenchmark#insert}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DeleteBenchmark {
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public boolean deleteAndInsert(TreeState state, Cursor cursor) {
+        Box shape = state.shapes[cursor.next];
+        cursor.next = (cursor.next + 1) % state.shapes.length;
+        boolean deleted = state.tree.delete(shape);
+        state.tree.insert(shape);
+        return deleted;
+    }
+}
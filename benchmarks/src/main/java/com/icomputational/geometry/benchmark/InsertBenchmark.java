@@ -0,0 +1,65 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.icomputational.geometry.rtree.RTree;
+
+/**
+ * Insertion throughput of a tree of the benchmark size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InsertBenchmark {
+
+    /**
+     * Boxes inserted during an iteration are deleted after it, so every iteration starts at the same size.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int inserted;
+
+        @TearDown(Level.Iteration)
+        public void tearDown(TreeState state) {
+            for (int i = 0; i < inserted; i++) {
+                state.tree.delete(state.pool[i & (TreeState.POOL_SIZE - 1)]);
+            }
+            inserted = 0;
+        }
+    }
+
+    @Benchmark
+    public void insert(TreeState state, Cursor cursor) {
+        state.tree.insert(state.pool[cursor.inserted++ & (TreeState.POOL_SIZE - 1)]);
+    }
+
+    /**
+     * Build a tree of the benchmark size by insertions, the score is the time of one build.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public RTree build(TreeState state) {
+        RTree tree = state.newTree();
+        for (Box shape : state.shapes) {
+            tree.insert(shape);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,98 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+
+/**
+ * A mixed workload of 70% box searches, 10% point searches, 10% insertions and 10% deletions, the tree
+ * keeps its size as each insertion is paired with a deletion of an earlier inserted box.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MixedBenchmark {
+    private static final int SEARCH_BOX = 0;
+    private static final int SEARCH_POINT = 1;
+    private static final int INSERT = 2;
+    private static final int DELETE = 3;
+
+    /**
+     * The number of boxes of the pool inserted ahead of deletions.
+     */
+    private static final int LAG = 1024;
+
+    @State(Scope.Thread)
+    public static class Workload {
+        int[] operations;
+        BoundingBox[] boxes;
+        int next;
+        int inserted;
+        int deleted;
+
+        @Setup(Level.Trial)
+        public void setUp(TreeState state) {
+            Random random = new Random(TreeState.SEED);
+            operations = new int[TreeState.POOL_SIZE];
+            for (int i = 0; i < operations.length; i++) {
+                int j = i % 10;
+                operations[i] = (j < 7) ? SEARCH_BOX : (j == 7) ? SEARCH_POINT : (j == 8) ? INSERT : DELETE;
+            }
+            // shuffle operations with a fixed seed
+            for (int i = operations.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int op = operations[i];
+                operations[i] = operations[j];
+                operations[j] = op;
+            }
+
+            double half = Math.sqrt(0.0001) * DataDistribution.EXTENT / 2;
+            boxes = new BoundingBox[TreeState.POOL_SIZE];
+            for (int i = 0; i < boxes.length; i++) {
+                Point centre = state.pool[i].boundingBox().centre();
+                boxes[i] = new BoundingBox(centre.x() - half, centre.y() - half, centre.x() + half,
+                    centre.y() + half);
+            }
+
+            for (; inserted < LAG; inserted++) {
+                state.tree.insert(state.pool[inserted]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object mixed(TreeState state, Workload workload) {
+        int i = workload.next++ & (TreeState.POOL_SIZE - 1);
+        switch (workload.operations[i]) {
+        case SEARCH_BOX:
+            return state.tree.search(workload.boxes[i]);
+        case SEARCH_POINT:
+            return state.tree.search(workload.boxes[i].centre());
+        case INSERT:
+            // deletions are no more than insertions, so the pool is never overwritten before deleted
+            state.tree.insert(state.pool[workload.inserted++ & (TreeState.POOL_SIZE - 1)]);
+            return null;
+        default:
+            if (workload.deleted + LAG >= workload.inserted) {
+                return null;
+            }
+            return state.tree.delete(state.pool[workload.deleted++ & (TreeState.POOL_SIZE - 1)]);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.icomputational.geometry.Shape;
+import com.icomputational.geometry.rtree.CompressedRTree;
+import com.icomputational.geometry.rtree.PackedRTree;
+
+/**
+ * Point and box search throughput of the packed tree frozen from the dynamic tree, and its compressed copy,
+ * with the same queries as {@link SearchBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PackedSearchBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PackedState {
+        PackedRTree tree;
+        CompressedRTree compressed;
+
+        @Setup(Level.Trial)
+        public void setUp(TreeState state) {
+            tree = state.tree.freeze();
+            compressed = tree.compress();
+        }
+    }
+
+    @Benchmark
+    public List<Shape> searchPoint(PackedState packed, SearchBenchmark.PointQueries queries) {
+        return packed.tree.search(queries.points[queries.next++ & (TreeState.POOL_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public List<Shape> searchBox(PackedState packed, SearchBenchmark.BoxQueries queries) {
+        return packed.tree.search(queries.boxes[queries.next++ & (TreeState.POOL_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public List<Shape> searchPointCompressed(PackedState packed, SearchBenchmark.PointQueries queries) {
+        return packed.compressed.search(queries.points[queries.next++ & (TreeState.POOL_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public List<Shape> searchBoxCompressed(PackedState packed, SearchBenchmark.BoxQueries queries) {
+        return packed.compressed.search(queries.boxes[queries.next++ & (TreeState.POOL_SIZE - 1)]);
+    }
+}
@@ -0,0 +1,80 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.icomputational.geometry.LinearRing;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Polygon;
+
+/**
+ * Time to check a column of points against a star-shaped polygon, one point at a time by
+ * {@link Polygon#contains(double, double)}, or all together by {@link Polygon#containsAll}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class PointInPolygonBenchmark {
+    private static final int POINTS = 1 << 16;
+
+    @Param({ "16", "256", "4096" })
+    public int vertices;
+
+    Polygon polygon;
+    double[] xs;
+    double[] ys;
+    BitSet result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(TreeState.SEED);
+        List<Point> points = new ArrayList<Point>(vertices);
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double r = 0.5 + random.nextDouble() * 0.5;
+            points.add(new Point(r * Math.cos(angle), r * Math.sin(angle)));
+        }
+        polygon = new Polygon(new LinearRing(points));
+
+        xs = new double[POINTS];
+        ys = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            xs[i] = random.nextDouble() * 2 - 1;
+            ys[i] = random.nextDouble() * 2 - 1;
+        }
+        result = new BitSet(POINTS);
+    }
+
+    @Benchmark
+    public BitSet containsEach() {
+        for (int i = 0; i < POINTS; i++) {
+            result.set(i, polygon.contains(xs[i], ys[i]));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public BitSet containsAll() {
+        polygon.containsAll(xs, ys, result);
+        return result;
+    }
+}
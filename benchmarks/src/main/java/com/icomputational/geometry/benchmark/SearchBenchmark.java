@@ -0,0 +1,85 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.icomputational.geometry.BoundingBox;
+import com.icomputational.geometry.Point;
+import com.icomputational.geometry.Shape;
+
+/**
+ * Point and box search throughput, queries follow the distribution of data.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SearchBenchmark {
+
+    /**
+     * Point queries at centres of boxes in the pool.
+     */
+    @State(Scope.Thread)
+    public static class PointQueries {
+        Point[] points;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(TreeState state) {
+            points = new Point[TreeState.POOL_SIZE];
+            for (int i = 0; i < points.length; i++) {
+                points[i] = state.pool[i].boundingBox().centre();
+            }
+        }
+    }
+
+    /**
+     * Box queries around centres of boxes in the pool.
+     */
+    @State(Scope.Thread)
+    public static class BoxQueries {
+        /**
+         * The area of a query box as a fraction of the data space.
+         */
+        @Param({ "0.00001", "0.0001", "0.001" })
+        public double selectivity;
+
+        BoundingBox[] boxes;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(TreeState state) {
+            double half = Math.sqrt(selectivity) * DataDistribution.EXTENT / 2;
+            boxes = new BoundingBox[TreeState.POOL_SIZE];
+            for (int i = 0; i < boxes.length; i++) {
+                Point centre = state.pool[i].boundingBox().centre();
+                boxes[i] = new BoundingBox(centre.x() - half, centre.y() - half, centre.x() + half,
+                    centre.y() + half);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Shape> searchPoint(TreeState state, PointQueries queries) {
+        return state.tree.search(queries.points[queries.next++ & (TreeState.POOL_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public List<Shape> searchBox(TreeState state, BoxQueries queries) {
+        return state.tree.search(queries.boxes[queries.next++ & (TreeState.POOL_SIZE - 1)]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.icomputational.geometry.benchmark;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.icomputational.geometry.rtree.RTree;
+import com.icomputational.geometry.rtree.RsTree;
+
+/**
+ * A {@link TreeState} holds a tree built from generated boxes, and a pool of boxes not in the tree.
+ * The data is generated with a fixed seed, so that runs of different builds are comparable.
+ */
+@State(Scope.Benchmark)
+public class TreeState {
+    static final long SEED = 20141026L;
+
+    /**
+     * The number of boxes not in the tree, used by insertions and queries.
+     */
+    static final int POOL_SIZE = 1 << 16;
+
+    @Param({ "UNIFORM", "CLUSTERED", "SKEWED" })
+    public DataDistribution distribution;
+
+    @Param({ "10000", "100000", "1000000", "10000000" })
+    public int size;
+
+    @Param({ "RTree", "RsTree" })
+    public String type;
+
+    /**
+     * The maximum and minimum number of entries of a node, as "M/m".
+     */
+    @Param({ "8/3", "16/6", "32/12", "64/25" })
+    public String capacity;
+
+    RTree tree;
+    Box[] shapes;
+    Box[] pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SEED);
+        shapes = distribution.generate(random, size);
+        pool = distribution.generate(random, POOL_SIZE);
+        tree = newTree();
+        for (Box shape : shapes) {
+            tree.insert(shape);
+        }
+    }
+
+    /**
+     * Create an empty tree of the benchmark type and capacity.
+     */
+    RTree newTree() {
+        int slash = capacity.indexOf('/');
+        int M = Integer.parseInt(capacity.substring(0, slash));
+        int m = Integer.parseInt(capacity.substring(slash + 1));
+        if ("RTree".equals(type)) {
+            return new RTree(M, m);
+        } else if ("RsTree".equals(type)) {
+            return new RsTree(M, m);
+        }
+        throw new IllegalArgumentException("unknown tree type: " + type);
+    }
+}